@@ -0,0 +1,126 @@
+package carcassonne.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import carcassonne.model.Player;
+import carcassonne.model.Round;
+import carcassonne.model.ai.TemporaryTile;
+import carcassonne.model.ai.ZeroSumMove;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridPattern;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileStack;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Benchmark state with a board at a specific stage of a game. The board is created by greedily playing the best move of
+ * every tile of a seeded tile stack, until the given share of the stack is placed.
+ * @author Timur Saglam
+ */
+@State(Scope.Benchmark)
+public class BoardState {
+    /**
+     * Stages of a game, defined by the share of placed tiles.
+     */
+    public enum GameStage {
+        EARLY(0.1),
+        MID(0.5),
+        LATE(0.9);
+
+        private final double placedShare;
+
+        GameStage(double placedShare) {
+            this.placedShare = placedShare;
+        }
+    }
+
+    @Param({"EARLY", "MID", "LATE"})
+    public GameStage stage;
+
+    @Param({"42"})
+    public long seed;
+
+    public GameSettings settings;
+    public Grid grid;
+    public Player player;
+    public Tile nextTile; // tile that is placed next, has at least one legal placement
+    public List<GridSpot> frontier; // free spots next to placed tiles
+    public List<GridSpot> occupiedSpots;
+    public List<Placement> placements; // legal placements of the next tile
+
+    /**
+     * Legal placement of a tile in a specific rotation on a free spot.
+     */
+    public record Placement(GridSpot spot, TemporaryTile tile) {
+    }
+
+    /**
+     * Plays the game until the stage is reached.
+     */
+    @Setup(Level.Trial)
+    public void createBoard() {
+        settings = new GameSettings();
+        settings.setNumberOfPlayers(2);
+        grid = new Grid(settings.getGridWidth(), settings.getGridHeight(), settings.isAllowingEnclaves());
+        TileStack stack = new TileStack(settings.getTileDistribution(), settings.getStackSizeMultiplier(), seed);
+        Round round = new Round(settings.getNumberOfPlayers(), stack, grid, settings);
+        int tilesToPlace = (int) (stack.getSize() * stage.placedShare);
+        for (int placed = 0; placed < tilesToPlace && !stack.isEmpty();) {
+            Tile tile = stack.drawTile();
+            List<ZeroSumMove> moves = grid.getPossibleMoves(tile, round.getActivePlayer(), settings);
+            if (!moves.isEmpty()) {
+                playMove(moves.get(0), tile, round.getActivePlayer());
+                placed++;
+            }
+            round.nextTurn();
+        }
+        player = round.getActivePlayer();
+        nextTile = stack.drawTile();
+        while (nextTile != null && grid.getPossibleMoves(nextTile, player, settings).isEmpty()) {
+            nextTile = stack.drawTile();
+        }
+        if (nextTile == null) {
+            throw new IllegalStateException("No placeable tile left at stage " + stage);
+        }
+        frontier = grid.getNeighboursOfActiveSpots();
+        occupiedSpots = new ArrayList<>();
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                if (grid.getTileType(x, y) != null) {
+                    occupiedSpots.add(grid.getSpot(x, y));
+                }
+            }
+        }
+        placements = new ArrayList<>();
+        for (TileRotation rotation : nextTile.getPossibleRotations()) {
+            for (GridSpot spot : frontier) {
+                TemporaryTile tile = new TemporaryTile(nextTile, rotation);
+                if (spot.isPlaceable(tile, settings.isAllowingEnclaves())) {
+                    placements.add(new Placement(spot, tile));
+                }
+            }
+        }
+    }
+
+    private void playMove(ZeroSumMove move, Tile tile, Player activePlayer) {
+        tile.rotateTo(move.getRequiredTileRotation());
+        grid.place(move.getX(), move.getY(), tile);
+        if (move.involvesMeeplePlacement() && activePlayer.hasFreeMeeples()) {
+            tile.placeMeeple(activePlayer, move.getMeeplePosition(), settings);
+        }
+        for (GridPattern pattern : grid.getModifiedPatterns(tile.getGridSpot())) {
+            if (pattern.isComplete()) {
+                pattern.disburse(settings.getSplitPatternScore());
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package carcassonne.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import carcassonne.model.ai.PlacementEvaluator;
+import carcassonne.model.ai.ZeroSumMove;
+
+/**
+ * Benchmarks the generation and creation of AI moves.
+ * @author Timur Saglam
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    /**
+     * Generates all moves of the next tile.
+     */
+    @Benchmark
+    public List<ZeroSumMove> getPossibleMoves(BoardState board) {
+        return board.grid.getPossibleMoves(board.nextTile, board.player, board.settings);
+    }
+
+    /**
+     * Creates a move without meeple placement for every legal placement of the next tile.
+     */
+    @Benchmark
+    public void createZeroSumMoves(BoardState board, Blackhole blackhole) {
+        PlacementEvaluator evaluator = new PlacementEvaluator(board.grid);
+        for (BoardState.Placement placement : board.placements) {
+            evaluator.prepare(placement.spot(), placement.tile());
+            blackhole.consume(new ZeroSumMove(placement.tile(), placement.spot(), null, board.player, board.settings, evaluator));
+        }
+    }
+}
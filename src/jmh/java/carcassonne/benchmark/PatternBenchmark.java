@@ -0,0 +1,69 @@
+package carcassonne.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import carcassonne.model.grid.CastleAndRoadPattern;
+import carcassonne.model.grid.FieldsPattern;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.terrain.TerrainType;
+
+/**
+ * Benchmarks the construction of grid patterns. Every operation covers all placed tiles of the board.
+ * @author Timur Saglam
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternBenchmark {
+
+    /**
+     * Collects the local patterns of every placed tile.
+     */
+    @Benchmark
+    public void getLocalPatterns(BoardState board, Blackhole blackhole) {
+        for (GridSpot spot : board.occupiedSpots) {
+            blackhole.consume(board.grid.getLocalPatterns(spot));
+        }
+    }
+
+    /**
+     * Constructs the field patterns starting at every field position of every placed tile.
+     */
+    @Benchmark
+    public void constructFieldsPatterns(BoardState board, Blackhole blackhole) {
+        for (GridSpot spot : board.occupiedSpots) {
+            for (GridDirection position : GridDirection.values()) {
+                if (spot.getTile().getTerrain(position) == TerrainType.FIELDS) {
+                    blackhole.consume(new FieldsPattern(spot, position));
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs the castle and road patterns starting at every castle or road position of every placed tile.
+     */
+    @Benchmark
+    public void constructCastleAndRoadPatterns(BoardState board, Blackhole blackhole) {
+        for (GridSpot spot : board.occupiedSpots) {
+            for (GridDirection position : GridDirection.values()) {
+                TerrainType terrain = spot.getTile().getTerrain(position);
+                if (terrain == TerrainType.CASTLE || terrain == TerrainType.ROAD) {
+                    blackhole.consume(new CastleAndRoadPattern(spot, position, terrain));
+                }
+            }
+        }
+    }
+}
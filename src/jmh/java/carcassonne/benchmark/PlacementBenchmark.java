@@ -0,0 +1,86 @@
+package carcassonne.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.terrain.TileTerrain;
+import carcassonne.model.tile.TileRotation;
+
+/**
+ * Benchmarks placement checks of tiles and meeples.
+ * @author Timur Saglam
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+    /**
+     * Terrain of the next tile, which is rotated by the benchmark.
+     */
+    @State(Scope.Thread)
+    public static class TerrainState {
+        public TileTerrain terrain;
+
+        @Setup
+        public void createTerrain(BoardState board) {
+            terrain = TileTerrain.of(board.nextTile.getType(), TileRotation.UP);
+        }
+    }
+
+    /**
+     * Checks the next tile on every frontier spot, enclosing free spots is allowed.
+     */
+    @Benchmark
+    public void isPlaceableWithEnclaves(BoardState board, Blackhole blackhole) {
+        for (GridSpot spot : board.frontier) {
+            blackhole.consume(spot.isPlaceable(board.nextTile, true));
+        }
+    }
+
+    /**
+     * Checks the next tile on every frontier spot, including the check whether free spots are enclosed.
+     */
+    @Benchmark
+    public void isPlaceableWithoutEnclaves(BoardState board, Blackhole blackhole) {
+        for (GridSpot spot : board.frontier) {
+            blackhole.consume(spot.isPlaceable(board.nextTile, false));
+        }
+    }
+
+    /**
+     * Checks every position of every placed tile for a meeple placement of the active player.
+     */
+    @Benchmark
+    public void allowsPlacingMeeple(BoardState board, Blackhole blackhole) {
+        for (GridSpot spot : board.occupiedSpots) {
+            for (GridDirection position : GridDirection.values()) {
+                blackhole.consume(spot.getTile().allowsPlacingMeeple(position, board.player, board.settings));
+            }
+        }
+    }
+
+    /**
+     * Rotates the terrain of a tile by 90 degrees.
+     */
+    @Benchmark
+    public TileTerrain rotateRight(TerrainState state) {
+        state.terrain = state.terrain.rotateRight();
+        return state.terrain;
+    }
+}
@@ -35,6 +35,7 @@ public class MainController implements ControllerFacade {
      */
     public MainController() {
         settings = new GameSettings();
+        settings.setAdvancedTileHighlight(TelemetryManager.getInstance().getAdvancedHighlightEnabledDefault());
         createUserInterface();
         ArtificialIntelligence playerAI = new RuleBasedAI(settings);
         ViewFacade views = new ViewFacade(mainView, tileView, meepleView);
@@ -0,0 +1,25 @@
+package carcassonne.control.headless;
+
+import java.util.List;
+
+/**
+ * Result of a game that was played without user interface.
+ * @param seed is the seed of the game.
+ * @param scores are the final scores, indexed by player number.
+ * @param turns is the number of turns that were played, including skipped turns.
+ * @param skippedTurns is the number of turns in which no tile was placed.
+ * @param decisionTimes are the durations of the move decisions of the AI in nanoseconds, in the order of the turns.
+ * @param allocatedBytes is the memory that was allocated by the thread that played the game, or -1 if the JVM does not
+ * support measuring it.
+ * @author Timur Saglam
+ */
+public record GameResult(long seed, List<Integer> scores, int turns, int skippedTurns, List<Long> decisionTimes, long allocatedBytes) {
+
+    /**
+     * Returns the highest score of the game.
+     * @return the winning score.
+     */
+    public int getWinningScore() {
+        return scores.stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+}
@@ -0,0 +1,160 @@
+package carcassonne.control.headless;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import carcassonne.model.Player;
+import carcassonne.model.Round;
+import carcassonne.model.ai.AbstractCarcassonneMove;
+import carcassonne.model.ai.ArtificialIntelligence;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridPattern;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileStack;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Game engine that plays a complete round between AI players without any user interface. It applies the same rules as
+ * the states of the {@link carcassonne.control.state.StateMachine} for computer-controlled players, but in a simple loop
+ * on the calling thread without any round trips to the event dispatch thread. Independent games can be played
+ * concurrently, as long as every game uses its own AI.
+ * @author Timur Saglam
+ */
+public class HeadlessGame {
+    private final GameSettings settings;
+    private final ArtificialIntelligence playerAI;
+    private final long seed;
+    private final Grid grid;
+    private final TileStack tileStack;
+    private final Round round;
+    private int turns;
+    private int skippedTurns;
+    private final List<Long> decisionTimes;
+    private boolean played;
+
+    /**
+     * Creates a game. All players are controlled by the AI, independently of the player types in the settings.
+     * @param settings are the game settings, which must not be changed while the game is played.
+     * @param playerAI is the AI that controls the players, which must not be shared with concurrently played games.
+     * @param seed is the seed for the tile order.
+     */
+    public HeadlessGame(GameSettings settings, ArtificialIntelligence playerAI, long seed) {
+        this.settings = settings;
+        this.playerAI = playerAI;
+        this.seed = seed;
+        grid = new Grid(settings.getGridWidth(), settings.getGridHeight(), settings.isAllowingEnclaves());
+        tileStack = new TileStack(settings.getTileDistribution(), settings.getStackSizeMultiplier(), seed);
+        round = new Round(settings.getNumberOfPlayers(), tileStack, grid, settings);
+        decisionTimes = new ArrayList<>();
+    }
+
+    /**
+     * Plays the game until it is over and scores the remaining patterns.
+     * @return the result of the game.
+     * @throws IllegalStateException if the game was already played or if the AI chose an illegal move.
+     */
+    public GameResult play() {
+        if (played) {
+            throw new IllegalStateException("A game can only be played once.");
+        }
+        played = true;
+        long allocatedBefore = allocatedBytes();
+        dealTiles();
+        while (playTurn(round.getActivePlayer())) {
+            round.nextTurn();
+        }
+        for (GridPattern pattern : grid.getAllPatterns()) {
+            pattern.forceDisburse(settings.getSplitPatternScore());
+        }
+        List<Integer> scores = new ArrayList<>();
+        for (int playerNumber = 0; playerNumber < round.getPlayerCount(); playerNumber++) {
+            scores.add(round.getPlayer(playerNumber).getScore());
+        }
+        long allocatedAfter = allocatedBytes();
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        return new GameResult(seed, List.copyOf(scores), turns, skippedTurns, List.copyOf(decisionTimes), allocated);
+    }
+
+    /**
+     * Getter for the grid of the game.
+     * @return the grid.
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Getter for the round of the game.
+     * @return the round.
+     */
+    public Round getRound() {
+        return round;
+    }
+
+    /**
+     * Returns the memory allocated by the current thread so far, or -1 if it cannot be measured. Allocations of the worker
+     * threads of a parallel move generation are not included.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private void dealTiles() {
+        for (int playerNumber = 0; playerNumber < round.getPlayerCount(); playerNumber++) {
+            Player player = round.getPlayer(playerNumber);
+            while (!player.hasFullHand() && !tileStack.isEmpty()) {
+                player.addTile(tileStack.drawTile());
+            }
+        }
+    }
+
+    /**
+     * Plays the turn of a player, returns false if the game is over.
+     */
+    private boolean playTurn(Player player) {
+        if (!player.hasFullHand() && !tileStack.isEmpty()) {
+            player.addTile(tileStack.drawTile());
+        }
+        if (round.isOver()) {
+            return false;
+        }
+        turns++;
+        long decisionStart = System.nanoTime();
+        Optional<AbstractCarcassonneMove> bestMove = playerAI.calculateBestMoveFor(player.getHandOfTiles(), player, grid, tileStack);
+        decisionTimes.add(System.nanoTime() - decisionStart);
+        if (bestMove.isEmpty()) {
+            skipTurn(player);
+            return true;
+        }
+        AbstractCarcassonneMove move = bestMove.get();
+        Tile tile = move.getOriginalTile();
+        tile.rotateTo(move.getRequiredTileRotation());
+        if (!grid.place(move.getX(), move.getY(), tile)) {
+            throw new IllegalStateException("AI move cannot be placed: " + move);
+        }
+        player.dropTile(tile);
+        if (player.hasFreeMeeples() && move.involvesMeeplePlacement()) {
+            tile.placeMeeple(player, move.getMeeplePosition(), settings);
+        }
+        for (GridPattern pattern : grid.getModifiedPatterns(tile.getGridSpot())) {
+            if (pattern.isComplete()) {
+                pattern.disburse(settings.getSplitPatternScore());
+            }
+        }
+        return !round.isOver();
+    }
+
+    private void skipTurn(Player player) {
+        if (!player.getHandOfTiles().isEmpty()) {
+            Tile tile = playerAI.chooseTileToDrop(player.getHandOfTiles());
+            tileStack.putBack(tile);
+            player.dropTile(tile);
+        }
+        skippedTurns++;
+    }
+}
@@ -0,0 +1,69 @@
+package carcassonne.control.headless;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+import carcassonne.model.ai.ArtificialIntelligence;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Plays batches of independent {@link HeadlessGame headless games} concurrently, for example for AI tuning and
+ * regression runs. Every game gets its own AI, which is created from the seed of the game. As the games are already
+ * played concurrently, the settings should usually specify a move generation parallelism of 1.
+ * @author Timur Saglam
+ */
+public class HeadlessGameRunner {
+    private final GameSettings settings;
+    private final LongFunction<ArtificialIntelligence> aiFactory;
+    private final int threads;
+
+    /**
+     * Creates a runner.
+     * @param settings are the game settings shared by all games, which must not be changed while games are played.
+     * @param aiFactory creates a new AI for a game from the seed of the game.
+     * @param threads is the number of games that are played at the same time.
+     */
+    public HeadlessGameRunner(GameSettings settings, LongFunction<ArtificialIntelligence> aiFactory, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        this.settings = settings;
+        this.aiFactory = aiFactory;
+        this.threads = threads;
+    }
+
+    /**
+     * Plays a batch of games with consecutive seeds and waits until all of them are over.
+     * @param firstSeed is the seed of the first game.
+     * @param games is the number of games.
+     * @return the results of the games, ordered by their seeds.
+     * @throws IllegalStateException if a game failed or the calling thread was interrupted.
+     */
+    public List<GameResult> play(long firstSeed, int games) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<GameResult>> futures = new ArrayList<>(games);
+            for (long seed = firstSeed; seed < firstSeed + games; seed++) {
+                long gameSeed = seed;
+                futures.add(executor.submit(() -> new HeadlessGame(settings, aiFactory.apply(gameSeed), gameSeed).play()));
+            }
+            List<GameResult> results = new ArrayList<>(games);
+            for (Future<GameResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Headless game failed: " + exception.getCause().getMessage(), exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while playing headless games.", exception);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
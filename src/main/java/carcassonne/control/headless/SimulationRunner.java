@@ -0,0 +1,222 @@
+package carcassonne.control.headless;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import carcassonne.model.ai.ArtificialIntelligence;
+import carcassonne.model.ai.ExpectimaxAI;
+import carcassonne.model.ai.MonteCarloAI;
+import carcassonne.model.ai.RuleBasedAI;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.settings.GameSettings;
+import carcassonne.util.MinkowskiDistance;
+
+/**
+ * Command line runner that plays AI-vs-AI games without user interface on all cores and reports the throughput, the
+ * decision latency, the allocation rate, and the score distributions. Options are passed as <code>--name=value</code>,
+ * see {@link #USAGE}. Example: <code>java -cp carcassonne.jar carcassonne.control.headless.SimulationRunner --games=500
+ * --players=3 --width=15 --height=15</code>
+ * @author Timur Saglam
+ */
+public final class SimulationRunner {
+    private static final String USAGE = """
+            Usage: SimulationRunner [--name=value ...]
+              --games=N         number of measured games (default 100)
+              --warmup=N        number of unmeasured games played before (default 0)
+              --threads=N       number of concurrently played games (default: number of cores)
+              --seed=N          seed of the first game, the games use consecutive seeds (default 1)
+              --width=N         grid width (default 29)
+              --height=N        grid height (default 19)
+              --players=N       number of players (default 2)
+              --multiplier=N    tile stack multiplier (default 1)
+              --tiles=N         tiles per player (default 1)
+              --distance=NAME   Minkowski distance of the AI, one of %s (default ROUNDED_SQUARE)
+              --enclaves=BOOL   allow enclaves (default true)
+              --fortifying=BOOL allow fortifying (default false)
+              --split=BOOL      split pattern scores (default false)
+              --meeples=LIST    comma-separated terrain on which meeples can be placed (default CASTLE,ROAD,MONASTERY)
+              --parallelism=N   move generation threads per game (default 1)
+              --ai=NAME         AI of the players, rule, expectimax or mcts (default rule)
+              --budget=N        milliseconds per move of the mcts AI (default 200)
+            """.formatted(Arrays.toString(MinkowskiDistance.values()));
+    private static final Set<String> OPTIONS = Set.of("games", "warmup", "threads", "seed", "width", "height", "players", "multiplier", "tiles",
+            "distance", "enclaves", "fortifying", "split", "meeples", "parallelism", "ai", "budget");
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final int HISTOGRAM_BIN_SIZE = 10;
+    private static final int HISTOGRAM_WIDTH = 50;
+
+    private SimulationRunner() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Main method that runs the simulation.
+     * @param args are the options in the form <code>--name=value</code>.
+     */
+    public static void main(String[] args) {
+        try {
+            Map<String, String> options = parseOptions(args);
+            GameSettings settings = createSettings(options);
+            int games = intOption(options, "games", 100);
+            int warmup = intOption(options, "warmup", 0);
+            int threads = intOption(options, "threads", Runtime.getRuntime().availableProcessors());
+            long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+            HeadlessGameRunner runner = new HeadlessGameRunner(settings, createAIFactory(options, settings), threads);
+            if (warmup > 0) {
+                runner.play(seed - warmup, warmup);
+            }
+            long start = System.nanoTime();
+            List<GameResult> results = runner.play(seed, games);
+            long duration = System.nanoTime() - start;
+            printReport(results, duration, threads, settings);
+        } catch (IllegalArgumentException exception) {
+            System.err.println(exception.getMessage());
+            System.err.print(USAGE);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String argument : args) {
+            int separator = argument.indexOf('=');
+            if (!argument.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Malformed option: " + argument);
+            }
+            String name = argument.substring(2, separator);
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: " + name);
+            }
+            options.put(name, argument.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static GameSettings createSettings(Map<String, String> options) {
+        GameSettings settings = new GameSettings();
+        settings.setGridWidth(intOption(options, "width", settings.getGridWidth()));
+        settings.setGridHeight(intOption(options, "height", settings.getGridHeight()));
+        settings.setNumberOfPlayers(intOption(options, "players", settings.getNumberOfPlayers()));
+        settings.setStackSizeMultiplier(intOption(options, "multiplier", settings.getStackSizeMultiplier()));
+        settings.setTilesPerPlayer(intOption(options, "tiles", settings.getTilesPerPlayer()));
+        settings.setMoveGenerationParallelism(intOption(options, "parallelism", 1));
+        settings.setDistanceMeasure(MinkowskiDistance.valueOf(options.getOrDefault("distance", settings.getDistanceMeasure().name())));
+        settings.setAllowEnclaves(booleanOption(options, "enclaves", settings.isAllowingEnclaves()));
+        settings.setAllowFortifying(booleanOption(options, "fortifying", settings.isAllowingFortifying()));
+        settings.setSplitPatternScore(booleanOption(options, "split", settings.getSplitPatternScore()));
+        if (options.containsKey("meeples")) {
+            List<TerrainType> meepleTerrain = Arrays.stream(options.get("meeples").split(",")).map(TerrainType::valueOf).toList();
+            for (TerrainType terrain : TerrainType.basicTerrain()) {
+                if (settings.getMeepleRule(terrain) != meepleTerrain.contains(terrain)) {
+                    settings.toggleMeepleRule(terrain);
+                }
+            }
+        }
+        return settings;
+    }
+
+    private static LongFunction<ArtificialIntelligence> createAIFactory(Map<String, String> options, GameSettings settings) {
+        String name = options.getOrDefault("ai", "rule");
+        switch (name) {
+        case "rule":
+            return gameSeed -> new RuleBasedAI(settings, gameSeed);
+        case "expectimax":
+            return gameSeed -> new ExpectimaxAI(settings, gameSeed);
+        case "mcts":
+            Duration budget = Duration.ofMillis(intOption(options, "budget", 200));
+            return gameSeed -> new MonteCarloAI(settings, budget, gameSeed);
+        default:
+            throw new IllegalArgumentException("Unknown AI: " + name);
+        }
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Option " + name + " requires a number: " + value);
+        }
+    }
+
+    private static boolean booleanOption(Map<String, String> options, String name, boolean defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!value.equals("true") && !value.equals("false")) {
+            throw new IllegalArgumentException("Option " + name + " requires true or false: " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private static void printReport(List<GameResult> results, long duration, int threads, GameSettings settings) {
+        double seconds = duration / NANOS_PER_SECOND;
+        long turns = results.stream().mapToLong(GameResult::turns).sum();
+        long skippedTurns = results.stream().mapToLong(GameResult::skippedTurns).sum();
+        long[] decisionTimes = results.stream().flatMap(it -> it.decisionTimes().stream()).mapToLong(Long::longValue).sorted().toArray();
+        System.out.println(String.format(Locale.US, "Games:      %d on %d threads in %.2f s (%dx%d grid, %d players, stack multiplier %d)", results.size(),
+                threads, seconds, settings.getGridWidth(), settings.getGridHeight(), settings.getNumberOfPlayers(),
+                settings.getStackSizeMultiplier()));
+        System.out.println(String.format(Locale.US, "Throughput: %.2f games/s, %.1f moves/s (%d moves, %d skipped)", results.size() / seconds,
+                turns / seconds, turns, skippedTurns));
+        if (decisionTimes.length > 0) {
+            System.out.println(String.format(Locale.US, "Decisions:  p50 %.3f ms, p99 %.3f ms, max %.3f ms", percentile(decisionTimes, 50) / NANOS_PER_MILLISECOND,
+                    percentile(decisionTimes, 99) / NANOS_PER_MILLISECOND, decisionTimes[decisionTimes.length - 1] / NANOS_PER_MILLISECOND));
+        }
+        if (results.stream().allMatch(it -> it.allocatedBytes() >= 0)) {
+            double megabytes = results.stream().mapToLong(GameResult::allocatedBytes).sum() / BYTES_PER_MEGABYTE;
+            System.out.println(String.format(Locale.US, "Allocation: %.1f MB/s, %.2f MB per game", megabytes / seconds, megabytes / results.size()));
+        } else {
+            System.out.println("Allocation: not supported by this JVM");
+        }
+        for (int player = 0; player < settings.getNumberOfPlayers(); player++) {
+            int playerNumber = player;
+            printDistribution("Player " + player + ":  ", results, it -> it.scores().get(playerNumber));
+        }
+        printDistribution("Winner:    ", results, GameResult::getWinningScore);
+        printHistogram(results);
+    }
+
+    private static void printDistribution(String label, List<GameResult> results, ToLongFunction<GameResult> score) {
+        long[] scores = results.stream().mapToLong(score).sorted().toArray();
+        if (scores.length > 0) {
+            double mean = Arrays.stream(scores).average().orElse(0);
+            System.out.println(String.format(Locale.US, "%smean %.1f, min %d, p50 %d, p99 %d, max %d", label, mean, scores[0], percentile(scores, 50),
+                    percentile(scores, 99), scores[scores.length - 1]));
+        }
+    }
+
+    /**
+     * Prints a histogram of the scores of all players in all games.
+     */
+    private static void printHistogram(List<GameResult> results) {
+        Map<Integer, Integer> bins = new HashMap<>();
+        results.stream().flatMap(it -> it.scores().stream()).forEach(it -> bins.merge(it / HISTOGRAM_BIN_SIZE, 1, Integer::sum));
+        int maximum = bins.values().stream().mapToInt(Integer::intValue).max().orElse(1);
+        List<Integer> sortedBins = new ArrayList<>(bins.keySet());
+        sortedBins.sort(null);
+        System.out.println("Scores:");
+        for (int bin : sortedBins) {
+            int count = bins.get(bin);
+            String bar = "#".repeat(Math.max(1, count * HISTOGRAM_WIDTH / maximum));
+            System.out.println(String.format(Locale.US, "%5d-%-5d %6d %s", bin * HISTOGRAM_BIN_SIZE, (bin + 1) * HISTOGRAM_BIN_SIZE - 1, count, bar));
+        }
+    }
+
+    // nearest-rank percentile of sorted values.
+    private static long percentile(long[] sortedValues, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.max(0, rank - 1)];
+    }
+}
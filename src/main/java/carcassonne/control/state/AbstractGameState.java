@@ -30,6 +30,9 @@ public abstract class AbstractGameState { // TODO (HIGH) [AI] separate human mov
     protected Grid grid;
     protected ArtificialIntelligence playerAI;
     protected static final String NO_MOVE = "No AI move is available!";
+    private static final String ACTIVE_PLAYER = "active player"; // keys of the view jobs that replace their predecessors
+    private static final String HIGHLIGHTS = "highlights";
+    private static final String STACK_SIZE = "stack size";
 
     /**
      * Constructor of the abstract state, sets the controller from the parameter, registers the state at the controller and
@@ -95,6 +98,15 @@ public abstract class AbstractGameState { // TODO (HIGH) [AI] separate human mov
         stateMachine.changeState(stateType); // Encapsulated in a method, as concrete state do not know the state machine
     }
 
+    /**
+     * Executes a step of the game after the current state change or step, which keeps the call stack flat when computer
+     * players take their turns one after another.
+     * @param step is the step to execute.
+     */
+    protected void runNext(Runnable step) {
+        stateMachine.run(step);
+    }
+
     /**
      * Entry method of the state.
      */
@@ -128,18 +140,27 @@ public abstract class AbstractGameState { // TODO (HIGH) [AI] separate human mov
                 player.addTile(tileStack.drawTile());
             }
         }
-        views.onMainView(it -> it.setCurrentPlayer(round.getActivePlayer()));
+        updateActivePlayer();
+        playerAI.ponder(round, grid, tileStack);
         changeState(StatePlacing.class);
         highlightSurroundings(getSelectedTile());
     }
 
+    /**
+     * Shows the active player of the round on the main view.
+     */
+    protected void updateActivePlayer() {
+        Player player = round.getActivePlayer();
+        views.onMainView(ACTIVE_PLAYER, it -> it.setCurrentPlayer(player));
+    }
+
     /**
      * Updates the round and the grid of every state after a new round has been started.
      */
     protected void updateScores() {
         for (int playerNumber = 0; playerNumber < round.getPlayerCount(); playerNumber++) {
             Player player = round.getPlayer(playerNumber);
-            views.onScoreboard(it -> it.update(player));
+            views.onScoreboard(player, it -> it.update(player));
         }
     }
 
@@ -158,16 +179,8 @@ public abstract class AbstractGameState { // TODO (HIGH) [AI] separate human mov
      * Updates the label which displays the current stack size.
      */
     protected void updateStackSize() {
-        views.onScoreboard(it -> it.updateStackSize(tileStack.getSize()));
-    }
-
-    public void clearHighlightedMoves() {
-        views.onMainView(MainView::resetHighlights);
-    }
-    
-    public void highlightAllMoves() {
-        views.onMainView(view -> grid.getNeighboursOfActiveSpots()
-                .forEach(it -> view.setSelectionHighlight(it.getX(), it.getY())));
+        int stackSize = tileStack.getSize();
+        views.onScoreboard(STACK_SIZE, it -> it.updateStackSize(stackSize));
     }
 
     public void rotate(RotationDirection rotationDirection) {
@@ -185,23 +198,22 @@ public abstract class AbstractGameState { // TODO (HIGH) [AI] separate human mov
 
     public abstract void revert();
 
-    public void highlightPossibleMoves(Tile tile) {
-        List<GridSpot> possibleMoves = grid.getNeighboursOfActiveSpots()
+    private List<GridSpot> getPossibleMoves(Tile tile) {
+        return grid.getNeighboursOfActiveSpots()
                 .stream()
                 .filter(it -> it.isPlaceable(tile, true))
                 .toList();
-
-        views.onMainView(view -> possibleMoves.forEach(it -> view.setSelectionHighlight(it.getX(), it.getY())));
     }
     
     /**
-     * Highlights the possible moves.
+     * Highlights the possible moves. The highlights are replaced in a single job, which replaces the unexecuted highlights.
      */
     protected void highlightSurroundings(Tile tile) {
-        clearHighlightedMoves();
-        
-        if (settings.isAdvancedTileHighlight()) {
-            highlightPossibleMoves(tile);
-        } else highlightAllMoves();
+        List<GridSpot> spots = settings.isAdvancedTileHighlight() ? getPossibleMoves(tile) : grid.getNeighboursOfActiveSpots();
+
+        views.onMainView(HIGHLIGHTS, view -> {
+            view.resetHighlights();
+            spots.forEach(it -> view.setSelectionHighlight(it.getX(), it.getY()));
+        });
     }
 }
@@ -1,7 +1,9 @@
 package carcassonne.control.state;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 
 import carcassonne.model.Round;
 import carcassonne.model.ai.ArtificialIntelligence;
@@ -11,13 +13,17 @@ import carcassonne.settings.GameSettings;
 import carcassonne.view.ViewFacade;
 
 /**
- * State machine for the Carcassonne game state.
+ * State machine for the Carcassonne game state. State changes are executed by a run queue: A state change that is
+ * requested while another state change is executed, for example by the entry method of a state, is queued and executed
+ * after it. This way, the turns of computer players follow each other without growing the call stack.
  * @author Timur Saglam
  */
 public class StateMachine {
-    private boolean abortRequested;
+    private volatile boolean abortRequested; // set by other threads
     private AbstractGameState currentState;
     private final Map<Class<? extends AbstractGameState>, AbstractGameState> stateMap;
+    private final Queue<Runnable> runQueue;
+    private boolean running; // true while the run queue is executed
     private final ViewFacade views;
 
     /**
@@ -29,6 +35,7 @@ public class StateMachine {
     public StateMachine(ViewFacade views, ArtificialIntelligence playerAI, GameSettings settings) {
         this.views = views;
         stateMap = new HashMap<>();
+        runQueue = new ArrayDeque<>();
         currentState = new StateIdle(this, settings, views, playerAI);
         registerState(currentState);
         registerState(new StateManning(this, settings, views, playerAI));
@@ -64,22 +71,49 @@ public class StateMachine {
         }
     }
 
+    // exits the current state and enters the new state, or the game over state if an abort was requested.
+    private void transition(Class<? extends AbstractGameState> stateType) {
+        currentState.exit();
+        Class<? extends AbstractGameState> targetType = stateType;
+        if (abortRequested && stateType == StatePlacing.class) {
+            abortRequested = false;
+            targetType = StateGameOver.class;
+        }
+        currentState = stateMap.get(targetType); // set new state
+        if (currentState == null) {
+            throw new IllegalStateException("State is not registered: " + targetType);
+        }
+        currentState.entry();
+    }
+
     /**
-     * Changes the state of the state machine.
+     * Changes the state of the state machine. If another state change is executed, the change is queued and executed after
+     * it, which means it is executed after the calling method returned.
      * @param stateType specifies the target state to change to.
      */
     /* package-private */ void changeState(Class<? extends AbstractGameState> stateType) {
-        currentState.exit();
+        run(() -> transition(stateType));
+    }
 
-        if (abortRequested && stateType == StatePlacing.class) {
-            abortRequested = false;
-            changeState(StateGameOver.class);
-        } else {
-            currentState = stateMap.get(stateType); // set new state
-            if (currentState == null) {
-                throw new IllegalStateException("State is not registered: " + stateType);
+    /**
+     * Executes a step of the game, for example the next turn of a computer player. If a state change or another step is
+     * executed, the step is queued and executed after it.
+     * @param step is the step to execute.
+     */
+    /* package-private */ void run(Runnable step) {
+        runQueue.add(step);
+        if (running) {
+            return; // executed by the caller further up the stack
+        }
+        running = true;
+        try {
+            Runnable next;
+            while ((next = runQueue.poll()) != null) {
+                next.run();
             }
-            currentState.entry();
+        } finally {
+            running = false;
+            runQueue.clear(); // a failed step discards the steps that depend on it
         }
     }
 
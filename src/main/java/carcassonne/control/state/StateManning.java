@@ -126,7 +126,8 @@ public class StateManning extends AbstractGameState {
                 TelemetryManager.getInstance().finishRound();
             }
             round.nextTurn();
-            views.onMainView(it -> it.setCurrentPlayer(round.getActivePlayer()));
+            updateActivePlayer();
+            playerAI.ponder(round, grid, tileStack);
             changeState(StatePlacing.class);
         }
     }
@@ -8,7 +8,6 @@ import carcassonne.model.Player;
 import carcassonne.model.ai.AbstractCarcassonneMove;
 import carcassonne.model.ai.ArtificialIntelligence;
 import carcassonne.model.grid.GridDirection;
-import carcassonne.model.grid.GridSpot;
 import carcassonne.model.tile.Tile;
 import carcassonne.settings.GameSettings;
 import carcassonne.view.ViewFacade;
@@ -21,7 +20,7 @@ import carcassonne.view.util.GameMessage;
  */
 public class StatePlacing extends AbstractGameState {
 
-    private static final int SLEEP_DURATION = 10;
+    private int placementMark; // grid journal mark before the last tile placement
 
     /**
      * Constructor of the state.
@@ -93,13 +92,16 @@ public class StatePlacing extends AbstractGameState {
         }
         TelemetryManager.getInstance().finishRound();
         round.nextTurn();
-        views.onMainView(it -> it.setCurrentPlayer(round.getActivePlayer()));
-        entry();
+        updateActivePlayer();
+        playerAI.ponder(round, grid, tileStack);
+        runNext(this::entry); // the next turn, executed after this one
     }
 
     private void placeTile(Tile tile, int x, int y, boolean highlightPlacement) {
+        int mark = grid.mark();
         var isValidPlacement = grid.place(x, y, tile);
         if (isValidPlacement) {
+            placementMark = mark;
             round.getActivePlayer().dropTile(tile);
             views.onMainView(it -> it.setTile(tile, x, y));
             if (highlightPlacement) {
@@ -134,17 +136,6 @@ public class StatePlacing extends AbstractGameState {
         return Optional.of(views.getSelectedTile());
     }
 
-    private void waitForUI() {
-        while (views.isBusy()) {
-            try {
-                Thread.sleep(SLEEP_DURATION);
-            } catch (InterruptedException exception) {
-                exception.printStackTrace();
-                GameMessage.showError(exception.getCause().getMessage());
-            }
-        }
-    }
-
     /**
      * @see carcassonne.control.state.AbstractGameState#entry()
      */
@@ -155,12 +146,7 @@ public class StatePlacing extends AbstractGameState {
         if (player.getRevert()) {
 
             Tile tile = getSelectedTile();
-            GridSpot spot = tile.getGridSpot();
-            spot.removeTile();
-
-            if(!grid.remove(spot.getX(), spot.getY())) {
-                throw new IllegalStateException("Tile could not be removed from grid.");
-            }
+            grid.rollback(placementMark);
 
             player.setRevert(false);
             player.addTile(tile);
@@ -180,7 +166,7 @@ public class StatePlacing extends AbstractGameState {
         if (round.isOver()) {
             changeState(StateGameOver.class);
         } else if (player.isComputerControlled()) {
-            waitForUI();
+            views.whenIdle().join(); // the user interface shows the previous turn before the computer player moves
             placeTileWithAI(player);
         } else {
             views.onTileView(it -> it.setTiles(player));
@@ -74,6 +74,17 @@ public class Meeple {
         }
     }
 
+    /**
+     * Places a collected meeple again, which undoes {@link #removePlacement()}.
+     * @param placementLocation is the tile where the meeple was placed.
+     */
+    public void restorePlacement(GridSpot placementLocation) {
+        if (location == null) {
+            owner.reclaimMeeple(this); // take me back.
+            location = placementLocation;
+        }
+    }
+
     /**
      * Sets the placement location, which is the tile where the meeple is placed.
      * @param placementLocation is the placement location.
@@ -190,6 +190,15 @@ public class Player {
         freeMeeples++;
     }
 
+    /**
+     * Takes back a returned meeple, which undoes {@link #returnMeeple(Meeple)}.
+     * @param meeple is the meeple that is placed again.
+     */
+    public void reclaimMeeple(Meeple meeple) {
+        placedMeeples.add(meeple);
+        freeMeeples--;
+    }
+
     public void setRevert(boolean revert) {
         this.revert = revert;
     }
@@ -49,6 +49,29 @@ public abstract class AbstractCarcassonneMove implements Comparable<AbstractCarc
         value = calculateValue();
     }
 
+    /**
+     * Creates a move that was already evaluated without placing its tile. Does not check if the move is legal.
+     * @param tile is the tile placed in the move, in the rotation required by the move.
+     * @param gridSpot is the spot on which the tile is placed.
+     * @param meeplePosition is the position on which the meeple is placed on the tile, or null if no meeple is placed.
+     * @param actingPlayer is the player that is executing the move.
+     * @param settings are the game settings.
+     * @param value is the combined value of the move.
+     * @param fieldValue is the value of the move regarding field patterns.
+     * @param gainedMeeples is the difference in placed meeples.
+     */
+    protected AbstractCarcassonneMove(TemporaryTile tile, GridSpot gridSpot, GridDirection meeplePosition, Player actingPlayer, GameSettings settings,
+            double value, double fieldValue, int gainedMeeples) {
+        this.tile = tile;
+        this.gridSpot = gridSpot;
+        this.meeplePosition = meeplePosition;
+        this.actingPlayer = actingPlayer;
+        this.settings = settings;
+        this.value = value;
+        this.fieldValue = fieldValue;
+        this.gainedMeeples = gainedMeeples;
+    }
+
     @Override
     public int compareTo(AbstractCarcassonneMove other) {
         return Double.valueOf(getValue()).compareTo(other.getValue());
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Optional;
 
 import carcassonne.model.Player;
+import carcassonne.model.Round;
 import carcassonne.model.grid.Grid;
 import carcassonne.model.tile.Tile;
 import carcassonne.model.tile.TileStack;
@@ -31,4 +32,15 @@ public interface ArtificialIntelligence {
      */
     public Tile chooseTileToDrop(Collection<Tile> tiles);
 
+    /**
+     * Notifies the AI that a turn was completed, which allows it to prepare the moves of the computer players while the
+     * next players take their turns. By default, the AI does not prepare anything.
+     * @param round is the current round, whose active player takes the next turn.
+     * @param grid is the grid of the round.
+     * @param stack is the tile stack of the round.
+     */
+    public default void ponder(Round round, Grid grid, TileStack stack) {
+        // does not ponder by default.
+    }
+
 }
@@ -0,0 +1,142 @@
+package carcassonne.model.ai;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import carcassonne.model.Player;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * AI that looks two plies ahead: It values a move by its immediate zero-sum value minus the expected value of the best
+ * reply of the next player. The expectation is weighted by the draw probabilities of the distinct tile types that remain
+ * on the stack, which requires one move generation per type instead of one per tile. As a reply is valued at least zero,
+ * the immediate value of a move bounds its lookahead value. Moves are searched in descending order of that bound, which
+ * allows to skip the remaining moves and the remaining tile types as soon as they cannot beat the best move found so far.
+ * @author Timur Saglam
+ */
+public class ExpectimaxAI implements ArtificialIntelligence {
+    private static final double MEEPLE_VALUE = 2; // points a free meeple is worth, as it can still score
+    private static final String EMPTY_COLLECTION = "Cannot choose random element from empty collection!";
+    private final GameSettings settings;
+    private final Random random;
+    private final IncrementalPlacementCache evaluations; // placements on the grid of the game, reused across turns
+    private Optional<AbstractCarcassonneMove> currentMove;
+
+    public ExpectimaxAI(GameSettings settings) {
+        this(settings, new Random());
+    }
+
+    /**
+     * Creates an AI whose random choices are reproducible.
+     * @param settings are the game settings.
+     * @param seed is the seed for the random choices.
+     */
+    public ExpectimaxAI(GameSettings settings, long seed) {
+        this(settings, new Random(seed));
+    }
+
+    private ExpectimaxAI(GameSettings settings, Random random) {
+        this.settings = settings;
+        this.random = random;
+        evaluations = new IncrementalPlacementCache();
+    }
+
+    @Override
+    public Optional<AbstractCarcassonneMove> calculateBestMoveFor(Collection<Tile> tiles, Player player, Grid grid, TileStack stack) {
+        currentMove = Optional.empty();
+        List<ZeroSumMove> moves = new ArrayList<>();
+        evaluations.synchronize(grid);
+        for (Tile tile : tiles) {
+            moves.addAll(grid.getPossibleMoves(tile, player, settings, evaluations));
+        }
+        if (moves.size() <= 1) {
+            currentMove = moves.stream().map(AbstractCarcassonneMove.class::cast).findFirst();
+            return currentMove;
+        }
+        moves.sort(Comparator.comparingDouble(ExpectimaxAI::immediateValue).reversed()); // stable, keeps the order of equal moves
+        SimulatedGame game = new SimulatedGame(SimulatedGame.capture(grid), List.of(), settings, random.nextLong(), evaluations.forCopy());
+        Map<Long, ZeroSumMove> simulatedMoves = new HashMap<>();
+        for (TileType type : tiles.stream().map(Tile::getType).distinct().toList()) {
+            game.generateMoves(type, player.getNumber()).forEach(it -> simulatedMoves.put(MonteCarloSearch.keyOf(it), it));
+        }
+        List<TileType> types = remainingTypesByCount(stack);
+        int opponent = (player.getNumber() + 1) % game.getPlayerCount();
+        ZeroSumMove bestMove = moves.get(0);
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (ZeroSumMove move : moves) {
+            if (immediateValue(move) <= bestValue) {
+                break; // the immediate value is an upper bound, and the moves are sorted by it
+            }
+            double value = lookahead(game, simulatedMoves.get(MonteCarloSearch.keyOf(move)), types, stack, opponent, bestValue);
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = move;
+            }
+        }
+        currentMove = Optional.of(bestMove);
+        return currentMove;
+    }
+
+    @Override
+    public Tile chooseTileToDrop(Collection<Tile> tiles) {
+        Optional<Tile> randomTile = tiles.stream().skip(random.nextInt(tiles.size())).findFirst();
+        return randomTile.orElseThrow(() -> new IllegalArgumentException(EMPTY_COLLECTION));
+    }
+
+    @Override
+    public Optional<AbstractCarcassonneMove> getCurrentMove() {
+        return currentMove;
+    }
+
+    /**
+     * Calculates the value of a move minus the expected value of the best reply. Stops as soon as the value drops to the
+     * bound, as the move cannot be chosen anymore.
+     */
+    private double lookahead(SimulatedGame game, ZeroSumMove move, List<TileType> types, TileStack stack, int opponent, double bound) {
+        double value = immediateValue(move);
+        int mark = game.startSimulation();
+        game.play(move);
+        for (TileType type : types) {
+            double probability = stack.getRemainingCount(type) / (double) stack.getSize();
+            List<ZeroSumMove> replies = game.generateMoves(type, opponent);
+            double bestReply = replies.stream().mapToDouble(ZeroSumMove::getValue).max().orElse(0);
+            value -= probability * Math.max(0, bestReply); // the next player can usually place the tile without losing points
+            if (value <= bound) {
+                break;
+            }
+        }
+        game.rollback(mark);
+        return value;
+    }
+
+    /**
+     * Values a move by its zero-sum value and the meeples it employs or returns.
+     */
+    private static double immediateValue(AbstractCarcassonneMove move) {
+        return move.getValue() + MEEPLE_VALUE * move.getGainedMeeples();
+    }
+
+    /**
+     * Returns the distinct tile types on the stack, the most likely draws first to tighten the bound early.
+     */
+    private static List<TileType> remainingTypesByCount(TileStack stack) {
+        List<TileType> types = new ArrayList<>();
+        for (TileType type : TileType.values()) {
+            if (stack.getRemainingCount(type) > 0) {
+                types.add(type);
+            }
+        }
+        types.sort(Comparator.comparingInt(stack::getRemainingCount).reversed());
+        return types;
+    }
+}
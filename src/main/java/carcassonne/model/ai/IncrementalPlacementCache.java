@@ -0,0 +1,158 @@
+package carcassonne.model.ai;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridSpot;
+
+/**
+ * Stores the evaluations of placements on the grid of a game across turns. Between two turns of a player, only a few
+ * tiles and meeples change, which means most evaluations stay valid. Whenever the cache is synchronized with the grid,
+ * it only discards the evaluations on the spots that the modifications since the last synchronization might have
+ * influenced, see {@link Grid#getInfluencedSpots(GridSpot)}. As placing a tile changes whole patterns, these spots follow
+ * the patterns of the modified spots and not only their neighborhood. The same holds for copies of the grid that simulate
+ * the following turns, which share the evaluations of all other spots with the cache, see {@link #forCopy()}. The cache
+ * is thread-safe.
+ * @author Timur Saglam
+ */
+public final class IncrementalPlacementCache implements PlacementCache {
+    private final Map<Long, PlacementEvaluation> evaluations; // valid for the grid with the synchronized hash
+    private Grid grid;
+    private int mark;
+    private long hash;
+
+    /**
+     * Creates an empty cache, which is not synchronized with any grid.
+     */
+    public IncrementalPlacementCache() {
+        evaluations = new HashMap<>();
+    }
+
+    /**
+     * Synchronizes the cache with the current state of a grid, which discards the evaluations that the modifications of
+     * the grid since the last synchronization might have changed. Evaluations are only returned and stored for the grid in
+     * the synchronized state. This method must be called on the thread that modifies the grid.
+     * @param grid is the grid of the game.
+     */
+    public synchronized void synchronize(Grid grid) {
+        if (grid == this.grid && grid.mark() == mark && grid.getHash() == hash) {
+            return; // unchanged
+        }
+        BitSet influencedSpots = grid == this.grid ? influencedSpots(grid, grid.getModifiedSpots(mark, hash)) : null;
+        if (influencedSpots == null) {
+            evaluations.clear();
+        } else {
+            evaluations.keySet().removeIf(it -> influencedSpots.get(PlacementEvaluation.spotIndexOf(it)));
+        }
+        this.grid = grid;
+        mark = grid.mark();
+        hash = grid.getHash();
+    }
+
+    /**
+     * Creates a cache for a copy of the grid in the synchronized state, which shares its evaluations with this cache. The
+     * copy is bound to the cache when the cache is first used with it, which must be in the synchronized state. Once the
+     * copy is modified, the evaluations on the spots that the modifications might have influenced are neither shared nor
+     * stored, while the evaluations on all other spots are still the same as on the synchronized grid. The sharing ends
+     * when this cache is synchronized with another state.
+     * @return the cache for the copy.
+     */
+    public PlacementCache forCopy() {
+        return new CopyCache();
+    }
+
+    @Override
+    public synchronized PlacementEvaluation get(Grid grid, long signature) {
+        return isSynchronizedWith(grid) ? evaluations.get(signature) : null;
+    }
+
+    @Override
+    public synchronized void put(Grid grid, long signature, PlacementEvaluation evaluation) {
+        if (isSynchronizedWith(grid)) {
+            evaluations.put(signature, evaluation);
+        }
+    }
+
+    private boolean isSynchronizedWith(Grid grid) {
+        return grid == this.grid && grid.getHash() == hash;
+    }
+
+    /**
+     * Combines the influenced spots of modified spots, or returns null if every spot might be influenced.
+     */
+    private static BitSet influencedSpots(Grid grid, Optional<Set<Integer>> modifiedSpots) {
+        if (modifiedSpots.isEmpty() || !grid.isAllowingEnclaves()) {
+            return null; // unknown modifications, or placements depend on the distant enclaves
+        }
+        BitSet influencedSpots = new BitSet();
+        for (int index : modifiedSpots.get()) {
+            GridSpot spot = grid.getSpot(index % grid.getWidth(), index / grid.getWidth());
+            if (spot.isFree()) {
+                return null; // a removed tile might have connected any patterns
+            }
+            influencedSpots.or(grid.getInfluencedSpots(spot));
+        }
+        return influencedSpots;
+    }
+
+    /**
+     * Cache for a copy of the synchronized grid, see {@link IncrementalPlacementCache#forCopy()}.
+     */
+    private final class CopyCache implements PlacementCache {
+        private final long sharedHash;
+        private Grid copy;
+        private int copyMark;
+        private int influencedMark;
+        private long influencedHash;
+        private BitSet influencedSpots; // influenced by the modifications of the copy, null if all spots might be
+
+        CopyCache() {
+            synchronized (IncrementalPlacementCache.this) {
+                sharedHash = grid == null ? 0 : hash;
+            }
+        }
+
+        @Override
+        public PlacementEvaluation get(Grid grid, long signature) {
+            synchronized (IncrementalPlacementCache.this) {
+                return isShared(grid, signature) ? evaluations.get(signature) : null;
+            }
+        }
+
+        @Override
+        public void put(Grid grid, long signature, PlacementEvaluation evaluation) {
+            synchronized (IncrementalPlacementCache.this) {
+                if (isShared(grid, signature)) {
+                    evaluations.put(signature, evaluation);
+                }
+            }
+        }
+
+        // checks if the evaluation of a placement on the copy is the same as on the synchronized grid.
+        private boolean isShared(Grid grid, long signature) {
+            if (IncrementalPlacementCache.this.grid == null || hash != sharedHash) {
+                return false; // not synchronized yet, or synchronized with another state since
+            }
+            if (copy == null && grid.getHash() == sharedHash) {
+                copy = grid;
+                copyMark = grid.mark();
+            }
+            if (grid != copy) {
+                return false;
+            }
+            if (grid.mark() == copyMark && grid.getHash() == sharedHash) {
+                return true; // unmodified
+            }
+            if (grid.mark() != influencedMark || grid.getHash() != influencedHash) {
+                influencedSpots = influencedSpots(grid, grid.getModifiedSpots(copyMark, sharedHash));
+                influencedMark = grid.mark();
+                influencedHash = grid.getHash();
+            }
+            return influencedSpots != null && !influencedSpots.get(PlacementEvaluation.spotIndexOf(signature));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package carcassonne.model.ai;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import carcassonne.model.Player;
+import carcassonne.model.ai.SimulatedGame.GridSnapshot;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * AI that searches its moves with a Monte Carlo tree search within a wall-clock budget per move. The future draws are
+ * sampled from the composition of the remaining tile stack. Every search worker searches its own tree on its own copy of
+ * the grid, the workers are merged by summing the visits of the root moves. The search is anytime: the most visited move
+ * is chosen whenever the budget runs out, and the move with the highest immediate value if no simulation completed.
+ * @author Timur Saglam
+ */
+public class MonteCarloAI implements ArtificialIntelligence {
+    private static final int HORIZON_ROUNDS = 2; // simulated rounds of turns per simulation
+    private static final int STORED_EVALUATIONS = 1 << 16;
+    private static final String EMPTY_COLLECTION = "Cannot choose random element from empty collection!";
+    private final GameSettings settings;
+    private final Duration budget;
+    private final Random random;
+    private final PlacementCache evaluations;
+    private Optional<AbstractCarcassonneMove> currentMove;
+
+    /**
+     * Creates the AI.
+     * @param settings are the game settings, whose move generation parallelism determines the number of search workers.
+     * @param budget is the wall-clock time per move.
+     */
+    public MonteCarloAI(GameSettings settings, Duration budget) {
+        this(settings, budget, new Random());
+    }
+
+    /**
+     * Creates an AI whose sampled draws and random moves are reproducible. As the search is limited by time, the chosen
+     * moves can still differ between runs.
+     * @param settings are the game settings, whose move generation parallelism determines the number of search workers.
+     * @param budget is the wall-clock time per move.
+     * @param seed is the seed for the random choices.
+     */
+    public MonteCarloAI(GameSettings settings, Duration budget, long seed) {
+        this(settings, budget, new Random(seed));
+    }
+
+    private MonteCarloAI(GameSettings settings, Duration budget, Random random) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("Search budget must be positive: " + budget);
+        }
+        this.settings = settings;
+        this.budget = budget;
+        this.random = random;
+        evaluations = PlacementCache.of(new TranspositionTable<>(STORED_EVALUATIONS));
+    }
+
+    @Override
+    public Optional<AbstractCarcassonneMove> calculateBestMoveFor(Collection<Tile> tiles, Player player, Grid grid, TileStack stack) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        currentMove = Optional.empty();
+        List<ZeroSumMove> rootMoves = new ArrayList<>();
+        for (Tile tile : tiles) {
+            rootMoves.addAll(grid.getPossibleMoves(tile, player, settings, evaluations));
+        }
+        if (rootMoves.size() <= 1) {
+            currentMove = rootMoves.stream().map(AbstractCarcassonneMove.class::cast).findFirst();
+            return currentMove;
+        }
+        rootMoves.sort(Collections.reverseOrder()); // stable, keeps the order of equally valued moves
+        Map<Long, Integer> visits = search(tiles, player, grid, stack, deadline);
+        ZeroSumMove bestMove = rootMoves.get(0);
+        int bestVisits = visits.getOrDefault(MonteCarloSearch.keyOf(bestMove), 0);
+        for (ZeroSumMove move : rootMoves) {
+            int moveVisits = visits.getOrDefault(MonteCarloSearch.keyOf(move), 0);
+            if (moveVisits > bestVisits) { // ties are broken by the immediate value
+                bestVisits = moveVisits;
+                bestMove = move;
+            }
+        }
+        currentMove = Optional.of(bestMove);
+        return currentMove;
+    }
+
+    @Override
+    public Tile chooseTileToDrop(Collection<Tile> tiles) {
+        Optional<Tile> randomTile = tiles.stream().skip(random.nextInt(tiles.size())).findFirst();
+        return randomTile.orElseThrow(() -> new IllegalArgumentException(EMPTY_COLLECTION));
+    }
+
+    @Override
+    public Optional<AbstractCarcassonneMove> getCurrentMove() {
+        return currentMove;
+    }
+
+    /**
+     * Runs the search workers until the deadline and merges the visits of their root moves.
+     */
+    private Map<Long, Integer> search(Collection<Tile> tiles, Player player, Grid grid, TileStack stack, long deadline) {
+        GridSnapshot snapshot = SimulatedGame.capture(grid); // captured here, the workers must not access the grid
+        List<TileType> remainingTypes = stack.getRemainingTypes();
+        List<TileType> hand = tiles.stream().map(Tile::getType).toList();
+        int horizon = HORIZON_ROUNDS * settings.getNumberOfPlayers();
+        int workers = settings.getMoveGenerationParallelism();
+        List<MonteCarloSearch> searches = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            searches.add(new MonteCarloSearch(snapshot, remainingTypes, hand, player.getNumber(), horizon, deadline, random.nextLong(), settings,
+                    evaluations));
+        }
+        List<SearchNode> roots = new ArrayList<>();
+        if (workers == 1) {
+            roots.add(searches.get(0).call());
+        } else {
+            for (Future<SearchNode> future : WorkerPools.get(workers).invokeAll(searches)) {
+                roots.add(join(future));
+            }
+        }
+        Map<Long, Integer> visits = new HashMap<>();
+        for (SearchNode root : roots) {
+            root.getChildren().forEach((key, child) -> visits.merge(key, child.getVisits(), Integer::sum));
+        }
+        return visits;
+    }
+
+    private static SearchNode join(Future<SearchNode> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching the best move.", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Search worker failed: " + exception.getCause().getMessage(), exception.getCause());
+        }
+    }
+}
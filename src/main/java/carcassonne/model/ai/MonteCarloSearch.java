@@ -0,0 +1,177 @@
+package carcassonne.model.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import carcassonne.model.ai.SimulatedGame.GridSnapshot;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Monte Carlo tree search of a single worker on its own copy of the game. Every iteration samples the draws of the next
+ * turns, descends the tree by the upper confidence bound of the acting players, expands one node and continues with a
+ * playout until the horizon. The simulated grid is then scored as if the game ended and rolled back. The tree is open
+ * loop, its nodes represent move sequences and not grids, which copes with the random draws. Progressive widening
+ * restricts every node to the most valuable moves according to their immediate value, depending on its visits.
+ * @author Timur Saglam
+ */
+final class MonteCarloSearch implements Callable<SearchNode> {
+    private static final double EXPLORATION = 0.5;
+    private static final double REWARD_SCALE = 10; // score lead that yields a reward of about three quarters
+    private static final double RANDOM_PLAYOUT_MOVES = 0.25; // share of random moves in the playouts, the others are greedy
+    private static final long SKIP_KEY = -1; // key of a skipped turn
+    private final GridSnapshot snapshot;
+    private final List<TileType> remainingTypes;
+    private final List<TileType> hand;
+    private final int actingPlayer;
+    private final int horizon;
+    private final long deadline;
+    private final long seed;
+    private final GameSettings settings;
+    private final PlacementCache evaluations;
+    private SimulatedGame game;
+    private Random random;
+
+    /**
+     * Creates the search.
+     * @param snapshot is the captured state of the grid.
+     * @param remainingTypes are the types of the tiles that can still be drawn.
+     * @param hand are the types of the tiles on the hand of the acting player.
+     * @param actingPlayer is the number of the player whose move is searched.
+     * @param horizon is the maximal number of simulated turns, including the searched move.
+     * @param deadline is the value of {@link System#nanoTime()} when the search ends.
+     * @param seed is the seed for the sampled draws and the random moves.
+     * @param settings are the game settings.
+     * @param evaluations stores the evaluations of placements, which are shared with other workers.
+     */
+    MonteCarloSearch(GridSnapshot snapshot, List<TileType> remainingTypes, List<TileType> hand, int actingPlayer, int horizon, long deadline,
+            long seed, GameSettings settings, PlacementCache evaluations) {
+        this.snapshot = snapshot;
+        this.remainingTypes = remainingTypes;
+        this.hand = hand;
+        this.actingPlayer = actingPlayer;
+        this.horizon = horizon;
+        this.deadline = deadline;
+        this.seed = seed;
+        this.settings = settings;
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * Searches until the deadline is reached.
+     * @return the root node, whose children are the searched moves.
+     */
+    @Override
+    public SearchNode call() {
+        game = new SimulatedGame(snapshot, remainingTypes, settings, seed, evaluations);
+        random = game.getRandom();
+        SearchNode root = new SearchNode(game.getPlayerCount());
+        List<ZeroSumMove> rootMoves = new ArrayList<>();
+        for (TileType type : hand) {
+            rootMoves.addAll(game.generateMoves(type, actingPlayer));
+        }
+        rootMoves.sort(Collections.reverseOrder()); // stable, keeps the order of equally valued moves
+        while (!rootMoves.isEmpty() && System.nanoTime() < deadline) {
+            simulate(root, rootMoves);
+        }
+        return root;
+    }
+
+    /**
+     * Calculates the key of a move, which identifies it independently of the grid and tile instances.
+     * @param move is the move.
+     * @return the key.
+     */
+    static long keyOf(AbstractCarcassonneMove move) {
+        int meeple = move.involvesMeeplePlacement() ? move.getMeeplePosition().ordinal() + 1 : 0;
+        return (long) move.getX() << 40 | (long) move.getY() << 20 | move.getOriginalTile().getType().ordinal() << 8
+                | move.getRequiredTileRotation().ordinal() << 4 | meeple;
+    }
+
+    private void simulate(SearchNode root, List<ZeroSumMove> rootMoves) {
+        int mark = game.startSimulation();
+        List<SearchNode> path = new ArrayList<>();
+        path.add(root);
+        SearchNode node = root;
+        boolean expanded = false;
+        int player = actingPlayer;
+        List<ZeroSumMove> moves = rootMoves;
+        for (int turn = 0; turn < horizon; turn++) {
+            if (System.nanoTime() >= deadline) {
+                game.rollback(mark); // discards the unfinished simulation to honor the budget
+                return;
+            }
+            if (turn > 0) {
+                TileType type = game.drawType();
+                if (type == null) {
+                    break; // the game is over
+                }
+                moves = game.generateMoves(type, player);
+            }
+            ZeroSumMove move = null;
+            if (!moves.isEmpty()) {
+                move = expanded ? choosePlayoutMove(moves) : chooseTreeMove(node, moves, player);
+                game.play(move);
+            }
+            if (!expanded) {
+                node = node.addChild(move == null ? SKIP_KEY : keyOf(move));
+                path.add(node);
+                expanded = node.getVisits() == 0;
+            }
+            player = (player + 1) % game.getPlayerCount();
+        }
+        double[] rewards = calculateRewards(game.evaluate());
+        path.forEach(it -> it.update(rewards));
+        game.rollback(mark);
+    }
+
+    /**
+     * Chooses the unvisited move with the highest immediate value or the visited move with the highest upper confidence
+     * bound, among the moves that the visits of the node allow.
+     */
+    private ZeroSumMove chooseTreeMove(SearchNode node, List<ZeroSumMove> moves, int player) {
+        int width = Math.min(moves.size(), 1 + (int) Math.sqrt(node.getVisits())); // progressive widening
+        double logarithm = Math.log(Math.max(1, node.getVisits()));
+        ZeroSumMove bestMove = null;
+        double bestBound = Double.NEGATIVE_INFINITY;
+        for (ZeroSumMove move : moves.subList(0, width)) {
+            SearchNode child = node.getChild(keyOf(move));
+            if (child == null) {
+                return move;
+            }
+            double bound = child.getMeanReward(player) + EXPLORATION * Math.sqrt(logarithm / child.getVisits());
+            if (bound > bestBound) {
+                bestBound = bound;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    private ZeroSumMove choosePlayoutMove(List<ZeroSumMove> moves) {
+        if (random.nextDouble() < RANDOM_PLAYOUT_MOVES) {
+            return moves.get(random.nextInt(moves.size()));
+        }
+        return moves.get(0);
+    }
+
+    /**
+     * Maps the score lead of every player over the best other player to a reward between zero and one.
+     */
+    private static double[] calculateRewards(int[] scores) {
+        double[] rewards = new double[scores.length];
+        for (int player = 0; player < scores.length; player++) {
+            int bestOther = Integer.MIN_VALUE;
+            for (int other = 0; other < scores.length; other++) {
+                if (other != player) {
+                    bestOther = Math.max(bestOther, scores[other]);
+                }
+            }
+            rewards[player] = 1 / (1 + Math.exp((bestOther - scores[player]) / REWARD_SCALE));
+        }
+        return rewards;
+    }
+}
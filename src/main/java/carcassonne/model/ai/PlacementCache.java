@@ -0,0 +1,48 @@
+package carcassonne.model.ai;
+
+import carcassonne.model.grid.Grid;
+
+/**
+ * Stores the evaluations of placements, which allows the move generation to recreate the moves of a placement without
+ * evaluating it again. The signature of a placement covers the tile, the spot, the rotation and the player, see
+ * {@link PlacementEvaluation#signatureOf(long, carcassonne.model.grid.GridSpot, carcassonne.model.tile.TileRotation)}.
+ * Implementations decide on which grids an evaluation stays valid.
+ * @author Timur Saglam
+ */
+public interface PlacementCache {
+    /**
+     * Returns the evaluation of a placement.
+     * @param grid is the grid on which the tile is placed.
+     * @param signature is the signature of the placement.
+     * @return the evaluation or null if there is no valid evaluation.
+     */
+    PlacementEvaluation get(Grid grid, long signature);
+
+    /**
+     * Stores the evaluation of a placement.
+     * @param grid is the grid on which the tile is placed.
+     * @param signature is the signature of the placement.
+     * @param evaluation is the evaluation.
+     */
+    void put(Grid grid, long signature, PlacementEvaluation evaluation);
+
+    /**
+     * Creates a cache that stores the evaluations in a transposition table, keyed by the hash of the grid. This means the
+     * evaluations are reused on all equal grids, but not after the grid changed.
+     * @param table is the transposition table.
+     * @return the cache.
+     */
+    static PlacementCache of(TranspositionTable<PlacementEvaluation> table) {
+        return new PlacementCache() {
+            @Override
+            public PlacementEvaluation get(Grid grid, long signature) {
+                return table.get(grid.getHash(), signature);
+            }
+
+            @Override
+            public void put(Grid grid, long signature, PlacementEvaluation evaluation) {
+                table.put(grid.getHash(), signature, evaluation);
+            }
+        };
+    }
+}
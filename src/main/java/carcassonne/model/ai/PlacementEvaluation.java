@@ -0,0 +1,114 @@
+package carcassonne.model.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import carcassonne.model.Player;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Immutable evaluation of all moves of a tile in a specific rotation on a specific spot, which can be stored in a
+ * {@link PlacementCache}. It allows to recreate the moves without checking the placement or evaluating the patterns
+ * again. An empty evaluation means the tile can not be placed.
+ * @author Timur Saglam
+ */
+public final class PlacementEvaluation {
+    private static final int INDEX_SHIFT = 32;
+    private static final int TYPE_SHIFT = 24;
+    private static final int ROTATION_SHIFT = 16;
+    private static final int PLAYER_SHIFT = 8;
+    private static final GridDirection[] POSITIONS = GridDirection.values(); // cached, as values() copies the array
+    private static final byte NO_MEEPLE = -1;
+    private static final int VALUES_PER_MOVE = 3; // value, field value and gained meeples
+    public static final PlacementEvaluation NONE = new PlacementEvaluation(List.of()); // shared by impossible placements
+    private final byte[] meeplePositions; // position ordinal per move
+    private final double[] values;
+
+    /**
+     * Creates the evaluation from the moves of a tile in a specific rotation on a specific spot.
+     * @param moves are the moves, which can be empty.
+     */
+    public PlacementEvaluation(List<ZeroSumMove> moves) {
+        meeplePositions = new byte[moves.size()];
+        values = new double[moves.size() * VALUES_PER_MOVE];
+        for (int move = 0; move < moves.size(); move++) {
+            ZeroSumMove zeroSumMove = moves.get(move);
+            meeplePositions[move] = zeroSumMove.involvesMeeplePlacement() ? (byte) zeroSumMove.getMeeplePosition().ordinal() : NO_MEEPLE;
+            values[move * VALUES_PER_MOVE] = zeroSumMove.getValue();
+            values[move * VALUES_PER_MOVE + 1] = zeroSumMove.getFieldValue();
+            values[move * VALUES_PER_MOVE + 2] = zeroSumMove.getGainedMeeples();
+        }
+    }
+
+    /**
+     * Checks whether the evaluated placement has no moves, which means it is not possible.
+     * @return true if there are no moves.
+     */
+    public boolean isEmpty() {
+        return meeplePositions.length == 0;
+    }
+
+    /**
+     * Recreates the evaluated moves in their original order.
+     * @param tile is the tile in the evaluated rotation.
+     * @param spot is the evaluated spot.
+     * @param player is the player that conducts the moves.
+     * @param settings are the game settings.
+     * @return the list of moves.
+     */
+    public List<ZeroSumMove> createMoves(TemporaryTile tile, GridSpot spot, Player player, GameSettings settings) {
+        List<ZeroSumMove> moves = new ArrayList<>(meeplePositions.length);
+        for (int move = 0; move < meeplePositions.length; move++) {
+            GridDirection position = meeplePositions[move] == NO_MEEPLE ? null : POSITIONS[meeplePositions[move]];
+            int offset = move * VALUES_PER_MOVE;
+            moves.add(new ZeroSumMove(tile, spot, position, player, settings, values[offset], values[offset + 1], (int) values[offset + 2]));
+        }
+        return moves;
+    }
+
+    /**
+     * Calculates the part of the signatures of the placements of a tile that does not depend on the placement. It covers
+     * everything that determines the generated moves apart from the grid and the placement.
+     * @param tile is the placed tile.
+     * @param player is the player that conducts the moves.
+     * @param settings are the game settings.
+     * @param allowEnclaves determines if the grid allows enclosing free spots.
+     * @return the signature of the tile.
+     */
+    public static long signatureOf(Tile tile, Player player, GameSettings settings, boolean allowEnclaves) {
+        long signature = tile.getType().ordinal() << TYPE_SHIFT | player.getNumber() << PLAYER_SHIFT;
+        int flag = 1;
+        for (TerrainType terrain : TerrainType.basicTerrain()) {
+            signature |= settings.getMeepleRule(terrain) ? flag : 0;
+            flag <<= 1;
+        }
+        signature |= settings.isAllowingFortifying() ? flag : 0;
+        signature |= player.hasFreeMeeples() ? flag << 1 : 0;
+        return signature | (allowEnclaves ? flag << 2 : 0);
+    }
+
+    /**
+     * Calculates the signature of a placement for a {@link PlacementCache}.
+     * @param tileSignature is the signature of the tile, see {@link #signatureOf(Tile, Player, GameSettings, boolean)}.
+     * @param spot is the spot of the placement.
+     * @param rotation is the rotation of the tile.
+     * @return the signature.
+     */
+    public static long signatureOf(long tileSignature, GridSpot spot, TileRotation rotation) {
+        return tileSignature | (long) spot.getIndex() << INDEX_SHIFT | rotation.ordinal() << ROTATION_SHIFT;
+    }
+
+    /**
+     * Returns the index of the spot of a placement.
+     * @param signature is the signature of the placement, see {@link #signatureOf(long, GridSpot, TileRotation)}.
+     * @return the spot index.
+     */
+    public static int spotIndexOf(long signature) {
+        return (int) (signature >>> INDEX_SHIFT);
+    }
+}
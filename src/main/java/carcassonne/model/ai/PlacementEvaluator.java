@@ -0,0 +1,540 @@
+package carcassonne.model.ai;
+
+import static carcassonne.model.grid.GridDirection.CENTER;
+import static carcassonne.model.terrain.TerrainType.CASTLE;
+import static carcassonne.model.terrain.TerrainType.FIELDS;
+import static carcassonne.model.terrain.TerrainType.MONASTERY;
+import static carcassonne.model.terrain.TerrainType.ROAD;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.Player;
+import carcassonne.model.grid.CastleAndRoadPattern;
+import carcassonne.model.grid.FieldsPattern;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.grid.PatternIndex;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Evaluates hypothetical tile placements analytically, without placing the tile. The segments of the tile are merged
+ * virtually with the summaries of the adjacent patterns from the {@link PatternIndex} of the grid. This yields the same
+ * zero-sum score delta, field score delta, and meeple gain that {@link ZeroSumMove} computes by temporarily placing the
+ * tile. The grid is never modified and no memory is allocated per evaluation. An evaluator reuses internal buffers
+ * though, which means every thread needs its own evaluator.
+ * @author Timur Saglam
+ */
+public final class PlacementEvaluator {
+    private static final GridDirection[] POSITIONS = GridDirection.values(); // cached, as values() copies the array
+    private static final GridDirection[] DIRECT_NEIGHBORS = GridDirection.directNeighbors().toArray(GridDirection[]::new);
+    private static final GridDirection[] NEIGHBORS = GridDirection.neighbors().toArray(GridDirection[]::new);
+    private static final int PLAYERS = GameSettings.MAXIMAL_PLAYERS;
+    private static final int MAXIMAL_NODES = POSITIONS.length * 5; // segments of the tile and of its four neighbors
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_NODE = -1;
+    private final Grid grid;
+    private final PatternIndex index;
+    private final IntConsumer castleCollector;
+    // prepared placement:
+    private GridSpot spot;
+    private Tile tile;
+    private final int[] neighbors; // spot index per direct neighbor direction, or NO_SEGMENT if there is no tile
+    private final int[] nodeOf; // node of the tile segment per tile position
+    private boolean closesCastle; // whether the placement completes an existing castle
+    // nodes of the virtual union-find, the first nodes are the segments of the tile, the others existing patterns:
+    private int tileNodes;
+    private int nodeCount;
+    private final int[] parent;
+    private final int[] roots; // root segment in the pattern index per node
+    private final TerrainType[] terrain;
+    private final int[] positions; // bitmask of the tile positions of a tile segment
+    private final int[] openEdges;
+    private final int[] tiles;
+    private final int[] emblems;
+    private final int[] meeples; // meeples per node and player
+    // scratch buffers:
+    private final int[] counts; // meeples per player of the currently scored pattern
+    private final int[] visitedRoots;
+    private int[] closedBefore; // distinct castles adjacent to a field that are closed before the placement
+    private int closedBeforeCount;
+    private int[] closedAfter; // distinct castles adjacent to a field that are closed after the placement
+    private int closedAfterCount;
+    // results of the last evaluation:
+    private double fieldValue;
+    private int gainedMeeples;
+
+    /**
+     * Creates an evaluator for a grid.
+     * @param grid is the grid whose placements are evaluated.
+     */
+    public PlacementEvaluator(Grid grid) {
+        this.grid = grid;
+        index = grid.getPatternIndex();
+        castleCollector = this::collectCastle;
+        neighbors = new int[DIRECT_NEIGHBORS.length];
+        nodeOf = new int[POSITIONS.length];
+        parent = new int[MAXIMAL_NODES];
+        roots = new int[MAXIMAL_NODES];
+        terrain = new TerrainType[MAXIMAL_NODES];
+        positions = new int[MAXIMAL_NODES];
+        openEdges = new int[MAXIMAL_NODES];
+        tiles = new int[MAXIMAL_NODES];
+        emblems = new int[MAXIMAL_NODES];
+        meeples = new int[MAXIMAL_NODES * PLAYERS];
+        counts = new int[PLAYERS];
+        visitedRoots = new int[MAXIMAL_NODES];
+        closedBefore = new int[INITIAL_CAPACITY];
+        closedAfter = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Prepares the evaluation of a placement of a tile on a spot by merging the tile segments with the adjacent patterns.
+     * All following queries refer to this placement, which means the grid must not be modified until the next preparation.
+     * @param spot is the free spot on the grid.
+     * @param tile is the tile in the rotation in which it would be placed.
+     */
+    public void prepare(GridSpot spot, Tile tile) {
+        if (spot.getGrid() != grid || spot.isOccupied()) {
+            throw new IllegalArgumentException("Can only evaluate placements on free spots of the grid: " + spot);
+        }
+        this.spot = spot;
+        this.tile = tile;
+        nodeCount = 0;
+        createTileNodes();
+        tileNodes = nodeCount;
+        for (GridDirection direction : DIRECT_NEIGHBORS) {
+            int neighbor = spotIndexAt(spot.getX() + direction.getX(), spot.getY() + direction.getY());
+            neighbors[direction.ordinal()] = neighbor;
+            if (neighbor != PatternIndex.NO_SEGMENT) {
+                connectCastleAndRoad(neighbor, direction);
+                connectFields(neighbor, direction);
+            }
+        }
+        closesCastle = false;
+        for (int node = tileNodes; node < nodeCount; node++) {
+            closesCastle |= terrain[node] == CASTLE && openEdges[find(node)] == 0;
+        }
+    }
+
+    /**
+     * Checks whether a meeple of a specific player could be placed on a specific position of the prepared placement.
+     * @param position is the position on the tile.
+     * @param player is the player in question.
+     * @param settings are the game settings to determine if fortifying is allowed.
+     * @return true if a meeple could be placed.
+     * @see Tile#allowsPlacingMeeple(GridDirection, Player, GameSettings)
+     */
+    public boolean allowsPlacingMeeple(GridDirection position, Player player, GameSettings settings) {
+        TerrainType positionTerrain = tile.getTerrain(position);
+        if (positionTerrain == MONASTERY) {
+            return true; // you can always place on a monastery
+        }
+        if (positionTerrain == TerrainType.OTHER) {
+            return false;
+        }
+        int node = find(nodeOf[position.ordinal()]);
+        return loadCounts(node, NO_NODE, 0) == 0 || counts[player.getNumber()] > 0 && settings.isAllowingFortifying();
+    }
+
+    /**
+     * Evaluates the prepared placement with an optional meeple placement. Calculates the zero-sum score delta of all local
+     * patterns, the part of that delta that stems from fields, and the meeple gain of the acting player.
+     * @param meeplePosition is the position of the meeple on the tile, or null if no meeple is placed.
+     * @param player is the acting player.
+     * @return the zero-sum score delta.
+     * @see #getFieldValue()
+     * @see #getGainedMeeples()
+     */
+    public double evaluate(GridDirection meeplePosition, Player player) {
+        int acting = player.getNumber();
+        int meepleNode = meeplePosition == null ? NO_NODE : nodeOf[meeplePosition.ordinal()];
+        int value = 0;
+        int fields = 0;
+        gainedMeeples = meeplePosition == null ? 0 : -1; // the new meeple is always employed
+        for (int node = 0; node < nodeCount; node++) {
+            if (find(node) == node) {
+                int delta = scoreAfter(node, meepleNode, acting) - scoreBefore(node, acting);
+                value += delta;
+                fields += terrain[node] == FIELDS ? delta : 0;
+            }
+        }
+        if (closesCastle) {
+            int delta = scoreUnmergedFields(acting);
+            value += delta;
+            fields += delta;
+        }
+        if (meeplePosition != null && tile.getTerrain(meeplePosition) == MONASTERY) {
+            value += 1 + countNeighbors(spot.getX(), spot.getY()); // the acting player dominates the new monastery
+        }
+        value += scoreAdjacentMonasteries(acting);
+        fieldValue = fields;
+        return value;
+    }
+
+    /**
+     * Getter for the field score delta of the last evaluation.
+     * @return the field value.
+     */
+    public double getFieldValue() {
+        return fieldValue;
+    }
+
+    /**
+     * Getter for the meeple gain of the last evaluation.
+     * @return how many more meeples of the acting player are retrieved than employed on the local patterns.
+     */
+    public int getGainedMeeples() {
+        return gainedMeeples;
+    }
+
+    private void addDistinct(boolean before, int castle) {
+        int[] list = before ? closedBefore : closedAfter;
+        int size = before ? closedBeforeCount : closedAfterCount;
+        for (int i = 0; i < size; i++) {
+            if (list[i] == castle) {
+                return;
+            }
+        }
+        if (size == list.length) {
+            list = Arrays.copyOf(list, size * 2);
+        }
+        list[size] = castle;
+        if (before) {
+            closedBefore = list;
+            closedBeforeCount++;
+        } else {
+            closedAfter = list;
+            closedAfterCount++;
+        }
+    }
+
+    // collects a castle that is adjacent to an existing field in its state before and after the placement.
+    private void collectCastle(int castle) {
+        boolean closed = index.isClosed(castle);
+        if (closed) {
+            addDistinct(true, castle);
+        }
+        int node = nodeFor(castle, false);
+        if (node == NO_NODE) {
+            if (closed) {
+                addDistinct(false, castle);
+            }
+        } else if (openEdges[find(node)] == 0) {
+            addDistinct(false, encode(find(node)));
+        }
+    }
+
+    private void connect(int node, int otherNode) {
+        int root = find(node);
+        int child = find(otherNode);
+        if (root != child) {
+            parent[child] = root;
+            openEdges[root] += openEdges[child];
+            tiles[root] += tiles[child];
+            emblems[root] += emblems[child];
+            for (int player = 0; player < PLAYERS; player++) {
+                meeples[root * PLAYERS + player] += meeples[child * PLAYERS + player];
+            }
+        }
+        if (terrain[root] != FIELDS) {
+            openEdges[root] -= 2; // the connecting edge is no longer open
+        }
+    }
+
+    private void connectCastleAndRoad(int neighbor, GridDirection direction) {
+        int node = nodeOf[direction.ordinal()];
+        if (node != NO_NODE && terrain[node] != FIELDS) {
+            int root = index.findPattern(neighbor, direction.opposite());
+            if (root != PatternIndex.NO_SEGMENT && index.getTerrain(root) == terrain[node]) {
+                connect(node, nodeFor(root, true));
+            }
+        }
+    }
+
+    private void connectFields(int neighbor, GridDirection direction) {
+        for (GridDirection position : POSITIONS) {
+            if ((PatternIndex.getFieldConnections(position, tile) & 1 << direction.ordinal()) != 0) {
+                int root = index.findPattern(neighbor, PatternIndex.getFieldOpposite(position, direction));
+                if (root != PatternIndex.NO_SEGMENT && index.getTerrain(root) == FIELDS) {
+                    connect(nodeOf[position.ordinal()], nodeFor(root, true));
+                }
+            }
+        }
+    }
+
+    // counts the closed castles adjacent to the field of a node after the placement.
+    private int countClosedCastlesAfter(int node) {
+        closedBeforeCount = 0;
+        closedAfterCount = 0;
+        for (int member = 0; member < nodeCount; member++) {
+            if (find(member) == node) {
+                if (member < tileNodes) {
+                    for (GridDirection position : POSITIONS) {
+                        if ((positions[member] & 1 << position.ordinal()) != 0) {
+                            collectTileCastles(position);
+                        }
+                    }
+                } else {
+                    index.forEachAdjacentCastle(roots[member], castleCollector);
+                }
+            }
+        }
+        return closedAfterCount;
+    }
+
+    private void collectTileCastles(GridDirection position) {
+        int adjacentPositions = PatternIndex.getAdjacentPositions(position);
+        for (GridDirection adjacent : POSITIONS) {
+            if ((adjacentPositions & 1 << adjacent.ordinal()) != 0 && tile.getTerrain(adjacent) == CASTLE) {
+                int castle = find(nodeOf[adjacent.ordinal()]);
+                if (openEdges[castle] == 0) {
+                    addDistinct(false, encode(castle));
+                }
+            }
+        }
+    }
+
+    private int countNeighbors(int x, int y) {
+        int neighborCount = 0;
+        for (GridDirection direction : NEIGHBORS) {
+            if (tileAt(x + direction.getX(), y + direction.getY()) != null) {
+                neighborCount++;
+            }
+        }
+        return neighborCount;
+    }
+
+    private int createNode(TerrainType nodeTerrain, int root) {
+        int node = nodeCount++;
+        parent[node] = node;
+        roots[node] = root;
+        terrain[node] = nodeTerrain;
+        positions[node] = 0;
+        openEdges[node] = 0;
+        tiles[node] = 0;
+        emblems[node] = 0;
+        Arrays.fill(meeples, node * PLAYERS, (node + 1) * PLAYERS, 0);
+        return node;
+    }
+
+    // splits the tile into segments of connected terrain, like the pattern index does when placing it.
+    private void createTileNodes() {
+        Arrays.fill(nodeOf, NO_NODE);
+        for (GridDirection position : POSITIONS) {
+            TerrainType positionTerrain = tile.getTerrain(position);
+            boolean isPattern = positionTerrain == CASTLE || positionTerrain == ROAD || positionTerrain == FIELDS;
+            if (isPattern && nodeOf[position.ordinal()] == NO_NODE) {
+                int node = createNode(positionTerrain, PatternIndex.NO_SEGMENT);
+                tiles[node] = 1;
+                emblems[node] = positionTerrain == CASTLE && tile.hasEmblem() ? 1 : 0;
+                for (GridDirection other : POSITIONS) {
+                    if (tile.hasConnection(position, other)) {
+                        nodeOf[other.ordinal()] = node;
+                        positions[node] |= 1 << other.ordinal();
+                        if (positionTerrain != FIELDS && other.isSmallerOrEquals(GridDirection.WEST)) {
+                            openEdges[node]++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // distinguishes nodes from root segments, which are never negative.
+    private int encode(int node) {
+        return -2 - node;
+    }
+
+    private int find(int node) {
+        int root = node;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        return root;
+    }
+
+    // loads the meeple counts of a pattern into the scratch buffer, optionally adding the meeple of the acting player.
+    private int loadCounts(int node, int meepleNode, int acting) {
+        int total = 0;
+        for (int player = 0; player < PLAYERS; player++) {
+            counts[player] = meeples[node * PLAYERS + player];
+            total += counts[player];
+        }
+        if (meepleNode != NO_NODE && find(meepleNode) == node) {
+            counts[acting]++;
+            total++;
+        }
+        return total;
+    }
+
+    private int loadCounts(int root) {
+        int total = 0;
+        for (int player = 0; player < PLAYERS; player++) {
+            counts[player] = index.getMeepleCount(root, player);
+            total += counts[player];
+        }
+        return total;
+    }
+
+    // returns the node of an existing pattern, optionally creating it.
+    private int nodeFor(int root, boolean create) {
+        for (int node = tileNodes; node < nodeCount; node++) {
+            if (roots[node] == root) {
+                return node;
+            }
+        }
+        if (!create) {
+            return NO_NODE;
+        }
+        int node = createNode(index.getTerrain(root), root);
+        openEdges[node] = index.getOpenEdges(root);
+        tiles[node] = index.getTileCount(root);
+        emblems[node] = index.getEmblemCount(root);
+        for (int player = 0; player < PLAYERS; player++) {
+            meeples[node * PLAYERS + player] = index.getMeepleCount(root, player);
+        }
+        return node;
+    }
+
+    // scores the monasteries around the spot, which grow by the placement.
+    private int scoreAdjacentMonasteries(int acting) {
+        int value = 0;
+        for (GridDirection direction : NEIGHBORS) {
+            int x = spot.getX() + direction.getX();
+            int y = spot.getY() + direction.getY();
+            Tile monastery = tileAt(x, y);
+            if (monastery != null && monastery.getTerrain(CENTER) == MONASTERY) {
+                Meeple meeple = monastery.getMeeple();
+                if (meeple != null && monastery.getTerrain(meeple.getPosition()) == MONASTERY) {
+                    int sign = meeple.getOwner().getNumber() == acting ? 1 : -1;
+                    int sizeBefore = 1 + countNeighbors(x, y);
+                    value += sign * (sizeBefore + 1);
+                    if (isNextToNeighbor(x, y)) {
+                        value -= sign * sizeBefore;
+                    } else if (sign > 0) { // the monastery was not part of the local patterns before
+                        gainedMeeples--;
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    private int scoreAfter(int node, int meepleNode, int acting) {
+        if (loadCounts(node, meepleNode, acting) == 0) {
+            return 0;
+        }
+        int score;
+        if (terrain[node] == FIELDS) {
+            score = FieldsPattern.calculateScore(countClosedCastlesAfter(node));
+        } else {
+            score = CastleAndRoadPattern.calculateScore(terrain[node], tiles[node], emblems[node], openEdges[node] == 0);
+        }
+        return zeroSumScore(score, acting);
+    }
+
+    // scores the existing patterns that are merged into the pattern of a node.
+    private int scoreBefore(int node, int acting) {
+        int value = 0;
+        for (int member = tileNodes; member < nodeCount; member++) {
+            if (find(member) == node && loadCounts(roots[member]) > 0) {
+                int root = roots[member];
+                int score;
+                if (terrain[member] == FIELDS) {
+                    closedBeforeCount = 0;
+                    closedAfterCount = 0;
+                    index.forEachAdjacentCastle(root, castleCollector);
+                    score = FieldsPattern.calculateScore(closedBeforeCount);
+                } else {
+                    score = CastleAndRoadPattern.calculateScore(terrain[member], index.getTileCount(root), index.getEmblemCount(root),
+                            index.isClosed(root));
+                }
+                value += zeroSumScore(score, acting);
+            }
+        }
+        return value;
+    }
+
+    // scores the fields on the neighboring tiles that are not merged but are adjacent to a castle that gets completed.
+    private int scoreUnmergedFields(int acting) {
+        int value = 0;
+        int visitedCount = 0;
+        for (int neighbor : neighbors) {
+            if (neighbor != PatternIndex.NO_SEGMENT) {
+                for (GridDirection position : POSITIONS) {
+                    int root = index.findPattern(neighbor, position);
+                    if (root != PatternIndex.NO_SEGMENT && index.getTerrain(root) == FIELDS && !contains(visitedRoots, visitedCount, root)
+                            && nodeFor(root, false) == NO_NODE) {
+                        visitedRoots[visitedCount++] = root;
+                        if (loadCounts(root) > 0) {
+                            closedBeforeCount = 0;
+                            closedAfterCount = 0;
+                            index.forEachAdjacentCastle(root, castleCollector);
+                            if (closedBeforeCount != closedAfterCount) {
+                                value += zeroSumScore(FieldsPattern.calculateScore(closedAfterCount), acting);
+                                value -= zeroSumScore(FieldsPattern.calculateScore(closedBeforeCount), acting);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    // returns the index of an occupied spot, or NO_SEGMENT if the spot is free or not on the grid.
+    private int spotIndexAt(int x, int y) {
+        Tile tile = tileAt(x, y);
+        return tile == null ? PatternIndex.NO_SEGMENT : grid.getSpot(x, y).getIndex();
+    }
+
+    private Tile tileAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= grid.getWidth() || y >= grid.getHeight() || grid.getTileType(x, y) == null) {
+            return null; // free spots are never accessed through their views, as these might not exist yet
+        }
+        return grid.getSpot(x, y).getTile();
+    }
+
+    // checks whether a position is next to a tile that is a direct neighbor of the spot.
+    private boolean isNextToNeighbor(int x, int y) {
+        for (GridDirection direction : DIRECT_NEIGHBORS) {
+            int neighborX = spot.getX() + direction.getX();
+            int neighborY = spot.getY() + direction.getY();
+            if (neighbors[direction.ordinal()] != PatternIndex.NO_SEGMENT && Math.abs(neighborX - x) <= 1 && Math.abs(neighborY - y) <= 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // calculates the score of the acting player minus the score of all other dominant players, based on the loaded counts.
+    private int zeroSumScore(int score, int acting) {
+        int maximum = 0;
+        for (int count : counts) {
+            maximum = Math.max(maximum, count);
+        }
+        if (maximum == 0) {
+            return 0;
+        }
+        int dominantPlayers = 0;
+        for (int count : counts) {
+            dominantPlayers += count == maximum ? 1 : 0;
+        }
+        int share = (int) Math.ceil(score / (double) dominantPlayers);
+        return counts[acting] == maximum ? share * (2 - dominantPlayers) : -share * dominantPlayers;
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,139 @@
+package carcassonne.model.ai;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import carcassonne.model.Player;
+import carcassonne.model.Round;
+import carcassonne.model.ai.SimulatedGame.GridSnapshot;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Evaluates the placements of the computer players in the background while the other players take their turns. After
+ * every completed turn, it evaluates the hands of all computer players and then the likely draws of the computer players
+ * on a private copy of the grid. The evaluations are stored in an {@link IncrementalPlacementCache}, which means a turn
+ * only discards the evaluations that it might have influenced. The turn of a computer player uses the same cache, which
+ * means it only evaluates the placements that were not pondered yet.
+ * @author Timur Saglam
+ */
+public final class PonderingService {
+    private final GameSettings settings;
+    private final IncrementalPlacementCache evaluations;
+    private ExecutorService executor; // created lazily, as only games with a user interface ponder
+    private volatile int version; // increases whenever the background evaluation has to stop
+
+    /**
+     * Job of the background evaluation, which evaluates all placements of a tile type for a player.
+     */
+    private record Job(int player, TileType type) {
+    }
+
+    /**
+     * Creates the service, which does not ponder until the first turn was completed.
+     * @param settings are the game settings.
+     * @param evaluations is the cache that stores the pondered evaluations for the grid of the game.
+     */
+    public PonderingService(GameSettings settings, IncrementalPlacementCache evaluations) {
+        this.settings = settings;
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * Starts pondering after a turn was completed, which means after the tile was placed and its patterns were scored.
+     * This method must be called on the thread that modifies the grid.
+     * @param round is the current round, whose active player takes the next turn.
+     * @param grid is the grid of the round.
+     * @param stack is the tile stack of the round.
+     */
+    public void ponder(Round round, Grid grid, TileStack stack) {
+        version++; // stops the outdated background evaluation
+        evaluations.synchronize(grid);
+        List<Job> jobs = createJobs(round, stack);
+        if (!jobs.isEmpty()) {
+            GridSnapshot snapshot = SimulatedGame.capture(grid); // captured here, the background must not access the grid
+            PlacementCache background = evaluations.forCopy(); // created here, as the cache is synchronized with the grid
+            int taskVersion = version;
+            getExecutor().execute(() -> evaluate(snapshot, background, jobs, taskVersion));
+        }
+    }
+
+    /**
+     * Stops the background evaluation, for example because a computer player takes its turn. The pondered evaluations stay
+     * available in the cache.
+     */
+    public void stop() {
+        version++;
+    }
+
+    /**
+     * Creates the jobs in the order of their urgency: the hands of the computer players in the order of their turns, then
+     * their likely draws, the most frequent tile types first.
+     */
+    private List<Job> createJobs(Round round, TileStack stack) {
+        if (round.getPlayerCount() != settings.getNumberOfPlayers()) {
+            return List.of(); // the copy of the grid is created for the players of the settings, which changed since
+        }
+        List<Player> computerPlayers = new ArrayList<>();
+        int activePlayer = round.getActivePlayer().getNumber();
+        for (int turn = 0; turn < round.getPlayerCount(); turn++) {
+            Player player = round.getPlayer((activePlayer + turn) % round.getPlayerCount());
+            if (player.isComputerControlled()) {
+                computerPlayers.add(player);
+            }
+        }
+        Set<Job> jobs = new LinkedHashSet<>();
+        for (Player player : computerPlayers) {
+            for (Tile tile : player.getHandOfTiles()) {
+                jobs.add(new Job(player.getNumber(), tile.getType()));
+            }
+        }
+        List<TileType> types = new ArrayList<>();
+        for (TileType type : TileType.values()) {
+            if (stack.getRemainingCount(type) > 0) {
+                types.add(type);
+            }
+        }
+        types.sort(Comparator.comparingInt(stack::getRemainingCount).reversed());
+        for (Player player : computerPlayers) {
+            types.forEach(it -> jobs.add(new Job(player.getNumber(), it)));
+        }
+        return new ArrayList<>(jobs);
+    }
+
+    /**
+     * Evaluates the jobs on a copy of the grid until they are done or outdated.
+     */
+    private void evaluate(GridSnapshot snapshot, PlacementCache background, List<Job> jobs, int taskVersion) {
+        if (version != taskVersion) {
+            return; // outdated before it started
+        }
+        SimulatedGame game = new SimulatedGame(snapshot, List.of(), settings, 0, background);
+        for (Job job : jobs) {
+            if (version != taskVersion) {
+                return;
+            }
+            game.generateMoves(job.type(), job.player());
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "AI pondering");
+                thread.setDaemon(true); // must not keep the game running
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Random;
 import java.util.stream.Stream;
 
 import carcassonne.model.Player;
+import carcassonne.model.Round;
 import carcassonne.model.grid.Grid;
 import carcassonne.model.tile.Tile;
 import carcassonne.model.tile.TileStack;
@@ -25,20 +26,36 @@ public class RuleBasedAI implements ArtificialIntelligence {
     private static final double EPSILON = 0.01;
     private final GameSettings settings;
     private final Random random;
+    private PonderingService pondering; // created lazily when the game is pondered
+    private IncrementalPlacementCache evaluations; // pondered evaluations, null if the game is not pondered
     private Optional<AbstractCarcassonneMove> currentMove;
 
     public RuleBasedAI(GameSettings settings) {
+        this(settings, new Random());
+    }
+
+    /**
+     * Creates an AI whose random choices among equally good moves are reproducible.
+     * @param settings are the game settings.
+     * @param seed is the seed for the random choices.
+     */
+    public RuleBasedAI(GameSettings settings, long seed) {
+        this(settings, new Random(seed));
+    }
+
+    private RuleBasedAI(GameSettings settings, Random random) {
         this.settings = settings;
-        random = new Random();
+        this.random = random;
     }
 
     @Override
     public Optional<AbstractCarcassonneMove> calculateBestMoveFor(Collection<Tile> tiles, Player player, Grid grid, TileStack stack) {
         currentMove = Optional.empty();
-        Collection<AbstractCarcassonneMove> possibleMoves = new ArrayList<>();
-        for (Tile tile : tiles) {
-            possibleMoves.addAll(grid.getPossibleMoves(tile, player, settings));
+        if (pondering != null) {
+            pondering.stop(); // the pondered evaluations are used instead
+            evaluations.synchronize(grid);
         }
+        Collection<AbstractCarcassonneMove> possibleMoves = new ArrayList<>(generatePossibleMoves(tiles, player, grid));
         // RULE 1: Only consider move with a positive value:
         List<AbstractCarcassonneMove> consideredMoves = possibleMoves.stream().filter(it -> it.getValue() >= 0).toList();
         // RULE 2: Do not place last meeple on fields (except at the end):
@@ -53,7 +70,6 @@ public class RuleBasedAI implements ArtificialIntelligence {
             Stream<AbstractCarcassonneMove> bestMoves = consideredMoves.stream().filter(it -> combinedValue(it, stack) == maximumValue);
             currentMove = chooseAmongBestMoves(bestMoves.toList(), grid);
         }
-        System.out.println(currentMove); // TODO (HIGH) [AI] remove debug output
         return currentMove;
     }
 
@@ -67,6 +83,15 @@ public class RuleBasedAI implements ArtificialIntelligence {
         return currentMove;
     }
 
+    @Override
+    public void ponder(Round round, Grid grid, TileStack stack) {
+        if (pondering == null) {
+            evaluations = new IncrementalPlacementCache();
+            pondering = new PonderingService(settings, evaluations);
+        }
+        pondering.ponder(round, grid, stack);
+    }
+
     private Optional<AbstractCarcassonneMove> chooseAmongBestMoves(List<AbstractCarcassonneMove> listOfMoves, Grid grid) {
         RuleBasedComparator comparator = new RuleBasedComparator(grid.getFoundation(), settings.getDistanceMeasure());
         AbstractCarcassonneMove maximum = Collections.max(listOfMoves, comparator);
@@ -74,6 +99,21 @@ public class RuleBasedAI implements ArtificialIntelligence {
         return Optional.of(chooseRandom(bestMoves));
     }
 
+    /**
+     * Generates the moves of all tiles, either sequentially or in parallel depending on the settings.
+     */
+    private List<ZeroSumMove> generatePossibleMoves(Collection<Tile> tiles, Player player, Grid grid) {
+        int parallelism = settings.getMoveGenerationParallelism();
+        if (parallelism == 1) {
+            List<ZeroSumMove> possibleMoves = new ArrayList<>();
+            for (Tile tile : tiles) {
+                possibleMoves.addAll(grid.getPossibleMoves(tile, player, settings, evaluations));
+            }
+            return possibleMoves;
+        }
+        return grid.getPossibleMoves(tiles, player, settings, WorkerPools.get(parallelism), evaluations);
+    }
+
     private <T> T chooseRandom(Collection<T> elements) {
         Optional<T> randomElement = elements.stream().skip(random.nextInt(elements.size())).findFirst();
         return randomElement.orElseThrow(() -> new IllegalArgumentException(EMPTY_COLLECTION));
@@ -0,0 +1,71 @@
+package carcassonne.model.ai;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Node of a Monte Carlo search tree, which represents the move sequence from the root to the node. As the tiles are
+ * drawn randomly, the same node stands for different grids in different simulations. Children are identified by the key
+ * of their move. Every node accumulates the rewards of all players over the simulations that passed it.
+ * @author Timur Saglam
+ */
+final class SearchNode {
+    private final Map<Long, SearchNode> children;
+    private final double[] rewards; // sum of the rewards per player
+    private int visits;
+
+    /**
+     * Creates a node that was not visited yet.
+     * @param playerCount is the number of players.
+     */
+    SearchNode(int playerCount) {
+        children = new HashMap<>();
+        rewards = new double[playerCount];
+    }
+
+    /**
+     * Returns the child of a move, creates it if required.
+     * @param key is the key of the move.
+     * @return the child node.
+     */
+    SearchNode addChild(long key) {
+        return children.computeIfAbsent(key, it -> new SearchNode(rewards.length));
+    }
+
+    /**
+     * Returns the child of a move.
+     * @param key is the key of the move.
+     * @return the child node or null if the move was not simulated yet.
+     */
+    SearchNode getChild(long key) {
+        return children.get(key);
+    }
+
+    Map<Long, SearchNode> getChildren() {
+        return children;
+    }
+
+    /**
+     * Returns the mean reward of a player over all visits.
+     * @param player is the number of the player.
+     * @return the mean reward between zero and one.
+     */
+    double getMeanReward(int player) {
+        return rewards[player] / visits;
+    }
+
+    int getVisits() {
+        return visits;
+    }
+
+    /**
+     * Adds the rewards of a simulation that passed this node.
+     * @param simulationRewards are the rewards per player.
+     */
+    void update(double[] simulationRewards) {
+        visits++;
+        for (int player = 0; player < rewards.length; player++) {
+            rewards[player] += simulationRewards[player];
+        }
+    }
+}
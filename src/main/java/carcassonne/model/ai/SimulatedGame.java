@@ -0,0 +1,184 @@
+package carcassonne.model.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.Player;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridPattern;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Private copy of a game that a search worker modifies to simulate future turns. It consists of a copy of the grid, its
+ * own players and a pool of tile types from which the future draws are sampled. All modifications of a simulation are
+ * rolled back with the journal of the grid, which also restores the scores and meeples of the players. The players of a
+ * copy start without any points, which means the scores of a simulation are the points gained during the simulation.
+ * @author Timur Saglam
+ */
+final class SimulatedGame {
+    private static final int MEEPLE_VALUE = 2; // points a free meeple is worth, as it can still score
+    private final GameSettings settings;
+    private final Grid grid;
+    private final Player[] players;
+    private final TileType[] pool;
+    private int poolSize;
+    private final Random random;
+    private final PlacementCache evaluations;
+
+    /**
+     * Placement of a tile and its meeple on the original grid.
+     */
+    record Placement(int x, int y, TileType type, TileRotation rotation, int owner, GridDirection meeplePosition) {
+    }
+
+    /**
+     * Captured state of the original grid, which allows to copy it without accessing it from other threads.
+     */
+    record GridSnapshot(int width, int height, boolean allowEnclaves, List<Placement> placements) {
+    }
+
+    /**
+     * Creates the copy of a game.
+     * @param snapshot is the captured state of the original grid.
+     * @param remainingTypes are the types of the tiles that can still be drawn.
+     * @param settings are the game settings.
+     * @param seed is the seed for the sampled draws and the random moves.
+     * @param evaluations stores the evaluations of placements, which are shared with other copies of the game.
+     */
+    SimulatedGame(GridSnapshot snapshot, List<TileType> remainingTypes, GameSettings settings, long seed,
+            PlacementCache evaluations) {
+        this.settings = settings;
+        this.evaluations = evaluations;
+        grid = new Grid(snapshot.width(), snapshot.height(), snapshot.allowEnclaves());
+        players = new Player[settings.getNumberOfPlayers()];
+        for (int number = 0; number < players.length; number++) {
+            players[number] = new Player(number, settings);
+        }
+        for (Placement placement : snapshot.placements()) {
+            Tile tile = new Tile(placement.type());
+            tile.rotateTo(placement.rotation());
+            grid.getSpot(placement.x(), placement.y()).forcePlacement(tile);
+            if (placement.meeplePosition() != null) {
+                Meeple meeple = new Meeple(players[placement.owner()]);
+                meeple.setPosition(placement.meeplePosition());
+                tile.restoreMeeple(meeple); // the placement rules were already checked on the original grid
+            }
+        }
+        pool = remainingTypes.toArray(TileType[]::new);
+        random = new Random(seed);
+    }
+
+    /**
+     * Captures the state of a grid, which consists of the placements of all tiles except the foundation tile.
+     * @param grid is the original grid.
+     * @return the snapshot of the grid.
+     */
+    static GridSnapshot capture(Grid grid) {
+        List<Placement> placements = new ArrayList<>();
+        for (GridSpot spot : grid.getOccupiedSpots()) {
+            if (spot != grid.getFoundation()) {
+                Tile tile = spot.getTile();
+                Meeple meeple = tile.getMeeple();
+                int owner = meeple == null ? -1 : meeple.getOwner().getNumber();
+                placements.add(new Placement(spot.getX(), spot.getY(), tile.getType(), tile.getRotation(), owner,
+                        meeple == null ? null : meeple.getPosition()));
+            }
+        }
+        return new GridSnapshot(grid.getWidth(), grid.getHeight(), grid.isAllowingEnclaves(), placements);
+    }
+
+    /**
+     * Draws a random tile type from the pool without replacement.
+     * @return the tile type or null if the pool is empty.
+     */
+    TileType drawType() {
+        if (poolSize == 0) {
+            return null;
+        }
+        int drawn = random.nextInt(poolSize);
+        TileType type = pool[drawn];
+        pool[drawn] = pool[--poolSize];
+        pool[poolSize] = type; // the pool is permuted but keeps its types
+        return type;
+    }
+
+    /**
+     * Evaluates the simulation by scoring all patterns as if the game ended now. The scoring is rolled back afterwards.
+     * @return the points that every player gained during the simulation.
+     */
+    int[] evaluate() {
+        int mark = grid.mark();
+        for (GridPattern pattern : grid.getAllPatterns()) {
+            pattern.forceDisburse(settings.getSplitPatternScore());
+        }
+        int[] scores = new int[players.length];
+        for (Player player : players) {
+            scores[player.getNumber()] = player.getScore() + MEEPLE_VALUE * player.getFreeMeeples();
+        }
+        grid.rollback(mark);
+        return scores;
+    }
+
+    /**
+     * Generates the moves of a tile for a player, in descending order of their value.
+     * @param type is the type of the tile.
+     * @param player is the number of the player.
+     * @return the list of moves.
+     */
+    List<ZeroSumMove> generateMoves(TileType type, int player) {
+        return grid.getPossibleMoves(new Tile(type), players[player], settings, evaluations);
+    }
+
+    int getPlayerCount() {
+        return players.length;
+    }
+
+    Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Starts a simulation by refilling the pool of tile types and marking the state of the copy.
+     * @return the mark to roll the simulation back to.
+     */
+    int startSimulation() {
+        poolSize = pool.length;
+        return grid.mark();
+    }
+
+    /**
+     * Plays a move like a player would, which includes scoring the completed patterns.
+     * @param move is the move, which was generated by this copy.
+     */
+    void play(ZeroSumMove move) {
+        Tile tile = move.getOriginalTile();
+        Player player = move.getActingPlayer();
+        tile.rotateTo(move.getRequiredTileRotation());
+        if (!grid.place(move.getX(), move.getY(), tile)) {
+            throw new IllegalStateException("Simulated move cannot be placed: " + move);
+        }
+        if (player.hasFreeMeeples() && move.involvesMeeplePlacement()) {
+            tile.placeMeeple(player, move.getMeeplePosition(), settings);
+        }
+        for (GridPattern pattern : grid.getModifiedPatterns(tile.getGridSpot())) {
+            if (pattern.isComplete()) {
+                pattern.disburse(settings.getSplitPatternScore());
+            }
+        }
+    }
+
+    /**
+     * Rolls back all simulated turns since a mark.
+     * @param mark is the mark, see {@link #startSimulation()}.
+     */
+    void rollback(int mark) {
+        grid.rollback(mark);
+    }
+}
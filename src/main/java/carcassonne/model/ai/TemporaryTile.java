@@ -1,5 +1,6 @@
 package carcassonne.model.ai;
 
+import carcassonne.model.Meeple;
 import carcassonne.model.Player;
 import carcassonne.model.grid.GridDirection;
 import carcassonne.model.grid.GridSpot;
@@ -41,6 +42,17 @@ public class TemporaryTile extends Tile {
     @Override
     public void removeMeeple() {
         meeple = null;
+        if (gridSpot != null) {
+            gridSpot.updateMeeple();
+        }
+    }
+
+    @Override
+    public void restoreMeeple(Meeple removedMeeple) {
+        meeple = removedMeeple; // temporary meeples are never taken from their owner
+        if (gridSpot != null) {
+            gridSpot.updateMeeple();
+        }
     }
 
     @Override
@@ -0,0 +1,119 @@
+package carcassonne.model.ai;
+
+import java.util.Collection;
+
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.ZobristKeys;
+import carcassonne.model.tile.Tile;
+
+/**
+ * Bounded table of evaluations of grid positions, which allows the AI to reuse evaluations of positions it has already
+ * seen. Entries are keyed by the Zobrist hash of the grid (see {@link Grid#getHash()}) and a signature of what is
+ * evaluated on that position, for example the remaining hand of tiles. The table has a fixed number of entries, a new
+ * entry replaces the entry in its place. The entries are split into stripes with their own lock, which means threads
+ * that generate moves in parallel rarely block each other.
+ * @param <V> is the type of the evaluations, which must be immutable.
+ * @author Timur Saglam
+ */
+public final class TranspositionTable<V> {
+    private static final int STRIPES = 64; // must be a power of two
+    private static final long SIGNATURE_MULTIPLIER = 0x9E3779B97F4A7C15L; // spreads signatures that differ in few bits
+    private final long[] hashes;
+    private final long[] signatures;
+    private final Object[] evaluations;
+    private final Object[] locks;
+    private final int mask;
+
+    /**
+     * Creates an empty table.
+     * @param capacity is the minimal number of entries, which is rounded up to the next power of two.
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid transposition table capacity: " + capacity);
+        }
+        int size = Math.max(STRIPES, Integer.highestOneBit(capacity - 1) << 1);
+        mask = size - 1;
+        hashes = new long[size];
+        signatures = new long[size];
+        evaluations = new Object[size];
+        locks = new Object[STRIPES];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            locks[stripe] = new Object();
+        }
+    }
+
+    /**
+     * Removes all entries from the table.
+     */
+    public void clear() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int entry = stripe; entry < evaluations.length; entry += STRIPES) {
+                    evaluations[entry] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the evaluation of a position.
+     * @param hash is the hash of the grid.
+     * @param signature is the signature of what is evaluated on the grid.
+     * @return the evaluation or null if the table has no entry for the position.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long hash, long signature) {
+        int entry = entryOf(hash, signature);
+        synchronized (locks[entry & STRIPES - 1]) {
+            if (evaluations[entry] != null && hashes[entry] == hash && signatures[entry] == signature) {
+                return (V) evaluations[entry];
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of entries of the table.
+     * @return the capacity.
+     */
+    public int getCapacity() {
+        return evaluations.length;
+    }
+
+    /**
+     * Stores the evaluation of a position and replaces the previous entry in its place.
+     * @param hash is the hash of the grid.
+     * @param signature is the signature of what is evaluated on the grid.
+     * @param evaluation is the evaluation.
+     */
+    public void put(long hash, long signature, V evaluation) {
+        if (evaluation == null) {
+            throw new IllegalArgumentException("Evaluation can't be null!");
+        }
+        int entry = entryOf(hash, signature);
+        synchronized (locks[entry & STRIPES - 1]) {
+            hashes[entry] = hash;
+            signatures[entry] = signature;
+            evaluations[entry] = evaluation;
+        }
+    }
+
+    private int entryOf(long hash, long signature) {
+        long key = hash ^ signature * SIGNATURE_MULTIPLIER;
+        return (int) (key ^ key >>> 32) & mask;
+    }
+
+    /**
+     * Calculates the signature of a hand of tiles, which only depends on the types of the tiles and not on their order.
+     * @param tiles is the hand of tiles.
+     * @return the signature.
+     */
+    public static long handSignature(Collection<Tile> tiles) {
+        long signature = 0;
+        for (Tile tile : tiles) {
+            signature += ZobristKeys.tileTypeKey(tile.getType()); // addition keeps duplicates apart
+        }
+        return signature;
+    }
+}
@@ -0,0 +1,31 @@
+package carcassonne.model.ai;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provides the fork/join pools of the computer players, one per parallelism level. The pools are shared by all computer
+ * players, which means games that create a new computer player per game do not create new threads. The worker threads
+ * are daemon threads that terminate when they are idle, the pools therefore do not need to be shut down.
+ * @author Timur Saglam
+ */
+final class WorkerPools {
+    private static final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+    private WorkerPools() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Returns the shared fork/join pool with a specific parallelism level, which is created when it is first requested.
+     * @param parallelism is the parallelism level of the pool.
+     * @return the shared pool.
+     */
+    static ForkJoinPool get(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism level must be positive: " + parallelism);
+        }
+        return pools.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+}
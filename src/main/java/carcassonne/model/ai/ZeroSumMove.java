@@ -38,6 +38,31 @@ public class ZeroSumMove extends AbstractCarcassonneMove {
         this(tile, null, actingPlayer, settings);
     }
 
+    /**
+     * Creates the move from an analytic evaluation, without placing the tile. Does not check if the move is legal.
+     * @param tile is the tile placed in the move, in the rotation required by the move.
+     * @param gridSpot is the spot on which the tile is placed.
+     * @param meeplePosition is the position on which the meeple is placed on the tile, or null if no meeple is placed.
+     * @param actingPlayer is the player that is executing the move.
+     * @param settings are the game settings.
+     * @param evaluator is the evaluator, prepared for the placement of the tile on the spot.
+     */
+    public ZeroSumMove(TemporaryTile tile, GridSpot gridSpot, GridDirection meeplePosition, Player actingPlayer, GameSettings settings,
+            PlacementEvaluator evaluator) {
+        // arguments are evaluated from left to right, so the evaluation runs before its field value and meeple gain are read:
+        super(tile, gridSpot, meeplePosition, actingPlayer, settings, evaluator.evaluate(meeplePosition, actingPlayer), evaluator.getFieldValue(),
+                evaluator.getGainedMeeples());
+    }
+
+    /**
+     * Recreates a move from a stored evaluation, without placing the tile. Does not check if the move is legal.
+     * @see PlacementEvaluation
+     */
+    ZeroSumMove(TemporaryTile tile, GridSpot gridSpot, GridDirection meeplePosition, Player actingPlayer, GameSettings settings, double value,
+            double fieldValue, int gainedMeeples) {
+        super(tile, gridSpot, meeplePosition, actingPlayer, settings, value, fieldValue, gainedMeeples);
+    }
+
     @Override
     protected double calculateValue() {
         gridSpot.removeTile();
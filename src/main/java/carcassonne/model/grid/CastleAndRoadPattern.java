@@ -7,28 +7,37 @@ import carcassonne.model.terrain.TerrainType;
  */
 public class CastleAndRoadPattern extends GridPattern { // TODO (MEDIUM) [STYLE] use subclasses to make constructors generic (factory?)
     private static final double UNFINISHED_CASTLE_MULTIPLIER = 0.5;
+    private final int emblems;
 
     /**
      * Public constructor for creating road and monastery patterns.
      * @param startingSpot is the starting spot of the pattern.
      * @param startingDirection is the starting direction of the pattern.
      * @param patternType is the type of the pattern.
-     * @param grid is the grid the pattern is created on.
      */
     public CastleAndRoadPattern(GridSpot startingSpot, GridDirection startingDirection, TerrainType patternType) {
-        super(patternType, (patternType == TerrainType.CASTLE) ? 2 : 1);
-        checkArgs(startingSpot, startingDirection, patternType);
-        startingSpot.setTag(startingDirection, this); // initial tag
-        add(startingSpot); // initial tile
-        complete = buildPattern(startingSpot, startingDirection); // recursive algorithm.
+        super(checkType(patternType), multiplierFor(patternType), startingSpot, startingDirection);
+        emblems = getIndex().getEmblemCount(getRoot());
     }
 
     @Override
     public int getPatternScore() {
-        int baseScore = super.getPatternScore();
+        return calculateScore(patternType, size, emblems, complete);
+    }
+
+    /**
+     * Calculates the score of a castle or road pattern from its summary.
+     * @param patternType is the type of the pattern, either castle or road.
+     * @param size is the number of tiles of the pattern.
+     * @param emblems is the number of emblems in the pattern.
+     * @param complete determines whether the pattern is complete.
+     * @return the score of the pattern.
+     */
+    public static int calculateScore(TerrainType patternType, int size, int emblems, boolean complete) {
+        int multiplier = multiplierFor(patternType);
+        int baseScore = size * multiplier;
         if (patternType == TerrainType.CASTLE) {
-            int emblems = (int) containedSpots.stream().filter(it -> it.getTile().hasEmblem()).count(); // count emblems
-            baseScore += emblems * scoreMultiplier;
+            baseScore += emblems * multiplier;
             if (!complete) {
                 baseScore *= UNFINISHED_CASTLE_MULTIPLIER;
             }
@@ -36,36 +45,14 @@ public class CastleAndRoadPattern extends GridPattern { // TODO (MEDIUM) [STYLE]
         return baseScore;
     }
 
-    private boolean buildPattern(GridSpot spot, GridDirection startingPoint) {
-        boolean isClosed = true;
-        for (GridDirection direction : GridDirection.directNeighbors()) { // for every side
-            if (spot.getTile().hasConnection(startingPoint, direction)) { // if is connected side
-                GridSpot neighbor = spot.getGrid().getNeighbor(spot, direction); // get the neighbor
-                if (neighbor == null) { // if it has no neighbor
-                    isClosed = false; // open side, can't be finished pattern.
-                } else { // continue on neighbors
-                    isClosed &= checkNeighbor(spot, neighbor, direction);
-                }
-            }
-        }
-        return isClosed;
+    private static int multiplierFor(TerrainType patternType) {
+        return (patternType == TerrainType.CASTLE) ? 2 : 1;
     }
 
-    private void checkArgs(GridSpot spot, GridDirection direction, TerrainType terrain) {
+    private static TerrainType checkType(TerrainType terrain) {
         if (terrain != TerrainType.CASTLE && terrain != TerrainType.ROAD) {
             throw new IllegalArgumentException("Can only create CastleAndRoadPatterns from type castle or road");
         }
-        checkArgs(spot, direction);
-    }
-
-    private boolean checkNeighbor(GridSpot startingTile, GridSpot neighbor, GridDirection direction) {
-        GridDirection oppositeDirection = direction.opposite();
-        if (!neighbor.isIndirectlyTaggedBy(oppositeDirection, this)) { // if neighbor not visited yet
-            startingTile.setTag(direction, this);
-            neighbor.setTag(oppositeDirection, this); // mark as visited
-            add(neighbor); // add to pattern
-            return buildPattern(neighbor, oppositeDirection);
-        }
-        return true;
+        return terrain;
     }
 }
@@ -0,0 +1,134 @@
+package carcassonne.model.grid;
+
+import java.util.Arrays;
+
+/**
+ * Directory of the chunks of a sparse grid storage. The grid is split into square chunks of spots, which are only
+ * allocated when a spot of the chunk is written for the first time. The chunks are found through an open addressing hash
+ * table of their chunk coordinates. Every spot of an allocated chunk has a dense slot, which indexes the primitive
+ * arrays of the grid and its indices. This way, the memory grows with the area around the placed tiles instead of the
+ * area of the grid. Lookups do not modify the directory and can therefore be done concurrently, allocations can not.
+ * @author Timur Saglam
+ */
+final class ChunkDirectory {
+    static final int NO_SLOT = -1;
+    static final int CHUNK_SIDE = 16;
+    static final int CHUNK_AREA = CHUNK_SIDE * CHUNK_SIDE;
+    private static final int CHUNK_BITS = 4; // binary logarithm of the chunk side
+    private static final int LOCAL_MASK = CHUNK_SIDE - 1;
+    private static final int NO_KEY = -1;
+    private static final int INITIAL_TABLE_SIZE = 16; // must be a power of two
+    private static final int HASH_MULTIPLIER = 0x9E3779B9; // golden ratio, spreads consecutive keys
+    private final int chunksPerRow;
+    private int[] keys; // hash table of chunk keys
+    private int[] chunks; // chunk number per hash table entry
+    private int[] chunkKeys; // chunk key per chunk number
+    private int chunkCount;
+
+    /**
+     * Creates an empty chunk directory for a grid.
+     * @param width is the grid width.
+     */
+    ChunkDirectory(int width) {
+        chunksPerRow = (width + LOCAL_MASK) / CHUNK_SIDE;
+        keys = new int[INITIAL_TABLE_SIZE];
+        chunks = new int[INITIAL_TABLE_SIZE];
+        chunkKeys = new int[INITIAL_TABLE_SIZE / 2];
+        Arrays.fill(keys, NO_KEY);
+    }
+
+    /**
+     * Returns the slot of a spot, allocates its chunk if required.
+     * @param x is the x coordinate of the spot.
+     * @param y is the y coordinate of the spot.
+     * @return the slot.
+     */
+    int allocateSlot(int x, int y) {
+        int slot = findSlot(x, y);
+        if (slot != NO_SLOT) {
+            return slot;
+        }
+        if ((chunkCount + 1) * 2 > keys.length) { // keep the load factor below one half
+            rehash(keys.length * 2);
+        }
+        int key = keyOf(x, y);
+        chunkKeys[chunkCount] = key;
+        insert(key, chunkCount);
+        chunkCount++;
+        return findSlot(x, y);
+    }
+
+    /**
+     * Returns the slot of a spot.
+     * @param x is the x coordinate of the spot.
+     * @param y is the y coordinate of the spot.
+     * @return the slot or {@link #NO_SLOT} if the chunk of the spot is not allocated.
+     */
+    int findSlot(int x, int y) {
+        int key = keyOf(x, y);
+        int mask = keys.length - 1;
+        for (int entry = hash(key, mask);; entry = entry + 1 & mask) {
+            if (keys[entry] == key) {
+                return chunks[entry] * CHUNK_AREA + (y & LOCAL_MASK) * CHUNK_SIDE + (x & LOCAL_MASK);
+            }
+            if (keys[entry] == NO_KEY) {
+                return NO_SLOT;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of slots of all allocated chunks.
+     * @return the slot capacity.
+     */
+    int getCapacity() {
+        return chunkCount * CHUNK_AREA;
+    }
+
+    /**
+     * Returns the x coordinate of the spot of a slot.
+     * @param slot is the slot.
+     * @return the x coordinate.
+     */
+    int getX(int slot) {
+        return chunkKeys[slot / CHUNK_AREA] % chunksPerRow * CHUNK_SIDE + (slot & LOCAL_MASK);
+    }
+
+    /**
+     * Returns the y coordinate of the spot of a slot.
+     * @param slot is the slot.
+     * @return the y coordinate.
+     */
+    int getY(int slot) {
+        return chunkKeys[slot / CHUNK_AREA] / chunksPerRow * CHUNK_SIDE + (slot % CHUNK_AREA >> CHUNK_BITS);
+    }
+
+    private int keyOf(int x, int y) {
+        return (y >> CHUNK_BITS) * chunksPerRow + (x >> CHUNK_BITS);
+    }
+
+    private static int hash(int key, int mask) {
+        int hash = key * HASH_MULTIPLIER;
+        return (hash ^ hash >>> 16) & mask;
+    }
+
+    private void insert(int key, int chunk) {
+        int mask = keys.length - 1;
+        int entry = hash(key, mask);
+        while (keys[entry] != NO_KEY) {
+            entry = entry + 1 & mask;
+        }
+        keys[entry] = key;
+        chunks[entry] = chunk;
+    }
+
+    private void rehash(int tableSize) {
+        keys = new int[tableSize];
+        chunks = new int[tableSize];
+        Arrays.fill(keys, NO_KEY);
+        chunkKeys = Arrays.copyOf(chunkKeys, tableSize / 2);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            insert(chunkKeys[chunk], chunk);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package carcassonne.model.grid;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Persistent index that answers whether placing a tile on a free spot would enclose free spots, which means they lose
+ * their connection to the grid border. Occupied spots are merged with their eight surrounding occupied spots in a
+ * union-find structure. A placement encloses free spots if it separates its free direct neighbors locally and the
+ * occupied spots between them are already connected, because the placement then closes a ring of occupied spots. The
+ * grid border itself never closes a ring, as free spots on the border are connected to the outside. The query only
+ * inspects the eight surrounding spots and therefore takes constant time. Free spots that are already enclosed are
+ * marked, these marks are only recomputed if a placement actually encloses free spots. Like the {@link PatternIndex},
+ * the union-find uses union by size without path compression, which allows concurrent queries and undoing the most
+ * recent placement. The union-find is stored per slot of the {@link ChunkDirectory} of the grid, searches are limited
+ * to the bounding box of the occupied spots, as all free spots outside of it are connected to the border.
+ * @author Timur Saglam
+ */
+final class EnclaveIndex {
+    private static final int NO_ROOT = -1;
+    private static final int RING_SIZE = 8;
+    private static final int[] RING_X = {0, 1, 1, 1, 0, -1, -1, -1}; // clockwise, starting north, sides at even slots
+    private static final int[] RING_Y = {-1, -1, 0, 1, 1, 1, 0, -1};
+    private static final int INITIAL_CAPACITY = 64;
+    private final int width;
+    private final int height;
+    private final ChunkDirectory chunks;
+    private boolean[] occupied; // per slot
+    private int[] parent; // parent slot per slot
+    private int[] setSize;
+    private final Set<Integer> enclosed; // indices of free spots without connection to the grid border
+    private int minimumX; // bounding box of all occupied spots, is not shrunk when spots are removed
+    private int maximumX;
+    private int minimumY;
+    private int maximumY;
+    // placement history:
+    private int[] placedSpots;
+    private int[] placedJournal; // journal size before each placement
+    private boolean[] placedEnclosing; // whether each placement enclosed free spots
+    private int placementCount;
+    private int[] journal; // merged child roots
+    private int journalSize;
+
+    /**
+     * Creates an empty enclave index for a grid.
+     * @param width is the grid width.
+     * @param height is the grid height.
+     * @param chunks is the chunk directory of the grid storage.
+     */
+    EnclaveIndex(int width, int height, ChunkDirectory chunks) {
+        this.width = width;
+        this.height = height;
+        this.chunks = chunks;
+        occupied = new boolean[0];
+        parent = new int[0];
+        setSize = new int[0];
+        enclosed = new HashSet<>();
+        placedSpots = new int[INITIAL_CAPACITY];
+        placedJournal = new int[INITIAL_CAPACITY];
+        placedEnclosing = new boolean[INITIAL_CAPACITY];
+        journal = new int[INITIAL_CAPACITY * RING_SIZE];
+        reset();
+    }
+
+    /**
+     * Adds an occupied spot to the index. The storage slot of the spot must already be allocated.
+     * @param index is the spot index.
+     */
+    void addSpot(int index) {
+        int slot = chunks.findSlot(index % width, index / width);
+        if (occupied[slot]) {
+            return;
+        }
+        if (placementCount == placedSpots.length) {
+            placedSpots = Arrays.copyOf(placedSpots, placementCount * 2);
+            placedJournal = Arrays.copyOf(placedJournal, placementCount * 2);
+            placedEnclosing = Arrays.copyOf(placedEnclosing, placementCount * 2);
+        }
+        placedSpots[placementCount] = index;
+        placedJournal[placementCount] = journalSize;
+        placedEnclosing[placementCount] = isEnclosing(index);
+        occupy(index, slot);
+        if (placedEnclosing[placementCount]) {
+            markEnclosedSpots();
+        }
+        placementCount++;
+    }
+
+    /**
+     * Grows the index to a number of storage slots of the grid.
+     * @param slots is the new number of slots.
+     */
+    void ensureCapacity(int slots) {
+        int oldCapacity = parent.length;
+        if (slots > oldCapacity) {
+            occupied = Arrays.copyOf(occupied, slots);
+            parent = Arrays.copyOf(parent, slots);
+            setSize = Arrays.copyOf(setSize, slots);
+            for (int slot = oldCapacity; slot < slots; slot++) {
+                parent[slot] = slot;
+                setSize[slot] = 1;
+            }
+        }
+    }
+
+    /**
+     * Removes an occupied spot from the index. Removing the most recently added spot is undone, otherwise the index is
+     * rebuilt.
+     * @param index is the spot index.
+     */
+    void removeSpot(int index) {
+        int slot = chunks.findSlot(index % width, index / width);
+        if (slot == ChunkDirectory.NO_SLOT || !occupied[slot]) {
+            return;
+        }
+        if (placementCount > 0 && placedSpots[placementCount - 1] == index) {
+            placementCount--;
+            while (journalSize > placedJournal[placementCount]) {
+                int child = journal[--journalSize];
+                setSize[parent[child]] -= setSize[child];
+                parent[child] = child;
+            }
+            occupied[slot] = false;
+            if (placedEnclosing[placementCount]) {
+                markEnclosedSpots();
+            }
+        } else {
+            rebuildWithout(slot);
+        }
+    }
+
+    /**
+     * Checks whether a free spot is enclosed, which means it has no connection to the grid border.
+     * @param index is the index of the free spot.
+     * @return true if it is enclosed.
+     */
+    boolean isEnclosed(int index) {
+        return !enclosed.isEmpty() && enclosed.contains(index);
+    }
+
+    /**
+     * Checks whether occupying a free spot would enclose any free spots that are currently connected to the grid border.
+     * Spots that are already enclosed are not considered, see {@link #isEnclosed(int)}.
+     * @param index is the index of the free spot.
+     * @return true if it would enclose free spots.
+     */
+    boolean isEnclosing(int index) {
+        int x = index % width;
+        int y = index / width;
+        int blocked = 0; // bitmask of the occupied ring slots
+        int start = NO_ROOT;
+        for (int ringSlot = 0; ringSlot < RING_SIZE; ringSlot++) {
+            if (isOccupied(x + RING_X[ringSlot], y + RING_Y[ringSlot])) {
+                blocked |= 1 << ringSlot;
+            } else if (ringSlot % 2 == 0 && start == NO_ROOT) {
+                start = ringSlot; // first free side
+            }
+        }
+        if (start == NO_ROOT) {
+            return false; // no free direct neighbor that could be enclosed
+        }
+        // walk around the ring, every run of occupied slots between two free sides separates them locally:
+        int[] separators = new int[RING_SIZE / 2];
+        int separatorCount = 0;
+        int currentRoot = NO_ROOT;
+        for (int step = 1; step <= RING_SIZE; step++) {
+            int ringSlot = (start + step) % RING_SIZE;
+            if ((blocked & 1 << ringSlot) != 0) {
+                if (currentRoot == NO_ROOT) { // runs are locally connected, one root is enough
+                    currentRoot = find(chunks.findSlot(x + RING_X[ringSlot], y + RING_Y[ringSlot]));
+                }
+            } else if (ringSlot % 2 == 0 && currentRoot != NO_ROOT) {
+                for (int separator = 0; separator < separatorCount; separator++) {
+                    if (separators[separator] == currentRoot) {
+                        return true; // two separating runs are connected, which closes a ring
+                    }
+                }
+                separators[separatorCount++] = currentRoot;
+                currentRoot = NO_ROOT;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Searches a path of free spots from a free spot to the grid border.
+     * @param start is the index of the free spot where the search starts.
+     * @param blocked is the index of a free spot that is treated as occupied.
+     * @return true if there is a path.
+     */
+    boolean isConnectedToBorder(int start, int blocked) {
+        if (start == blocked || isOccupied(start % width, start / width)) {
+            return false;
+        }
+        if (minimumX > maximumX) {
+            return true; // no occupied spots
+        }
+        // the bounding box also contains the blocked spot, so all free spots outside of it are connected to the border:
+        int boxMinimumX = Math.min(minimumX, blocked % width);
+        int boxMaximumX = Math.max(maximumX, blocked % width);
+        int boxMinimumY = Math.min(minimumY, blocked / width);
+        int boxMaximumY = Math.max(maximumY, blocked / width);
+        int boxWidth = boxMaximumX - boxMinimumX + 1;
+        boolean[] visited = new boolean[boxWidth * (boxMaximumY - boxMinimumY + 1)];
+        int[] stack = new int[visited.length + 1]; // explicit stack, as the search can be as long as the box is large
+        int stackSize = 0;
+        stack[stackSize++] = start;
+        while (stackSize > 0) {
+            int index = stack[--stackSize];
+            int x = index % width;
+            int y = index / width;
+            if (x <= boxMinimumX || x >= boxMaximumX || y <= boxMinimumY || y >= boxMaximumY) {
+                return true; // free spots on the border of the box can always reach the grid border
+            }
+            visited[(y - boxMinimumY) * boxWidth + x - boxMinimumX] = true;
+            for (int ringSlot = 0; ringSlot < RING_SIZE; ringSlot += 2) { // direct neighbors only
+                int neighborX = x + RING_X[ringSlot];
+                int neighborY = y + RING_Y[ringSlot];
+                int neighbor = neighborY * width + neighborX;
+                int boxSlot = (neighborY - boxMinimumY) * boxWidth + neighborX - boxMinimumX;
+                if (neighbor != blocked && !visited[boxSlot] && !isOccupied(neighborX, neighborY)) {
+                    visited[boxSlot] = true;
+                    stack[stackSize++] = neighbor;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void occupy(int index, int slot) {
+        occupied[slot] = true;
+        int x = index % width;
+        int y = index / width;
+        minimumX = Math.min(minimumX, x);
+        maximumX = Math.max(maximumX, x);
+        minimumY = Math.min(minimumY, y);
+        maximumY = Math.max(maximumY, y);
+        for (int ringSlot = 0; ringSlot < RING_SIZE; ringSlot++) {
+            if (isOccupied(x + RING_X[ringSlot], y + RING_Y[ringSlot])) {
+                union(slot, chunks.findSlot(x + RING_X[ringSlot], y + RING_Y[ringSlot]));
+            }
+        }
+    }
+
+    private boolean isOccupied(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return false;
+        }
+        int slot = chunks.findSlot(x, y);
+        return slot != ChunkDirectory.NO_SLOT && occupied[slot];
+    }
+
+    private int find(int slot) {
+        int root = slot;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        return root;
+    }
+
+    private void union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot != secondRoot) {
+            if (setSize[firstRoot] < setSize[secondRoot]) {
+                int swap = firstRoot;
+                firstRoot = secondRoot;
+                secondRoot = swap;
+            }
+            parent[secondRoot] = firstRoot;
+            setSize[firstRoot] += setSize[secondRoot];
+            if (journalSize == journal.length) {
+                journal = Arrays.copyOf(journal, journalSize * 2);
+            }
+            journal[journalSize++] = secondRoot;
+        }
+    }
+
+    private void reset() {
+        for (int slot = 0; slot < parent.length; slot++) {
+            parent[slot] = slot;
+            setSize[slot] = 1;
+        }
+        Arrays.fill(occupied, false);
+        enclosed.clear();
+        minimumX = Integer.MAX_VALUE;
+        maximumX = Integer.MIN_VALUE;
+        minimumY = Integer.MAX_VALUE;
+        maximumY = Integer.MIN_VALUE;
+        placementCount = 0;
+        journalSize = 0;
+    }
+
+    /**
+     * Rebuilds the index without a specific slot.
+     */
+    private void rebuildWithout(int removedSlot) {
+        boolean[] remaining = occupied.clone();
+        remaining[removedSlot] = false;
+        reset();
+        for (int slot = 0; slot < remaining.length; slot++) {
+            if (remaining[slot]) {
+                occupy(chunks.getY(slot) * width + chunks.getX(slot), slot);
+            }
+        }
+        placementCount = 0; // the history is lost, later removals rebuild the index again
+        journalSize = 0;
+        markEnclosedSpots();
+    }
+
+    // marks all free spots in the bounding box that cannot be reached from its border.
+    private void markEnclosedSpots() {
+        enclosed.clear();
+        if (minimumX > maximumX) {
+            return; // no occupied spots
+        }
+        int boxWidth = maximumX - minimumX + 1;
+        int boxHeight = maximumY - minimumY + 1;
+        boolean[] reached = new boolean[boxWidth * boxHeight];
+        int[] stack = new int[reached.length];
+        int stackSize = 0;
+        for (int boxY = 0; boxY < boxHeight; boxY++) {
+            for (int boxX = 0; boxX < boxWidth; boxX++) {
+                int x = minimumX + boxX;
+                int y = minimumY + boxY;
+                if (isOccupied(x, y)) {
+                    reached[boxY * boxWidth + boxX] = true; // occupied spots count as reached
+                } else if (boxX == 0 || boxY == 0 || boxX == boxWidth - 1 || boxY == boxHeight - 1) {
+                    reached[boxY * boxWidth + boxX] = true;
+                    stack[stackSize++] = boxY * boxWidth + boxX;
+                }
+            }
+        }
+        while (stackSize > 0) {
+            int boxIndex = stack[--stackSize];
+            int boxX = boxIndex % boxWidth;
+            int boxY = boxIndex / boxWidth;
+            for (int ringSlot = 0; ringSlot < RING_SIZE; ringSlot += 2) { // direct neighbors only
+                int neighborX = boxX + RING_X[ringSlot];
+                int neighborY = boxY + RING_Y[ringSlot];
+                if (neighborX >= 0 && neighborX < boxWidth && neighborY >= 0 && neighborY < boxHeight && !reached[neighborY * boxWidth + neighborX]) {
+                    reached[neighborY * boxWidth + neighborX] = true;
+                    stack[stackSize++] = neighborY * boxWidth + neighborX;
+                }
+            }
+        }
+        for (int boxIndex = 0; boxIndex < reached.length; boxIndex++) {
+            if (!reached[boxIndex]) {
+                enclosed.add((minimumY + boxIndex / boxWidth) * width + minimumX + boxIndex % boxWidth);
+            }
+        }
+    }
+}
@@ -1,25 +1,62 @@
 package carcassonne.model.grid;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import carcassonne.model.Meeple;
 import carcassonne.model.Player;
+import carcassonne.model.ai.PlacementCache;
+import carcassonne.model.ai.PlacementEvaluation;
+import carcassonne.model.ai.PlacementEvaluator;
 import carcassonne.model.ai.TemporaryTile;
 import carcassonne.model.ai.ZeroSumMove;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.terrain.TileTerrain;
 import carcassonne.model.tile.Tile;
 import carcassonne.model.tile.TileRotation;
 import carcassonne.model.tile.TileType;
 import carcassonne.settings.GameSettings;
 
 /**
- * The playing grid class.
+ * The playing grid class. Spots are identified by their index <code>y * width + x</code>. The state of the grid is
+ * stored sparsely in primitive arrays that are indexed by the slots of a {@link ChunkDirectory}, which allocates chunks
+ * of spots on demand around the placed tiles. This way, the memory of a grid grows with the placed tiles and not with
+ * its size. The {@link GridSpot} instances are only lightweight views on these arrays. All modifications of tiles,
+ * meeples and the scores of patterns on the grid are recorded in a {@link GridJournal}, which allows to roll them back to
+ * a {@link #mark()}. The grid maintains an incremental Zobrist hash of its tiles and meeples, see {@link ZobristKeys}.
  * @author Timur Saglam
  */
 public class Grid {
     private static final TileType FOUNDATION_TYPE = TileType.CastleWallRoad;
+    static final int NO_INDEX = -1;
+    private static final int INITIAL_FRONTIER_CAPACITY = 64;
+    private static final byte EMPTY = -1; // marks free spots and missing meeples in the primitive arrays
+    private static final int MONASTERY_RADIUS = 2; // a monastery counts its surrounding tiles, which is seen by spots around them
+    private static final TileType[] TILE_TYPES = TileType.values(); // enum constants by ordinal, values() would copy them every time
+    private static final TileRotation[] TILE_ROTATIONS = TileRotation.values();
+    private static final GridDirection[] POSITIONS = GridDirection.values();
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
     private final int width;
     private final int height;
-    private final GridSpot[][] spots;
-    private final List<GridSpot> activeSpots;
+    private final ChunkDirectory chunks;
+    private Tile[] tiles; // tile per slot
+    private byte[] tileTypes; // tile type ordinal per slot
+    private byte[] tileRotations; // tile rotation ordinal per slot
+    private byte[] meepleOwners; // player number of the meeple owner per slot
+    private byte[] meeplePositions; // grid direction ordinal of the meeple position per slot
+    private Meeple[] meeples; // meeple per slot, allows the journal to restore removed meeples
+    private GridSpot[] spots; // lazily created views per slot
+    private int[] edgeConstraints; // edge signature that the placed neighbors impose per slot
+    private int[] frontier; // free spot indices with at least one placed direct neighbor
+    private int[] frontierSlots; // position of each slot in the frontier array
+    private int frontierSize;
+    private final PatternIndex patternIndex;
+    private final EnclaveIndex enclaveIndex;
+    private final GridJournal journal;
+    private int occupiedSpots;
+    private long hash; // Zobrist hash of the placed tiles and meeples
     private GridSpot foundation;
     private final boolean allowEnclaves;
 
@@ -33,13 +70,20 @@ public class Grid {
         this.width = width;
         this.height = height;
         this.allowEnclaves = allowEnclaves;
-        spots = new GridSpot[width][height];
-        activeSpots = new ArrayList<>();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                spots[x][y] = new GridSpot(this, x, y);
-            }
-        }
+        chunks = new ChunkDirectory(width);
+        tiles = new Tile[0];
+        tileTypes = new byte[0];
+        tileRotations = new byte[0];
+        meepleOwners = new byte[0];
+        meeplePositions = new byte[0];
+        meeples = new Meeple[0];
+        spots = new GridSpot[0];
+        edgeConstraints = new int[0];
+        frontierSlots = new int[0];
+        frontier = new int[INITIAL_FRONTIER_CAPACITY];
+        patternIndex = new PatternIndex(this);
+        enclaveIndex = new EnclaveIndex(width, height, chunks);
+        journal = new GridJournal();
         placeFoundation(FOUNDATION_TYPE);
     }
 
@@ -49,14 +93,10 @@ public class Grid {
      */
     public List<GridPattern> getAllPatterns() {
         List<GridPattern> patterns = new LinkedList<>();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (spots[x][y].isOccupied()) {
-                    patterns.addAll(spots[x][y].createPatternList());
-                }
-            }
+        Set<Integer> visited = new HashSet<>();
+        for (GridSpot spot : getOccupiedSpots()) {
+            spot.addPatternsTo(patterns, visited);
         }
-        patterns.forEach(GridPattern::removeTileTags);  // IMPORTANT
         return patterns;
     }
 
@@ -68,6 +108,15 @@ public class Grid {
         return foundation;
     }
 
+    /**
+     * Returns the Zobrist hash of the grid, which covers the type, rotation and position of all placed tiles and the owner
+     * and position of all placed meeples. Equal grids have equal hashes, independent of the order of their modifications.
+     * @return the hash.
+     */
+    public long getHash() {
+        return hash;
+    }
+
     /**
      * Getter for the grid height.
      * @return the height
@@ -84,13 +133,13 @@ public class Grid {
      */
     public Collection<GridPattern> getLocalPatterns(GridSpot spot) {
         Collection<GridPattern> gridPatterns = new ArrayList<>();
+        Set<Integer> visited = new HashSet<>();
         if (spot.isOccupied()) {
-            gridPatterns.addAll(spot.createPatternList());
+            spot.addPatternsTo(gridPatterns, visited);
         }
         for (GridSpot neighbor : getNeighbors(spot, false, GridDirection.directNeighbors())) {
-            gridPatterns.addAll(neighbor.createPatternList());
+            neighbor.addPatternsTo(gridPatterns, visited);
         }
-        gridPatterns.forEach(GridPattern::removeTileTags); // VERY IMPORTANT!
         return gridPatterns; // get patterns.
     }
 
@@ -104,9 +153,34 @@ public class Grid {
         if (spot.isFree()) {
             throw new IllegalArgumentException("Can't check for patterns on an free grid space");
         }
-        Collection<GridPattern> modifiedPatterns = spot.createPatternList();
-        modifiedPatterns.forEach(GridPattern::removeTileTags); // VERY IMPORTANT!
-        return modifiedPatterns; // get patterns.
+        return spot.createPatternList(); // get patterns.
+    }
+
+    /**
+     * Returns the indices of the spots on which the evaluation of a placement might have changed since the tile or the
+     * meeple on a spot was modified, for example since a tile was placed on the spot and its completed patterns were
+     * disbursed. These are the spots around the tile, which covers its direct neighbors and the monasteries around it, the
+     * spots along its castle, road and field patterns, and the spots along the fields of its completed castles, as the
+     * value of a field depends on its completed castles. The patterns are taken from the {@link PatternIndex}.
+     * @param spot is the spot of the modified tile.
+     * @return the set of spot indices.
+     */
+    public BitSet getInfluencedSpots(GridSpot spot) {
+        checkParameters(spot);
+        BitSet influencedSpots = new BitSet();
+        addSurroundings(spot.getIndex(), MONASTERY_RADIUS, influencedSpots);
+        BitSet visitedPatterns = new BitSet();
+        for (GridDirection position : POSITIONS) {
+            int pattern = patternIndex.findPattern(spot.getIndex(), position);
+            if (pattern != PatternIndex.NO_SEGMENT && !visitedPatterns.get(pattern)) {
+                visitedPatterns.set(pattern);
+                addPatternSurroundings(pattern, influencedSpots);
+                if (patternIndex.getTerrain(pattern) == TerrainType.CASTLE && patternIndex.isClosed(pattern)) {
+                    addFieldSurroundings(pattern, visitedPatterns, influencedSpots);
+                }
+            }
+        }
+        return influencedSpots;
     }
 
     /**
@@ -137,23 +211,44 @@ public class Grid {
         for (GridDirection direction : directions) {
             int newX = direction.getX() + spot.getX();
             int newY = direction.getY() + spot.getY();
-            if (isOnGrid(newX, newY) && (allowEmptySpots || spots[newX][newY].isOccupied())) {
-                neighbors.add(spots[newX][newY]); // return calculated neighbor if valid:
+            if (isOnGrid(newX, newY) && (allowEmptySpots || getTile(indexOf(newX, newY)) != null)) {
+                neighbors.add(spotAt(indexOf(newX, newY))); // return calculated neighbor if valid:
             }
         }
         return neighbors;
     }
 
+    /**
+     * Returns the frontier of the grid, which are all free spots that have at least one placed direct neighbor. The
+     * frontier is maintained incrementally whenever tiles are placed or removed.
+     * @return the list of frontier spots.
+     */
     public List<GridSpot> getNeighboursOfActiveSpots() {
-        Set<GridSpot> neighbours = new HashSet<>();
-        for (GridSpot spot : activeSpots) {
-            for (GridSpot neigh : getNeighbors(spot, true, GridDirection.directNeighbors())) {
-                if (neigh != null && neigh.isFree()) {
-                    neighbours.add(neigh);
-                }
+        List<GridSpot> neighbours = new ArrayList<>(frontierSize);
+        for (int slot = 0; slot < frontierSize; slot++) {
+            neighbours.add(spotAt(frontier[slot]));
+        }
+        return neighbours;
+    }
+
+    /**
+     * Returns the spots of all placed tiles, in row-major order.
+     * @return the list of occupied spots.
+     */
+    public List<GridSpot> getOccupiedSpots() {
+        int[] occupiedIndices = new int[occupiedSpots];
+        int count = 0;
+        for (int slot = 0; slot < tiles.length; slot++) {
+            if (tiles[slot] != null) {
+                occupiedIndices[count++] = indexOf(chunks.getX(slot), chunks.getY(slot));
             }
         }
-        return neighbours.stream().toList();
+        Arrays.sort(occupiedIndices);
+        List<GridSpot> occupied = new ArrayList<>(occupiedIndices.length);
+        for (int index : occupiedIndices) {
+            occupied.add(spotAt(index));
+        }
+        return occupied;
     }
 
     /**
@@ -164,13 +259,28 @@ public class Grid {
      * @return the collection of all moves.
      */
     public List<ZeroSumMove> getPossibleMoves(Tile tile, Player player, GameSettings settings) {
+        return getPossibleMoves(tile, player, settings, null);
+    }
+
+    /**
+     * Returns a collection all possible and legal moves, reuses the stored evaluations of placements.
+     * @param tile is the tile that is placed during the move.
+     * @param player is the player that conducts the move.
+     * @param settings are the game settings.
+     * @param evaluations stores the evaluations of placements, or is null if they are not stored.
+     * @return the collection of all moves.
+     */
+    public List<ZeroSumMove> getPossibleMoves(Tile tile, Player player, GameSettings settings, PlacementCache evaluations) {
         checkParameters(tile);
         List<ZeroSumMove> possibleMoves = new ArrayList<>();
+        int[] candidates = sortedFrontier();
+        PlacementEvaluator evaluator = new PlacementEvaluator(this);
+        long tileSignature = PlacementEvaluation.signatureOf(tile, player, settings, allowEnclaves);
         for (TileRotation rotation : tile.getPossibleRotations()) {
-            tile.rotateTo(rotation);
-            for (int x = 0; x < width; x++) { // TODO (HIGH) [PERFORMANCE] maybe we should track free and occupied spots?
-                for (int y = 0; y < height; y++) {
-                    possibleMoves.addAll(movesForGridSpot(player, spots[x][y], tile, settings));
+            int signature = TileTerrain.of(tile.getType(), rotation).getEdgeSignature();
+            for (int index : candidates) {
+                if (fitsEdges(index, signature)) {
+                    possibleMoves.addAll(movesForGridSpot(player, spotAt(index), tile, rotation, settings, evaluator, evaluations, tileSignature));
                 }
             }
         }
@@ -179,6 +289,60 @@ public class Grid {
         return possibleMoves;
     }
 
+    /**
+     * Returns a collection of all possible and legal moves for multiple tiles, which are generated in parallel. The work
+     * is split by tile, rotation, and chunks of frontier spots. The grid must not be modified until this method returns.
+     * If the settings demand a deterministic move generation, the moves are ordered exactly like the concatenated moves of
+     * {@link #getPossibleMoves(Tile, Player, GameSettings)} for every tile. Otherwise, the moves of all tiles are sorted
+     * together and equally valued moves are in the order in which they were generated.
+     * @param tiles are the tiles that can be placed during the move.
+     * @param player is the player that conducts the move.
+     * @param settings are the game settings.
+     * @param pool is the fork/join pool that generates the moves.
+     * @return the collection of all moves.
+     */
+    public List<ZeroSumMove> getPossibleMoves(Collection<Tile> tiles, Player player, GameSettings settings, ForkJoinPool pool) {
+        return getPossibleMoves(tiles, player, settings, pool, null);
+    }
+
+    /**
+     * Returns a collection of all possible and legal moves for multiple tiles, which are generated in parallel. Reuses the
+     * stored evaluations of placements, see {@link #getPossibleMoves(Collection, Player, GameSettings, ForkJoinPool)}.
+     * @param tiles are the tiles that can be placed during the move.
+     * @param player is the player that conducts the move.
+     * @param settings are the game settings.
+     * @param pool is the fork/join pool that generates the moves.
+     * @param evaluations stores the evaluations of placements, or is null if they are not stored.
+     * @return the collection of all moves.
+     */
+    public List<ZeroSumMove> getPossibleMoves(Collection<Tile> tiles, Player player, GameSettings settings, ForkJoinPool pool,
+            PlacementCache evaluations) {
+        tiles.forEach(this::checkParameters);
+        int[] indices = sortedFrontier();
+        GridSpot[] candidates = new GridSpot[indices.length];
+        for (int candidate = 0; candidate < indices.length; candidate++) {
+            candidates[candidate] = spotAt(indices[candidate]); // shared by the workers of all tiles
+        }
+        Queue<ZeroSumMove> sink = settings.isDeterministicMoveGeneration() ? null : new ConcurrentLinkedQueue<>();
+        List<MoveGenerationTask> tasks = tiles.stream().map(it -> new MoveGenerationTask(this, it, candidates, player, settings, sink, evaluations))
+                .toList();
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        List<ZeroSumMove> possibleMoves = new ArrayList<>();
+        if (sink == null) {
+            for (MoveGenerationTask task : tasks) {
+                List<ZeroSumMove> moves = new ArrayList<>(task.join());
+                Collections.sort(moves);
+                Collections.reverse(moves);
+                possibleMoves.addAll(moves);
+            }
+        } else {
+            possibleMoves.addAll(sink);
+            Collections.sort(possibleMoves);
+            Collections.reverse(possibleMoves);
+        }
+        return possibleMoves;
+    }
+
     /**
      * Safe getter for tiles.
      * @param x is the x coordinate
@@ -188,7 +352,19 @@ public class Grid {
      */
     public GridSpot getSpot(int x, int y) {
         checkParameters(x, y);
-        return spots[x][y];
+        return spotAt(indexOf(x, y));
+    }
+
+    /**
+     * Returns the type of the tile placed on specific coordinates without accessing the tile itself.
+     * @param x is the x coordinate
+     * @param y is the y coordinate
+     * @return the tile type or null if the spot is free.
+     */
+    public TileType getTileType(int x, int y) {
+        checkParameters(x, y);
+        int slot = chunks.findSlot(x, y);
+        return slot == ChunkDirectory.NO_SLOT || tileTypes[slot] == EMPTY ? null : TILE_TYPES[tileTypes[slot]];
     }
 
     /**
@@ -200,15 +376,29 @@ public class Grid {
     }
 
     /**
-     * Checks whether a spot on the grid would close free spots off in a direction if a tile would be placed there.
+     * Checks whether a spot on the grid would close free spots off in a direction if a tile would be placed there. This
+     * takes constant time, unless the placement would enclose free spots.
      * @param spot is the spot.
      * @param direction is the direction.
      * @return true if it does.
      */
     public boolean isClosingFreeSpotsOff(GridSpot spot, GridDirection direction) {
-        boolean[][] visitedPositions = new boolean[width][height];
-        visitedPositions[spot.getX()][spot.getY()] = true; // mark starting point as visited
-        return !findBoundary(spot, direction, visitedPositions); // start recursion
+        int index = indexOf(spot.getX(), spot.getY());
+        int neighborX = spot.getX() + direction.getX();
+        int neighborY = spot.getY() + direction.getY();
+        if (!isOnGrid(neighborX, neighborY)) {
+            return false; // grid border is never closed off
+        }
+        int neighbor = indexOf(neighborX, neighborY);
+        if (neighbor != index && getTile(neighbor) == null && getTile(index) == null) {
+            if (enclaveIndex.isEnclosed(neighbor)) {
+                return true; // already closed off
+            }
+            if (!enclaveIndex.isEnclosing(index)) {
+                return false; // free neighbor stays connected to the border
+            }
+        }
+        return !enclaveIndex.isConnectedToBorder(neighbor, index); // search is only required to find the enclosed side
     }
 
     /**
@@ -223,14 +413,7 @@ public class Grid {
      * @return true if full.
      */
     public boolean isFull() {
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                if (spots[x][y].isFree()) {
-                    return false; // grid is not full if one position is free
-                }
-            }
-        }
-        return true;
+        return occupiedSpots == (long) width * height;
     }
 
     /**
@@ -243,22 +426,256 @@ public class Grid {
     public boolean place(int x, int y, Tile tile) {
         checkParameters(x, y);
         checkParameters(tile);
-        boolean isPlaced = spots[x][y].place(tile, allowEnclaves);
-        if (isPlaced) {
-            activeSpots.add(spots[x][y]);
+        return spotAt(indexOf(x, y)).place(tile, allowEnclaves);
+    }
+
+    /**
+     * Marks the current state of the grid. All later modifications of tiles, meeples and the scores of patterns on the
+     * grid can be rolled back to this mark. Marking takes constant time.
+     * @return the mark.
+     */
+    public int mark() {
+        return journal.size();
+    }
+
+    /**
+     * Rolls back all modifications of tiles, meeples and the scores of patterns on the grid since a mark, in reverse order.
+     * The derived state of the grid is restored with them. Marks that were created after the given mark become invalid.
+     * @param mark is the mark, see {@link #mark()}.
+     * @throws IllegalArgumentException if the mark is invalid.
+     */
+    public void rollback(int mark) {
+        if (mark < 0 || mark > journal.size()) {
+            throw new IllegalArgumentException("Invalid grid journal mark: " + mark);
+        }
+        journal.setSuspended(true);
+        try {
+            for (int entry = journal.size() - 1; entry >= mark; entry--) {
+                undo(entry);
+            }
+        } finally {
+            journal.setSuspended(false);
+        }
+        journal.truncate(mark);
+    }
+
+    /**
+     * Returns the indices of the spots whose tiles or meeples were modified since a mark. The modifications are only known
+     * if the grid was not rolled back behind the mark and modified differently in the meantime, which is detected by the
+     * hash of the grid at the mark.
+     * @param mark is the mark, see {@link #mark()}.
+     * @param markedHash is the hash of the grid when the mark was created, see {@link #getHash()}.
+     * @return the set of spot indices, or an empty optional if the modifications are unknown.
+     */
+    public Optional<Set<Integer>> getModifiedSpots(int mark, long markedHash) {
+        if (mark < 0 || mark > journal.size() || (mark == journal.size() ? hash : journal.getHash(mark)) != markedHash) {
+            return Optional.empty();
+        }
+        Set<Integer> modifiedSpots = new HashSet<>();
+        for (int entry = mark; entry < journal.size(); entry++) {
+            if (journal.getOperation(entry) != GridJournal.POINTS_ADDED) {
+                modifiedSpots.add(journal.getArgument(entry));
+            }
+        }
+        return Optional.of(modifiedSpots);
+    }
+
+    /**
+     * Returns the tile stored for a specific spot index.
+     * @param index is the spot index.
+     * @return the tile or null if the spot is free.
+     */
+    Tile getTile(int index) {
+        int slot = slotOf(index);
+        return slot == ChunkDirectory.NO_SLOT ? null : tiles[slot];
+    }
+
+    /**
+     * Adds points to the score of a player and records them in the journal of the grid.
+     * @param player is the player that gets the points.
+     * @param amount is the amount of points.
+     * @param scoreType is the pattern type responsible for the points.
+     */
+    void addPoints(Player player, int amount, TerrainType scoreType) {
+        journal.record(GridJournal.POINTS_ADDED, scoreType.ordinal(), amount, player, hash);
+        player.addPoints(amount, scoreType);
+    }
+
+    /**
+     * Returns the storage slot of a spot, see {@link ChunkDirectory}.
+     * @param index is the spot index.
+     * @return the slot or {@link ChunkDirectory#NO_SLOT} if the storage of the spot is not allocated.
+     */
+    int slotOf(int index) {
+        return chunks.findSlot(index % width, index / width);
+    }
+
+    /**
+     * Stores a tile in the primitive arrays of the grid.
+     * @param index is the spot index.
+     * @param tile is the tile to store.
+     */
+    void storeTile(int index, Tile tile) {
+        int slot = allocateSlot(index);
+        if (tiles[slot] == null) {
+            occupiedSpots++;
+            removeFromFrontier(index);
+            enclaveIndex.addSpot(index);
+            journal.record(GridJournal.TILE_STORED, index, 0, tile, hash);
+        } else {
+            hash ^= tileKey(index, slot);
+        }
+        tiles[slot] = tile;
+        tileTypes[slot] = (byte) tile.getType().ordinal();
+        tileRotations[slot] = (byte) tile.getRotation().ordinal();
+        hash ^= tileKey(index, slot);
+        patternIndex.addTile(index, tile);
+        synchronizeMeeple(index, false); // a meeple that is already on the tile was not placed now
+        for (GridDirection direction : GridDirection.directNeighbors()) {
+            int neighbor = getNeighborIndex(index, direction);
+            if (neighbor != NO_INDEX) {
+                int neighborSlot = allocateSlot(neighbor);
+                GridDirection side = direction.opposite(); // side of the neighbor that faces the tile
+                edgeConstraints[neighborSlot] &= ~TileTerrain.edgeBitsFor(side);
+                edgeConstraints[neighborSlot] |= TileTerrain.edgeBitsFor(side, tile.getTerrain(direction));
+                if (tiles[neighborSlot] == null) {
+                    addToFrontier(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a tile from the primitive arrays of the grid.
+     * @param index is the spot index.
+     */
+    void clearTile(int index) {
+        int slot = slotOf(index);
+        if (slot == ChunkDirectory.NO_SLOT || tiles[slot] == null) {
+            return;
+        }
+        occupiedSpots--;
+        journal.record(GridJournal.TILE_CLEARED, index, 0, tiles[slot], hash);
+        hash ^= tileKey(index, slot);
+        if (meepleOwners[slot] != EMPTY) {
+            hash ^= meepleKey(index, slot);
+            patternIndex.removeMeeple(index, POSITIONS[meeplePositions[slot]], meepleOwners[slot]);
+        }
+        tiles[slot] = null;
+        tileTypes[slot] = EMPTY;
+        tileRotations[slot] = EMPTY;
+        meepleOwners[slot] = EMPTY;
+        meeplePositions[slot] = EMPTY;
+        meeples[slot] = null; // the tile keeps its meeple
+        patternIndex.removeTile(index);
+        enclaveIndex.removeSpot(index);
+        for (GridDirection direction : GridDirection.directNeighbors()) {
+            int neighbor = getNeighborIndex(index, direction);
+            if (neighbor != NO_INDEX) {
+                int neighborSlot = slotOf(neighbor); // allocated when the tile was stored
+                edgeConstraints[neighborSlot] &= ~TileTerrain.edgeBitsFor(direction.opposite());
+                if (edgeConstraints[neighborSlot] == 0) {
+                    removeFromFrontier(neighbor);
+                }
+            }
+        }
+        if (edgeConstraints[slot] != 0) {
+            addToFrontier(index);
+        }
+    }
+
+    /**
+     * Checks whether a spot is part of the frontier, which means it is free and has at least one placed direct neighbor.
+     * @param index is the spot index.
+     * @return true if it is part of the frontier.
+     */
+    boolean isOnFrontier(int index) {
+        int slot = slotOf(index);
+        return slot != ChunkDirectory.NO_SLOT && frontierSlots[slot] != NO_INDEX;
+    }
+
+    /**
+     * Checks whether a tile with a specific edge signature matches the terrain of all placed direct neighbors of a spot.
+     * @param index is the spot index.
+     * @param signature is the edge signature of the tile, see {@link TileTerrain#getEdgeSignature()}.
+     * @return true if all placed neighbors match.
+     */
+    boolean fitsEdges(int index, int signature) {
+        int slot = slotOf(index);
+        int constraint = slot == ChunkDirectory.NO_SLOT ? 0 : edgeConstraints[slot];
+        int mask = 0;
+        for (GridDirection side : GridDirection.directNeighbors()) {
+            if ((constraint & TileTerrain.edgeBitsFor(side)) != 0) {
+                mask |= TileTerrain.edgeBitsFor(side);
+            }
         }
-        return isPlaced;
+        return (signature & mask) == constraint;
     }
 
-    public boolean remove(int x, int y) {
-        return activeSpots.remove(spots[x][y]);
+    /**
+     * Synchronizes the meeple placement of a tile with the primitive arrays of the grid.
+     * @param index is the spot index of the tile.
+     */
+    void storeMeeple(int index) {
+        synchronizeMeeple(index, true);
+    }
+
+    private void synchronizeMeeple(int index, boolean isJournaled) {
+        int slot = slotOf(index);
+        if (slot == ChunkDirectory.NO_SLOT) {
+            return; // free spot without storage
+        }
+        Meeple meeple = tiles[slot] == null ? null : tiles[slot].getMeeple();
+        byte owner = meeple == null ? EMPTY : (byte) meeple.getOwner().getNumber();
+        byte position = meeple == null ? EMPTY : (byte) meeple.getPosition().ordinal();
+        if (isJournaled && meeple != meeples[slot]) {
+            if (meeples[slot] != null) {
+                journal.record(GridJournal.MEEPLE_REMOVED, index, 0, meeples[slot], hash);
+            }
+            if (meeple != null) {
+                journal.record(GridJournal.MEEPLE_PLACED, index, 0, meeple, hash);
+            }
+        }
+        meeples[slot] = meeple;
+        if (owner != meepleOwners[slot] || position != meeplePositions[slot]) {
+            if (meepleOwners[slot] != EMPTY) {
+                hash ^= meepleKey(index, slot);
+                patternIndex.removeMeeple(index, POSITIONS[meeplePositions[slot]], meepleOwners[slot]);
+            }
+            meepleOwners[slot] = owner;
+            meeplePositions[slot] = position;
+            if (owner != EMPTY) {
+                hash ^= meepleKey(index, slot);
+                patternIndex.addMeeple(index, meeple.getPosition(), owner);
+            }
+        }
+    }
+
+    /**
+     * Returns the spot index of a neighbor of a spot.
+     * @param index is the spot index.
+     * @param direction is the direction of the neighbor.
+     * @return the spot index of the neighbor or {@link #NO_INDEX} if the neighbor is not on the grid.
+     */
+    int getNeighborIndex(int index, GridDirection direction) {
+        int x = index % width + direction.getX();
+        int y = index / width + direction.getY();
+        return isOnGrid(x, y) ? indexOf(x, y) : NO_INDEX;
+    }
+
+    /**
+     * Getter for the pattern index of the grid, which provides read access to the castle, road, and field patterns.
+     * @return the pattern index.
+     */
+    public PatternIndex getPatternIndex() {
+        return patternIndex;
     }
 
     private void checkParameters(GridSpot spot) {
         if (spot == null) {
             throw new IllegalArgumentException("Spot can't be null!");
         }
-        if (!spots[spot.getX()][spot.getY()].equals(spot)) {
+        if (spot.getGrid() != this || !isOnGrid(spot.getX(), spot.getY())) {
             throw new IllegalArgumentException("Spot is not on the grid!");
         }
     }
@@ -288,28 +705,124 @@ public class Grid {
         }
     }
 
-    // method tries to find a path of free grid spaces to the grid border.
-    private boolean findBoundary(GridSpot spot, GridDirection direction, boolean[][] visitedPositions) {
-        int newX = direction.getX() + spot.getX(); // get coordinates
-        int newY = direction.getY() + spot.getY(); // of free space
-        if (!isOnGrid(newX, newY)) { // if not on grid
-            return true; // found boundary
-        }
-        if (spots[newX][newY].isFree() && !visitedPositions[newX][newY]) { // if not visited
-            visitedPositions[newX][newY] = true; // mark as visited
-            for (GridDirection newDirection : GridDirection.directNeighbors()) { // recursion
-                if (findBoundary(spots[newX][newY], newDirection, visitedPositions)) {
-                    return true; // found boundary
-                }
+    private void addToFrontier(int index) {
+        int slot = slotOf(index);
+        if (frontierSlots[slot] == NO_INDEX) {
+            if (frontierSize == frontier.length) {
+                frontier = Arrays.copyOf(frontier, frontierSize * 2);
             }
+            frontierSlots[slot] = frontierSize;
+            frontier[frontierSize++] = index;
+        }
+    }
+
+    private void removeFromFrontier(int index) {
+        int slot = slotOf(index);
+        int position = frontierSlots[slot];
+        if (position != NO_INDEX) { // move last element into the gap:
+            int last = frontier[--frontierSize];
+            frontier[position] = last;
+            frontierSlots[slotOf(last)] = position;
+            frontierSlots[slot] = NO_INDEX;
+        }
+    }
+
+    /**
+     * Returns the storage slot of a spot and allocates the chunk of the spot if required. Grows the primitive arrays of
+     * the grid and its indices with the chunk directory.
+     */
+    private int allocateSlot(int index) {
+        int slot = chunks.allocateSlot(index % width, index / width);
+        if (slot >= tiles.length) {
+            int capacity = Math.max(chunks.getCapacity(), tiles.length * 2);
+            int oldCapacity = tiles.length;
+            tiles = Arrays.copyOf(tiles, capacity);
+            tileTypes = grow(tileTypes, capacity);
+            tileRotations = grow(tileRotations, capacity);
+            meepleOwners = grow(meepleOwners, capacity);
+            meeplePositions = grow(meeplePositions, capacity);
+            meeples = Arrays.copyOf(meeples, capacity);
+            spots = Arrays.copyOf(spots, capacity);
+            edgeConstraints = Arrays.copyOf(edgeConstraints, capacity);
+            frontierSlots = Arrays.copyOf(frontierSlots, capacity);
+            Arrays.fill(frontierSlots, oldCapacity, capacity, NO_INDEX);
+            patternIndex.ensureCapacity(capacity);
+            enclaveIndex.ensureCapacity(capacity);
         }
-        return false; // has not found boundary
+        return slot;
+    }
+
+    private long meepleKey(int index, int slot) {
+        return ZobristKeys.meepleKey(index, meepleOwners[slot], POSITIONS[meeplePositions[slot]]);
+    }
+
+    private long tileKey(int index, int slot) {
+        return ZobristKeys.tileKey(index, TILE_TYPES[tileTypes[slot]], TILE_ROTATIONS[tileRotations[slot]]);
+    }
+
+    private static byte[] grow(byte[] values, int capacity) {
+        byte[] grown = Arrays.copyOf(values, capacity);
+        Arrays.fill(grown, values.length, capacity, EMPTY);
+        return grown;
+    }
+
+    /**
+     * Returns the frontier in column-major order, which is the order in which moves were always generated.
+     */
+    private int[] sortedFrontier() {
+        int[] keys = new int[frontierSize];
+        for (int slot = 0; slot < frontierSize; slot++) {
+            int index = frontier[slot];
+            keys[slot] = index % width * height + index / width;
+        }
+        Arrays.sort(keys);
+        for (int slot = 0; slot < keys.length; slot++) {
+            keys[slot] = indexOf(keys[slot] / height, keys[slot] % height);
+        }
+        return keys;
     }
 
     private List<GridSpot> getNeighbors(GridSpot spot, boolean allowEmptySpots, GridDirection direction) {
         return getNeighbors(spot, allowEmptySpots, List.of(direction));
     }
 
+    // adds the spots around every tile of a castle, road or field pattern.
+    private void addPatternSurroundings(int pattern, BitSet spots) {
+        for (int index : patternIndex.getSpotIndices(pattern)) {
+            addSurroundings(index, 1, spots);
+        }
+    }
+
+    // adds the surroundings of the fields on the tiles of a castle pattern, as their value depends on the castle.
+    private void addFieldSurroundings(int castle, BitSet visitedPatterns, BitSet spots) {
+        for (int index : patternIndex.getSpotIndices(castle)) {
+            for (GridDirection position : POSITIONS) {
+                int pattern = patternIndex.findPattern(index, position);
+                if (pattern != PatternIndex.NO_SEGMENT && !visitedPatterns.get(pattern) && patternIndex.getTerrain(pattern) == TerrainType.FIELDS) {
+                    visitedPatterns.set(pattern);
+                    addPatternSurroundings(pattern, spots);
+                }
+            }
+        }
+    }
+
+    // adds the spots within a Chebyshev distance to a spot, including the spot itself.
+    private void addSurroundings(int index, int radius, BitSet spots) {
+        int centerX = index % width;
+        int centerY = index / width;
+        for (int y = centerY - radius; y <= centerY + radius; y++) {
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                if (isOnGrid(x, y)) {
+                    spots.set(indexOf(x, y));
+                }
+            }
+        }
+    }
+
+    private int indexOf(int x, int y) {
+        return y * width + x;
+    }
+
     /**
      * Checks whether specific coordinates are on the grid.
      * @param x is the x coordinate
@@ -320,21 +833,73 @@ public class Grid {
         return x >= 0 && x < width && y >= 0 && y < height;
     }
 
-    private List<ZeroSumMove> movesForGridSpot(Player player, GridSpot spot, Tile originalTile, GameSettings settings) {
+    /**
+     * Returns the view for a spot index. Only {@link #allocateSpot(GridSpot)} stores views, reads get a new view if there is
+     * no stored one. Reads therefore never modify the grid, which means concurrent reads are safe.
+     * @param index is the spot index.
+     * @return the grid spot.
+     */
+    GridSpot spotAt(int index) {
+        int slot = slotOf(index);
+        if (slot != ChunkDirectory.NO_SLOT && spots[slot] != null) {
+            return spots[slot];
+        }
+        return new GridSpot(this, index % width, index / width, index);
+    }
+
+    /**
+     * Allocates the storage of a spot before it is written and returns the reused view of the spot. The given view becomes
+     * the reused view if there is none yet.
+     * @param spot is a view of the spot, possibly one without storage.
+     * @return the reused view of the spot, which tiles must use as their position.
+     */
+    GridSpot allocateSpot(GridSpot spot) {
+        int slot = allocateSlot(spot.getIndex());
+        if (spots[slot] == null) {
+            spots[slot] = spot;
+        }
+        return spots[slot];
+    }
+
+    /**
+     * Generates the moves for a tile in a specific rotation on a specific spot, without modifying the grid or the tile. A
+     * stored evaluation of the placement on an equal grid is reused, otherwise the evaluation is stored. The placement is
+     * checked with the edge signature of the rotation, the temporary tile of the moves is only created if there are moves.
+     */
+    List<ZeroSumMove> movesForGridSpot(Player player, GridSpot spot, Tile originalTile, TileRotation rotation, GameSettings settings,
+            PlacementEvaluator evaluator, PlacementCache evaluations, long tileSignature) {
+        if (evaluations == null) {
+            if (!spot.isPlaceable(TileTerrain.of(originalTile.getType(), rotation).getEdgeSignature(), allowEnclaves)) {
+                return List.of();
+            }
+            return movesForGridSpot(player, spot, new TemporaryTile(originalTile, rotation), settings, evaluator);
+        }
+        long signature = PlacementEvaluation.signatureOf(tileSignature, spot, rotation);
+        PlacementEvaluation evaluation = evaluations.get(this, signature);
+        if (evaluation != null) {
+            return evaluation.isEmpty() ? List.of() : evaluation.createMoves(new TemporaryTile(originalTile, rotation), spot, player, settings);
+        }
+        if (!spot.isPlaceable(TileTerrain.of(originalTile.getType(), rotation).getEdgeSignature(), allowEnclaves)) {
+            evaluations.put(this, signature, PlacementEvaluation.NONE);
+            return List.of();
+        }
+        List<ZeroSumMove> possibleMoves = movesForGridSpot(player, spot, new TemporaryTile(originalTile, rotation), settings, evaluator);
+        evaluations.put(this, signature, new PlacementEvaluation(possibleMoves));
+        return possibleMoves;
+    }
+
+    // generates the moves of a placement that was checked to be possible.
+    private List<ZeroSumMove> movesForGridSpot(Player player, GridSpot spot, TemporaryTile tile, GameSettings settings, PlacementEvaluator evaluator) {
         List<ZeroSumMove> possibleMoves = new ArrayList<>();
-        if (spot.isPlaceable(originalTile, allowEnclaves)) {
-            TemporaryTile tile = new TemporaryTile(originalTile, originalTile.getRotation());
-            spot.place(tile, allowEnclaves);
-            possibleMoves.add(new ZeroSumMove(tile, player, settings));
-            if (player.hasFreeMeeples()) {
-                for (GridDirection position : GridDirection.values()) {
-                    if (tile.hasMeepleSpot(position) && settings.getMeepleRule(tile.getTerrain(position))
-                            && tile.allowsPlacingMeeple(position, player, settings)) {
-                        possibleMoves.add(new ZeroSumMove(tile, position, player, settings));
-                    }
+        evaluator.prepare(spot, tile); // moves are evaluated without placing the tile
+        possibleMoves.add(new ZeroSumMove(tile, spot, null, player, settings, evaluator));
+        if (player.hasFreeMeeples()) {
+            for (GridDirection position : POSITIONS) {
+                if (tile.hasMeepleSpot(position) && settings.getMeepleRule(tile.getTerrain(position))
+                        && evaluator.allowsPlacingMeeple(position, player, settings)) {
+                    possibleMoves.add(new ZeroSumMove(tile, spot, position, player, settings, evaluator));
                 }
             }
-            spot.removeTile();
         }
         return possibleMoves;
     }
@@ -346,8 +911,34 @@ public class Grid {
     private void placeFoundation(TileType tileType) {
         int centerX = (width - 1) / 2;
         int centerY = (height - 1) / 2;
-        foundation = spots[centerX][centerY];
-        activeSpots.add(foundation);
+        foundation = spotAt(indexOf(centerX, centerY));
         foundation.forcePlacement(new Tile(tileType));
+        journal.truncate(0); // the foundation can not be rolled back
+    }
+
+    // reverts a journal entry, recording is suspended meanwhile.
+    private void undo(int entry) {
+        int argument = journal.getArgument(entry);
+        Object reference = journal.getReference(entry);
+        switch (journal.getOperation(entry)) {
+            case GridJournal.TILE_STORED:
+                spotAt(argument).removeTile();
+                break;
+            case GridJournal.TILE_CLEARED:
+                ((Tile) reference).setPosition(allocateSpot(spotAt(argument)));
+                storeTile(argument, (Tile) reference);
+                break;
+            case GridJournal.MEEPLE_PLACED:
+                getTile(argument).removeMeeple();
+                break;
+            case GridJournal.MEEPLE_REMOVED:
+                getTile(argument).restoreMeeple((Meeple) reference);
+                break;
+            case GridJournal.POINTS_ADDED:
+                ((Player) reference).addPoints(-journal.getValue(entry), TERRAIN_TYPES[argument]);
+                break;
+            default:
+                throw new IllegalStateException("Unknown grid journal operation: " + journal.getOperation(entry));
+        }
     }
 }
\ No newline at end of file
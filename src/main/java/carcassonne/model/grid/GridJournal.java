@@ -0,0 +1,107 @@
+package carcassonne.model.grid;
+
+import java.util.Arrays;
+
+/**
+ * Journal of the modifications of a grid, which allows to roll them back in reverse order. Every entry consists of an
+ * operation, an argument, a value and a reference, which are stored in parallel arrays. Tile and meeple entries use the
+ * spot index as argument and reference the tile or meeple, score entries use the terrain type ordinal as argument, the
+ * points as value and reference the player. Every entry also stores the hash of the grid before its modification. The
+ * derived state of the grid, like the {@link PatternIndex}, is not journaled, as it is restored together with the tiles
+ * and meeples.
+ * @author Timur Saglam
+ */
+final class GridJournal {
+    static final int TILE_STORED = 0;
+    static final int TILE_CLEARED = 1;
+    static final int MEEPLE_PLACED = 2;
+    static final int MEEPLE_REMOVED = 3;
+    static final int POINTS_ADDED = 4;
+    private static final int INITIAL_CAPACITY = 64;
+    private byte[] operations;
+    private int[] arguments;
+    private int[] values;
+    private Object[] references;
+    private long[] hashes; // hash of the grid before the modification of the entry
+    private int size;
+    private boolean suspended;
+
+    /**
+     * Creates an empty journal.
+     */
+    GridJournal() {
+        operations = new byte[INITIAL_CAPACITY];
+        arguments = new int[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        references = new Object[INITIAL_CAPACITY];
+        hashes = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds an entry to the journal, unless recording is suspended.
+     * @param operation is the operation of the entry.
+     * @param argument is the spot index or terrain type ordinal.
+     * @param value is the number of points, or zero for other operations.
+     * @param reference is the tile, meeple or player.
+     * @param hash is the hash of the grid before the modification.
+     */
+    void record(int operation, int argument, int value, Object reference, long hash) {
+        if (suspended) {
+            return;
+        }
+        if (size == operations.length) {
+            operations = Arrays.copyOf(operations, size * 2);
+            arguments = Arrays.copyOf(arguments, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            references = Arrays.copyOf(references, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        operations[size] = (byte) operation;
+        arguments[size] = argument;
+        values[size] = value;
+        references[size] = reference;
+        hashes[size] = hash;
+        size++;
+    }
+
+    /**
+     * Suspends or resumes recording, modifications are not recorded while they are rolled back.
+     * @param suspended determines if the recording is suspended.
+     */
+    void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+    }
+
+    /**
+     * Discards all entries after a specific size.
+     * @param newSize is the number of entries to keep.
+     */
+    void truncate(int newSize) {
+        Arrays.fill(references, newSize, size, null); // allows garbage collection
+        size = newSize;
+    }
+
+    int getArgument(int entry) {
+        return arguments[entry];
+    }
+
+    int getOperation(int entry) {
+        return operations[entry];
+    }
+
+    long getHash(int entry) {
+        return hashes[entry];
+    }
+
+    Object getReference(int entry) {
+        return references[entry];
+    }
+
+    int getValue(int entry) {
+        return values[entry];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -13,10 +13,10 @@ import carcassonne.model.terrain.TerrainType;
 /**
  * A pattern of connected terrain on tiles of the grid. A grid pattern contains information about the tiles of the
  * pattern and the players involved in the pattern. Also it counts the amount of meeples per player on the tiles of the
- * pattern.
+ * pattern. Castle, road and field patterns are snapshots of the {@link PatternIndex} of the grid.
  * @author Timur Saglam
  */
-public class GridPattern {
+public abstract class GridPattern {
 
     private boolean disbursed;
     protected boolean complete;
@@ -24,7 +24,9 @@ public class GridPattern {
     private final List<Meeple> meepleList;
     protected final TerrainType patternType;
     protected int scoreMultiplier;
-    protected List<GridSpot> containedSpots;
+    protected int size;
+    private final Grid grid;
+    private final int root;
 
     /**
      * Basic constructor taking only a tile type.
@@ -34,9 +36,34 @@ public class GridPattern {
     protected GridPattern(TerrainType patternType, int scoreMultiplier) {
         this.patternType = patternType;
         this.scoreMultiplier = scoreMultiplier;
-        containedSpots = new LinkedList<>();
         meepleList = new LinkedList<>();
         involvedPlayers = new HashMap<>();
+        grid = null;
+        root = PatternIndex.NO_SEGMENT;
+    }
+
+    /**
+     * Constructor for patterns that are tracked by the pattern index of the grid. Reads the size, completeness and meeples
+     * of the pattern that contains a specific position of a spot.
+     * @param patternType is the type of the pattern.
+     * @param scoreMultiplier is the score multiplier of the pattern.
+     * @param startingSpot is a spot of the pattern.
+     * @param startingDirection is a position of the pattern on the tile of the spot.
+     */
+    protected GridPattern(TerrainType patternType, int scoreMultiplier, GridSpot startingSpot, GridDirection startingDirection) {
+        checkArgs(startingSpot, startingDirection);
+        this.patternType = patternType;
+        this.scoreMultiplier = scoreMultiplier;
+        meepleList = new LinkedList<>();
+        involvedPlayers = new HashMap<>();
+        grid = startingSpot.getGrid();
+        root = grid.getPatternIndex().findPattern(startingSpot.getIndex(), startingDirection);
+        if (root == PatternIndex.NO_SEGMENT || grid.getPatternIndex().getTerrain(root) != patternType) {
+            throw new IllegalArgumentException("No " + patternType + " pattern on " + startingDirection + " of " + startingSpot);
+        }
+        size = grid.getPatternIndex().getTileCount(root);
+        complete = grid.getPatternIndex().isClosed(root);
+        grid.getPatternIndex().getMeeples(root).forEach(this::addMeeple);
     }
 
     /**
@@ -87,7 +114,7 @@ public class GridPattern {
      * @return the full score.
      */
     public int getPatternScore() {
-        return containedSpots.size() * scoreMultiplier;
+        return size * scoreMultiplier;
     }
 
     /**
@@ -111,7 +138,7 @@ public class GridPattern {
      * @return the size.
      */
     public int getSize() {
-        return containedSpots.size();
+        return size;
     }
 
     /**
@@ -140,26 +167,12 @@ public class GridPattern {
         return involvedPlayers.containsKey(player);
     }
 
-    /**
-     * Removes all OWN tags of all tiles of the pattern.
-     */
-    public void removeOwnTags() {
-        containedSpots.forEach(it -> it.removeTagsFrom(this));
-    }
-
-    /**
-     * Removes all tags of all tiles of the pattern. Needs to be called after ALL patterns of a tile have been created.
-     */
-    public void removeTileTags() {
-        containedSpots.forEach(GridSpot::removeTags);
-    }
-
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder("GridPattern[type: ");
         builder.append(patternType).append(", size: ").append(getSize()).append(", complete: ").append(complete);
         builder.append(", disbursed: ").append(disbursed).append(", meeples: ").append(meepleList).append(", on: ");
-        builder.append(containedSpots.stream().map(it -> "(" + it.getX() + "|" + it.getY() + ")").toList());
+        builder.append(getContainedSpots().stream().map(it -> "(" + it.getX() + "|" + it.getY() + ")").toList());
         return builder.toString();
     }
 
@@ -168,53 +181,64 @@ public class GridPattern {
             List<Player> dominantPlayers = getDominantPlayers();
             int stake = splitScore ? divideScore(getPatternScore(), dominantPlayers) : getPatternScore();
             for (Player player : dominantPlayers) { // dominant players split the pot
-                player.addPoints(stake, patternType);
+                getGrid().addPoints(player, stake, patternType);
             }
             disbursed = true;
         }
     }
 
-    // adds meeple from tile to involvedPlayers map if the meeple is involved in the pattern.
-    private void addMeepleFrom(GridSpot spot) {
+    private int divideScore(int score, List<Player> dominantPlayers) {
+        return (int) Math.ceil(score / (double) dominantPlayers.size());
+    }
+
+    /**
+     * Adds a meeple to the pattern, which involves its owner in the pattern.
+     * @param meeple is the meeple placed on the pattern.
+     */
+    protected void addMeeple(Meeple meeple) {
         assert !disbursed;
-        Meeple meeple = spot.getTile().getMeeple(); // Meeple on the tile.
-        if (!meepleList.contains(meeple) && isPartOfPattern(spot, meeple.getPosition())) {
-            Player player = meeple.getOwner(); // owner of the meeple.
-            if (involvedPlayers.containsKey(player)) {
-                involvedPlayers.put(player, involvedPlayers.get(player) + 1);
-            } else {
-                involvedPlayers.put(player, 1);
-            }
+        if (!meepleList.contains(meeple)) {
+            involvedPlayers.merge(meeple.getOwner(), 1, Integer::sum);
             meepleList.add(meeple);
         }
     }
 
-    private int divideScore(int score, List<Player> dominantPlayers) {
-        return (int) Math.ceil(score / (double) dominantPlayers.size());
+    /**
+     * Returns the spots of the pattern. For patterns of the pattern index, this reflects the current state of the grid.
+     * @return the list of spots, which contains a spot multiple times if the pattern crosses its tile multiple times.
+     */
+    protected List<GridSpot> getContainedSpots() {
+        return grid.getPatternIndex().getSpotIndices(root).stream().map(grid::spotAt).toList();
     }
 
-    private boolean isPartOfPattern(GridSpot spot, GridDirection position) {
-        boolean onCorrectTerrain = spot.getTile().getTerrain(position) == patternType;
-        boolean onPattern = spot.isIndirectlyTaggedBy(position, this) || patternType == TerrainType.MONASTERY;
-        return onCorrectTerrain && onPattern;
+    /**
+     * Returns the grid of the pattern, which records the scores of the pattern.
+     * @return the grid.
+     */
+    protected Grid getGrid() {
+        return grid;
     }
 
     /**
-     * Adds a spot to the pattern, saving the tile on the spot, the owner of a potential Meeple on the tile.
-     * @param spot is the spot to add.
+     * Returns the pattern index the pattern was read from.
+     * @return the index, or null if the pattern is not tracked by the index.
      */
-    protected void add(GridSpot spot) {
-        containedSpots.add(spot);
-        if (spot.getTile().hasMeeple()) {
-            addMeepleFrom(spot);
-        }
+    PatternIndex getIndex() {
+        return grid == null ? null : grid.getPatternIndex();
+    }
+
+    /**
+     * Returns the root segment of the pattern in the pattern index.
+     * @return the root segment.
+     */
+    int getRoot() {
+        return root;
     }
 
     /**
      * Checks the usual inputs on being null.
      * @param spot is any grid spot.
      * @param direction is any grid direction.
-     * @param grid is any grid.
      */
     protected void checkArgs(GridSpot spot, GridDirection direction) {
         if (spot == null || direction == null) {
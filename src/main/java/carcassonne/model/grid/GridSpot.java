@@ -3,42 +3,38 @@ package carcassonne.model.grid;
 import static carcassonne.model.grid.GridDirection.CENTER;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.terrain.TileTerrain;
 import carcassonne.model.tile.Tile;
 
 /**
- * The class represents a spot on the grid.
+ * The class represents a spot on the grid. It is a lightweight view on the primitive storage of the {@link Grid}.
  * @author Timur Saglam
  */
 public class GridSpot {
 
     private final Grid grid;
-    private final Map<GridDirection, Set<GridPattern>> tagMap; // maps tagged location to the patterns.
-    private Tile tile;
     private final int x;
     private final int y;
+    private final int index;
 
     /**
-     * Creates a grid spot for a specific grid on a specific position.
+     * Creates a grid spot view for a specific grid on a specific position.
      * @param grid is the grid.
      * @param x is the x coordinate of the position.
      * @param y is the y coordinate of the position.
+     * @param index is the spot index of the position, which is <code>y * width + x</code>.
      */
-    public GridSpot(Grid grid, int x, int y) {
+    GridSpot(Grid grid, int x, int y, int index) {
         this.grid = grid;
         this.x = x;
         this.y = y;
-        tagMap = new HashMap<>();
-        for (GridDirection direction : GridDirection.values()) {
-            tagMap.put(direction, new HashSet<>());
-        }
+        this.index = index;
     }
 
     /**
@@ -46,27 +42,8 @@ public class GridSpot {
      * @return the list of patterns.
      */
     public Collection<GridPattern> createPatternList() {
-        if (isFree()) {
-            throw new IllegalStateException("GridSpot is free, cannot create patterns");
-        }
         List<GridPattern> results = new LinkedList<>();
-        // first, check for castle and road patterns:
-        for (GridDirection direction : GridDirection.tilePositions()) {
-            TerrainType terrain = tile.getTerrain(direction); // get terrain type.
-            if ((terrain == TerrainType.CASTLE || terrain == TerrainType.ROAD) && !isIndirectlyTagged(direction)) {
-                results.add(new CastleAndRoadPattern(this, direction, terrain));
-            }
-        }
-        // then, check fields:
-        for (GridDirection direction : GridDirection.values()) {
-            TerrainType terrain = tile.getTerrain(direction); // get terrain type.
-            if (terrain == TerrainType.FIELDS && !isIndirectlyTagged(direction)) {
-                results.add(new FieldsPattern(this, direction));
-            }
-        }
-        // then check for monastery patterns:
-        addPatternIfMonastery(this, results); // the tile itself
-        grid.getNeighbors(this, false, GridDirection.neighbors()).forEach(it -> addPatternIfMonastery(it, results));
+        addPatternsTo(results, new HashSet<>());
         return results; // return all patterns.
     }
 
@@ -75,8 +52,8 @@ public class GridSpot {
      * @param tile is the tile to place.
      */
     public void forcePlacement(Tile tile) {
-        this.tile = tile;
-        tile.setPosition(this);
+        tile.setPosition(grid.allocateSpot(this));
+        grid.storeTile(index, tile);
     }
 
     /**
@@ -84,7 +61,7 @@ public class GridSpot {
      * @return the tile, or null if the grid spot has no tile.
      */
     public Tile getTile() {
-        return tile;
+        return grid.getTile(index);
     }
 
     /**
@@ -112,34 +89,11 @@ public class GridSpot {
     }
 
     /**
-     * Determines if this grid spot was recently tagged by any grid pattern on a specified position or a position connected
-     * to the specified position.
-     * @param tilePosition is the specific position.
-     * @return true if not directly or indirectly tagged.
+     * Getter for the index of the spot on the grid, as used by the {@link PatternIndex}.
+     * @return the spot index.
      */
-    public Boolean isIndirectlyTagged(GridDirection tilePosition) {
-        for (GridDirection otherPosition : GridDirection.values()) {
-            if (isTagged(otherPosition) && tile.hasConnection(tilePosition, otherPosition)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Determines if this grid spot was recently tagged by a specific grid pattern on a specified position or a position
-     * connected to the specified position.
-     * @param tilePosition is the specific position.
-     * @param tagger is the specific grid pattern.
-     * @return true if not directly or indirectly tagged by the grid pattern.
-     */
-    public Boolean isIndirectlyTaggedBy(GridDirection tilePosition, GridPattern tagger) {
-        for (GridDirection otherPosition : GridDirection.values()) {
-            if (tile.hasConnection(tilePosition, otherPosition) && tagMap.get(otherPosition).contains(tagger)) {
-                return true;
-            }
-        }
-        return false;
+    public int getIndex() {
+        return index;
     }
 
     /**
@@ -147,7 +101,7 @@ public class GridSpot {
      * @return true if free
      */
     public boolean isFree() {
-        return tile == null;
+        return grid.getTile(index) == null;
     }
 
     /**
@@ -155,7 +109,7 @@ public class GridSpot {
      * @return true if occupied
      */
     public boolean isOccupied() {
-        return tile != null;
+        return grid.getTile(index) != null;
     }
 
     /**
@@ -166,39 +120,30 @@ public class GridSpot {
      * @return true if the tile can be placed.
      */
     public boolean isPlaceable(Tile tile, boolean allowEnclaves) {
-        if (isOccupied()) {
-            return false; // can't be placed if spot is occupied.
+        return isPlaceable(tile.getEdgeSignature(), allowEnclaves);
+    }
+
+    /**
+     * Checks whether a tile with a specific edge signature can be placed on this spot, which does not require the tile.
+     * @param edgeSignature is the edge signature of the tile, see {@link TileTerrain#getEdgeSignature()}.
+     * @param allowEnclaves determines if it is legal to enclose free spots.
+     * @return true if the tile can be placed.
+     */
+    boolean isPlaceable(int edgeSignature, boolean allowEnclaves) {
+        if (!grid.isOnFrontier(index)) {
+            return false; // can't be placed if spot is occupied or has no neighbors.
         }
-        int neighborCount = 0;
-        for (GridDirection direction : GridDirection.directNeighbors()) { // for every direction
-            GridSpot neighbor = grid.getNeighbor(this, direction);
-            if (neighbor == null) { // free space
-                if (!allowEnclaves && grid.isClosingFreeSpotsOff(this, direction)) {
+        if (!grid.fitsEdges(index, edgeSignature)) {
+            return false; // if it does not fit to terrain, it can't be placed.
+        }
+        if (!allowEnclaves) {
+            for (GridDirection direction : GridDirection.directNeighbors()) { // for every direction
+                if (grid.getNeighbor(this, direction) == null && grid.isClosingFreeSpotsOff(this, direction)) {
                     return false; // you can't close off free spaces
                 }
-            } else { // if there is a neighbor in the direction.
-                neighborCount++;
-                if (!tile.canConnectTo(direction, neighbor.getTile())) {
-                    return false; // if it does not fit to terrain, it can't be placed.
-                }
             }
         }
-        return neighborCount > 0; // can be placed beneath another tile.
-    }
-
-    /**
-     * Removes all the tags from the tile.
-     */
-    public void removeTags() {
-        tagMap.values().forEach(Set::clear);
-    }
-
-    /**
-     * Removes all the tags of a specific pattern from the tile.
-     * @param pattern is the specific grid pattern.
-     */
-    public void removeTagsFrom(GridPattern pattern) {
-        tagMap.values().forEach(it -> it.remove(pattern));
+        return true; // can be placed beneath another tile.
     }
 
     /**
@@ -209,8 +154,8 @@ public class GridSpot {
      */
     public boolean place(Tile tile, boolean allowEnclaves) {
         if (isPlaceable(tile, allowEnclaves)) {
-            tile.setPosition(this);
-            this.tile = tile;
+            tile.setPosition(grid.allocateSpot(this));
+            grid.storeTile(index, tile);
             return true; // tile was successfully placed.
         }
         return false; // tile can't be placed, spot is occupied.
@@ -220,19 +165,19 @@ public class GridSpot {
      * Removes any placed tile from the grid spot, updates the position of the tile.
      */
     public void removeTile() { // TODO (HIGH) [AI] this should be only allowed for temporary tiles.
+        Tile tile = getTile();
         if (tile != null) {
             tile.setPosition(null);
-            tile = null;
+            grid.clearTile(index);
         }
     }
 
     /**
-     * tag the tile as recently checked by grid pattern checks for a specific direction.
-     * @param direction is the tag direction.
-     * @param tagger is the {@link GridPattern} that tagged the spot.
+     * Synchronizes the meeple placement of the tile on this spot with the storage of the grid. Needs to be called whenever
+     * a meeple is placed on or removed from the tile.
      */
-    public void setTag(GridDirection direction, GridPattern tagger) {
-        tagMap.get(direction).add(tagger);
+    public void updateMeeple() {
+        grid.storeMeeple(index);
     }
 
     @Override
@@ -240,18 +185,38 @@ public class GridSpot {
         return getClass().getSimpleName() + "[on: (" + x + "|" + y + "), Occupied:" + isOccupied() + "]";
     }
 
-    private void addPatternIfMonastery(GridSpot spot, List<GridPattern> patternList) {
-        if (spot.getTile().getTerrain(CENTER) == TerrainType.MONASTERY && !spot.isIndirectlyTagged(CENTER)) {
-            patternList.add(new MonasteryPattern(spot));
+    /**
+     * Adds all patterns that are affected by this spot to a collection, skipping patterns that were already visited.
+     * @param results is the collection of patterns.
+     * @param visited are the keys of the already visited patterns, which are updated by this method.
+     */
+    void addPatternsTo(Collection<GridPattern> results, Set<Integer> visited) {
+        Tile tile = getTile();
+        if (tile == null) {
+            throw new IllegalStateException("GridSpot is free, cannot create patterns");
         }
+        // first, check for castle and road patterns:
+        for (GridDirection direction : GridDirection.tilePositions()) {
+            TerrainType terrain = tile.getTerrain(direction); // get terrain type.
+            if ((terrain == TerrainType.CASTLE || terrain == TerrainType.ROAD) && visited.add(grid.getPatternIndex().findPattern(index, direction))) {
+                results.add(new CastleAndRoadPattern(this, direction, terrain));
+            }
+        }
+        // then, check fields:
+        for (GridDirection direction : GridDirection.values()) {
+            TerrainType terrain = tile.getTerrain(direction); // get terrain type.
+            if (terrain == TerrainType.FIELDS && visited.add(grid.getPatternIndex().findPattern(index, direction))) {
+                results.add(new FieldsPattern(this, direction));
+            }
+        }
+        // then check for monastery patterns:
+        addPatternIfMonastery(this, results, visited); // the tile itself
+        grid.getNeighbors(this, false, GridDirection.neighbors()).forEach(it -> addPatternIfMonastery(it, results, visited));
     }
 
-    /**
-     * Method determines if tile recently was tagged by grid pattern checks on a specific position or not.
-     * @param tilePosition is the specific position.
-     * @return true if it was tagged.
-     */
-    private Boolean isTagged(GridDirection direction) {
-        return !tagMap.get(direction).isEmpty();
+    private void addPatternIfMonastery(GridSpot spot, Collection<GridPattern> patternList, Set<Integer> visited) {
+        if (spot.getTile().getTerrain(CENTER) == TerrainType.MONASTERY && visited.add(-1 - spot.index)) { // negative keys for monasteries
+            patternList.add(new MonasteryPattern(spot));
+        }
     }
 }
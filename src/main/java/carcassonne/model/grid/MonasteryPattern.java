@@ -6,32 +6,50 @@ package carcassonne.model.grid;
 import static carcassonne.model.grid.GridDirection.CENTER;
 import static carcassonne.model.terrain.TerrainType.MONASTERY;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import carcassonne.model.Meeple;
+
 /**
  * This class represents a specific kind of grid pattern, the grid patterns for the terrain type MONASTERY.
  * @author Timur Saglam
  */
 public class MonasteryPattern extends GridPattern {
+    private final List<GridSpot> containedSpots;
 
     /**
      * Simple constructor that creates the pattern.
      * @param spot is the starting spot of the pattern, containing a monastery tile.
-     * @param grid is the grid the pattern is created from.
      */
     public MonasteryPattern(GridSpot spot) {
         super(MONASTERY, 1);
         if (spot.getTile().getTerrain(CENTER) != MONASTERY) {
             throw new IllegalArgumentException("Can't create monastery pattern from non monastery tile");
         }
+        containedSpots = new ArrayList<>();
         buildPattern(spot);
     }
 
+    @Override
+    protected List<GridSpot> getContainedSpots() {
+        return containedSpots;
+    }
+
+    @Override
+    protected Grid getGrid() {
+        return containedSpots.get(0).getGrid(); // monastery spot
+    }
+
     private void buildPattern(GridSpot monasterySpot) {
         List<GridSpot> neighbors = monasterySpot.getGrid().getNeighbors(monasterySpot, false, GridDirection.neighbors());
-        add(monasterySpot); // add monastery
-        monasterySpot.setTag(CENTER, this);
-        neighbors.forEach(it -> containedSpots.add(it));
+        containedSpots.add(monasterySpot); // add monastery
+        Meeple meeple = monasterySpot.getTile().getMeeple();
+        if (meeple != null && monasterySpot.getTile().getTerrain(meeple.getPosition()) == MONASTERY) {
+            addMeeple(meeple);
+        }
+        containedSpots.addAll(neighbors);
+        size = containedSpots.size();
         if (neighbors.size() == GridDirection.neighbors().size()) {
             complete = true;
         }
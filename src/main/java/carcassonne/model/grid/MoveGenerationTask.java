@@ -0,0 +1,122 @@
+package carcassonne.model.grid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RecursiveTask;
+
+import carcassonne.model.Player;
+import carcassonne.model.ai.PlacementCache;
+import carcassonne.model.ai.PlacementEvaluation;
+import carcassonne.model.ai.PlacementEvaluator;
+import carcassonne.model.ai.ZeroSumMove;
+import carcassonne.model.terrain.TileTerrain;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Fork/join task that generates the possible moves of a single tile. The work is split into units of one rotation and
+ * one chunk of frontier spots, which are ordered like the sequential move generation: rotation first, then frontier
+ * spot. The workers only read the grid, every unit uses its own temporary tiles and its own {@link PlacementEvaluator}.
+ * @author Timur Saglam
+ */
+final class MoveGenerationTask extends RecursiveTask<List<ZeroSumMove>> {
+    private static final long serialVersionUID = -4726409581317160954L;
+    private static final int CHUNK_SIZE = 8; // frontier spots per unit
+    private final Grid grid;
+    private final Tile tile;
+    private final List<TileRotation> rotations;
+    private final GridSpot[] candidates;
+    private final Player player;
+    private final GameSettings settings;
+    private final Queue<ZeroSumMove> sink;
+    private final PlacementCache evaluations;
+    private final int chunks;
+    private final int from;
+    private final int to;
+
+    /**
+     * Creates the task for all moves of a tile.
+     * @param grid is the grid on which the tile is placed, it must not be modified while the task runs.
+     * @param tile is the tile, which is not rotated by the task.
+     * @param candidates are the frontier spots in the order in which they are evaluated.
+     * @param player is the player that conducts the moves.
+     * @param settings are the game settings.
+     * @param sink collects the moves in the order of their generation, or is null if every task should return its moves
+     * in deterministic order instead.
+     * @param evaluations stores the evaluations of placements, or is null if they are not stored.
+     */
+    MoveGenerationTask(Grid grid, Tile tile, GridSpot[] candidates, Player player, GameSettings settings, Queue<ZeroSumMove> sink,
+            PlacementCache evaluations) {
+        this(grid, tile, List.copyOf(tile.getPossibleRotations()), candidates, player, settings, sink, evaluations, 0,
+                tile.getPossibleRotations().size() * chunksFor(candidates));
+    }
+
+    private MoveGenerationTask(Grid grid, Tile tile, List<TileRotation> rotations, GridSpot[] candidates, Player player, GameSettings settings,
+            Queue<ZeroSumMove> sink, PlacementCache evaluations, int from, int to) {
+        this.grid = grid;
+        this.tile = tile;
+        this.rotations = rotations;
+        this.candidates = candidates;
+        this.player = player;
+        this.settings = settings;
+        this.sink = sink;
+        this.evaluations = evaluations;
+        this.from = from;
+        this.to = to;
+        chunks = chunksFor(candidates);
+    }
+
+    /**
+     * Returns the generated moves, which are empty if the moves are collected by the sink instead.
+     */
+    @Override
+    protected List<ZeroSumMove> compute() {
+        if (to - from <= 1) {
+            return from < to ? computeUnit(from) : Collections.emptyList();
+        }
+        int middle = (from + to) >>> 1;
+        MoveGenerationTask left = subtask(from, middle);
+        left.fork();
+        List<ZeroSumMove> rightMoves = subtask(middle, to).compute();
+        List<ZeroSumMove> leftMoves = left.join();
+        if (sink != null) {
+            return Collections.emptyList();
+        }
+        List<ZeroSumMove> moves = new ArrayList<>(leftMoves.size() + rightMoves.size());
+        moves.addAll(leftMoves); // left units precede the right units
+        moves.addAll(rightMoves);
+        return moves;
+    }
+
+    private List<ZeroSumMove> computeUnit(int unit) {
+        TileRotation rotation = rotations.get(unit / chunks);
+        int signature = TileTerrain.of(tile.getType(), rotation).getEdgeSignature();
+        int start = unit % chunks * CHUNK_SIZE;
+        int end = Math.min(start + CHUNK_SIZE, candidates.length);
+        PlacementEvaluator evaluator = new PlacementEvaluator(grid);
+        long tileSignature = PlacementEvaluation.signatureOf(tile, player, settings, grid.isAllowingEnclaves());
+        List<ZeroSumMove> moves = new ArrayList<>();
+        for (int candidate = start; candidate < end; candidate++) {
+            GridSpot spot = candidates[candidate];
+            if (grid.fitsEdges(spot.getIndex(), signature)) {
+                moves.addAll(grid.movesForGridSpot(player, spot, tile, rotation, settings, evaluator, evaluations, tileSignature));
+            }
+        }
+        if (sink != null) {
+            sink.addAll(moves);
+            return Collections.emptyList();
+        }
+        return moves;
+    }
+
+    private MoveGenerationTask subtask(int start, int end) {
+        return new MoveGenerationTask(grid, tile, rotations, candidates, player, settings, sink, evaluations, start, end);
+    }
+
+    private static int chunksFor(GridSpot[] candidates) {
+        return (candidates.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+}
@@ -0,0 +1,569 @@
+package carcassonne.model.grid;
+
+import static carcassonne.model.grid.GridDirection.CENTER;
+import static carcassonne.model.grid.GridDirection.NORTH_WEST;
+import static carcassonne.model.grid.GridDirection.WEST;
+import static carcassonne.model.terrain.RotationDirection.LEFT;
+import static carcassonne.model.terrain.RotationDirection.RIGHT;
+import static carcassonne.model.terrain.TerrainType.CASTLE;
+import static carcassonne.model.terrain.TerrainType.FIELDS;
+import static carcassonne.model.terrain.TerrainType.ROAD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Persistent index of the castle, road and field patterns of a grid. Every placed tile is split into segments of
+ * connected terrain, which are merged with the segments of the neighboring tiles in a union-find structure when the
+ * tile is placed. Every segment keeps counters for its open edges, tiles, emblems and meeples per player, which are
+ * summed up in the root segment of its pattern. The union-find uses union by size without path compression, which
+ * keeps queries logarithmic and allows to undo the placement of the most recently placed tile. Patterns are identified
+ * by their root segment, which stays valid until the next tile placement or removal. The index can only be modified
+ * through its grid.
+ * @author Timur Saglam
+ */
+public final class PatternIndex {
+    public static final int NO_SEGMENT = -1;
+    private static final GridDirection[] DIRECTIONS = GridDirection.values();
+    private static final int POSITIONS = DIRECTIONS.length;
+    private static final int PLAYERS = GameSettings.MAXIMAL_PLAYERS;
+    private static final int INITIAL_CAPACITY = 64;
+    private final Grid grid;
+    private int[] segmentAt; // segment per storage slot of the grid and tile position
+    // segment data:
+    private int segmentCount;
+    private int[] parent;
+    private int[] setSize;
+    private int[] next; // circular list of the segments of a pattern
+    private int[] spotIndex;
+    private int[] positions; // bitmask of the tile positions of a segment
+    private TerrainType[] terrain;
+    private int[] openEdges;
+    private int[] tiles;
+    private int[] emblems;
+    private int[] meeples; // meeples per segment and player
+    private int[] meepleTotal;
+    // placement history:
+    private int[] placedSpots;
+    private int[] placedSegments; // segment count before each placement
+    private int[] placedJournal; // journal size before each placement
+    private int placementCount;
+    private int[] journal; // pairs of merged child and root segments, child is NO_SEGMENT for closed loops
+    private int journalSize;
+    private final List<Integer> meepleSegments;
+
+    /**
+     * Creates an empty pattern index for a grid.
+     * @param grid is the grid whose patterns are indexed.
+     */
+    PatternIndex(Grid grid) {
+        this.grid = grid;
+        segmentAt = new int[0];
+        meepleSegments = new ArrayList<>();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Adds a placed tile to the index and merges its segments with the segments of the neighboring tiles.
+     * @param index is the spot index of the tile.
+     * @param tile is the placed tile.
+     */
+    void addTile(int index, Tile tile) {
+        if (placementCount == placedSpots.length) {
+            placedSpots = Arrays.copyOf(placedSpots, placementCount * 2);
+            placedSegments = Arrays.copyOf(placedSegments, placementCount * 2);
+            placedJournal = Arrays.copyOf(placedJournal, placementCount * 2);
+        }
+        placedSpots[placementCount] = index;
+        placedSegments[placementCount] = segmentCount;
+        placedJournal[placementCount] = journalSize;
+        placementCount++;
+        createSegments(index, tile);
+        for (GridDirection direction : GridDirection.directNeighbors()) {
+            int neighbor = grid.getNeighborIndex(index, direction);
+            if (neighbor != Grid.NO_INDEX && grid.getTile(neighbor) != null) {
+                connectCastleAndRoad(index, neighbor, direction);
+                connectFields(index, neighbor, direction, tile);
+            }
+        }
+    }
+
+    /**
+     * Removes a tile from the index. Removing the most recently placed tile undoes its merges, removing any other tile
+     * rebuilds the index.
+     * @param index is the spot index of the tile.
+     */
+    void removeTile(int index) {
+        if (placementCount > 0 && placedSpots[placementCount - 1] == index) {
+            placementCount--;
+            undoMerges(placedJournal[placementCount]);
+            segmentCount = placedSegments[placementCount];
+            Arrays.fill(segmentAt, offsetOf(index), offsetOf(index) + POSITIONS, NO_SEGMENT);
+        } else {
+            rebuildWithout(index);
+        }
+    }
+
+    /**
+     * Grows the index to a number of storage slots of the grid.
+     * @param slots is the new number of slots.
+     */
+    void ensureCapacity(int slots) {
+        int oldLength = segmentAt.length;
+        if (slots * POSITIONS > oldLength) {
+            segmentAt = Arrays.copyOf(segmentAt, slots * POSITIONS);
+            Arrays.fill(segmentAt, oldLength, segmentAt.length, NO_SEGMENT);
+        }
+    }
+
+    /**
+     * Adds the meeple of a player to the segment on a specific tile position.
+     * @param index is the spot index of the tile.
+     * @param position is the position of the meeple on the tile.
+     * @param player is the number of the owning player.
+     */
+    void addMeeple(int index, GridDirection position, int player) {
+        int segment = segmentAt[offsetOf(index) + position.ordinal()];
+        if (segment != NO_SEGMENT) {
+            updateMeeples(segment, player, 1);
+            meepleSegments.add(segment);
+        }
+    }
+
+    /**
+     * Removes the meeple of a player from the segment on a specific tile position.
+     * @param index is the spot index of the tile.
+     * @param position is the position of the meeple on the tile.
+     * @param player is the number of the owning player.
+     */
+    void removeMeeple(int index, GridDirection position, int player) {
+        int segment = segmentAt[offsetOf(index) + position.ordinal()];
+        if (segment != NO_SEGMENT) {
+            updateMeeples(segment, player, -1);
+            meepleSegments.remove(Integer.valueOf(segment));
+        }
+    }
+
+    /**
+     * Finds the root segment of the pattern on a specific tile position.
+     * @param index is the spot index of the tile.
+     * @param position is the position on the tile.
+     * @return the root segment or {@link #NO_SEGMENT} if there is no castle, road or field on that position.
+     */
+    public int findPattern(int index, GridDirection position) {
+        int slot = grid.slotOf(index);
+        if (slot == ChunkDirectory.NO_SLOT) {
+            return NO_SEGMENT; // free spot without storage
+        }
+        int segment = segmentAt[slot * POSITIONS + position.ordinal()];
+        return segment == NO_SEGMENT ? NO_SEGMENT : find(segment);
+    }
+
+    /**
+     * Returns the terrain type of a pattern.
+     * @param root is the root segment of the pattern.
+     * @return the terrain type.
+     */
+    public TerrainType getTerrain(int root) {
+        return terrain[root];
+    }
+
+    /**
+     * Checks whether a castle or road pattern has no open edges left.
+     * @param root is the root segment of the pattern.
+     * @return true if it is closed.
+     */
+    public boolean isClosed(int root) {
+        return terrain[root] != FIELDS && openEdges[root] == 0;
+    }
+
+    /**
+     * Returns the number of open edges of a castle or road pattern, which is the number of tile sides that still need a
+     * neighboring tile to continue the pattern.
+     * @param root is the root segment of the pattern.
+     * @return the number of open edges.
+     */
+    public int getOpenEdges(int root) {
+        return openEdges[root];
+    }
+
+    /**
+     * Returns the number of tile segments of a pattern.
+     * @param root is the root segment of the pattern.
+     * @return the number of tiles.
+     */
+    public int getTileCount(int root) {
+        return tiles[root];
+    }
+
+    /**
+     * Returns the number of emblems in a castle pattern.
+     * @param root is the root segment of the pattern.
+     * @return the number of emblems.
+     */
+    public int getEmblemCount(int root) {
+        return emblems[root];
+    }
+
+    /**
+     * Returns the number of meeples on a pattern.
+     * @param root is the root segment of the pattern.
+     * @return the number of meeples.
+     */
+    public int getMeepleCount(int root) {
+        return meepleTotal[root];
+    }
+
+    /**
+     * Returns the number of meeples of a player on a pattern.
+     * @param root is the root segment of the pattern.
+     * @param player is the number of the player.
+     * @return the number of meeples.
+     */
+    public int getMeepleCount(int root, int player) {
+        return meeples[root * PLAYERS + player];
+    }
+
+    /**
+     * Returns the meeples that are placed on a pattern.
+     * @param root is the root segment of the pattern.
+     * @return the list of meeples.
+     */
+    List<Meeple> getMeeples(int root) {
+        List<Meeple> result = new ArrayList<>(meepleTotal[root]);
+        if (meepleTotal[root] > 0) {
+            for (int segment : meepleSegments) {
+                if (find(segment) == root) {
+                    result.add(grid.getTile(spotIndex[segment]).getMeeple());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the closed castle patterns that are directly adjacent to a field pattern.
+     * @param root is the root segment of the field pattern.
+     * @return the number of adjacent closed castles.
+     */
+    public int countAdjacentClosedCastles(int root) {
+        BitSet castles = new BitSet();
+        forEachAdjacentCastle(root, castle -> {
+            if (isClosed(castle)) {
+                castles.set(castle);
+            }
+        });
+        return castles.cardinality();
+    }
+
+    /**
+     * Passes the root segment of every castle pattern that is directly adjacent to a field pattern to an action. A castle
+     * is passed once per adjacent tile position, which means the action needs to handle duplicates.
+     * @param root is the root segment of the field pattern.
+     * @param action is the action that consumes the castle root segments.
+     */
+    public void forEachAdjacentCastle(int root, IntConsumer action) {
+        int segment = root;
+        do {
+            Tile tile = grid.getTile(spotIndex[segment]);
+            for (GridDirection position : DIRECTIONS) {
+                if ((positions[segment] & 1 << position.ordinal()) != 0) {
+                    int adjacentPositions = getAdjacentPositions(position);
+                    for (GridDirection adjacent : DIRECTIONS) {
+                        if ((adjacentPositions & 1 << adjacent.ordinal()) != 0 && tile.getTerrain(adjacent) == CASTLE) {
+                            action.accept(findPattern(spotIndex[segment], adjacent));
+                        }
+                    }
+                }
+            }
+            segment = next[segment];
+        } while (segment != root);
+    }
+
+    /**
+     * Returns the spot indices of all tile segments of a pattern.
+     * @param root is the root segment of the pattern.
+     * @return the list of spot indices, which contains a spot multiple times if the pattern crosses it multiple times.
+     */
+    List<Integer> getSpotIndices(int root) {
+        List<Integer> result = new ArrayList<>(tiles[root]);
+        int segment = root;
+        do {
+            result.add(spotIndex[segment]);
+            segment = next[segment];
+        } while (segment != root);
+        return result;
+    }
+
+    private void allocate(int capacity) {
+        parent = new int[capacity];
+        setSize = new int[capacity];
+        next = new int[capacity];
+        spotIndex = new int[capacity];
+        positions = new int[capacity];
+        terrain = new TerrainType[capacity];
+        openEdges = new int[capacity];
+        tiles = new int[capacity];
+        emblems = new int[capacity];
+        meeples = new int[capacity * PLAYERS];
+        meepleTotal = new int[capacity];
+        journal = new int[capacity * 2];
+        placedSpots = new int[capacity];
+        placedSegments = new int[capacity];
+        placedJournal = new int[capacity];
+    }
+
+    private void connect(int segment, int otherSegment) {
+        int root = find(segment);
+        int child = find(otherSegment);
+        if (root == child) {
+            if (terrain[root] != FIELDS) {
+                openEdges[root] -= 2; // closes a loop
+                record(NO_SEGMENT, root);
+            }
+            return;
+        }
+        if (setSize[root] < setSize[child]) { // union by size
+            int temporary = root;
+            root = child;
+            child = temporary;
+        }
+        parent[child] = root;
+        merge(root, child, 1);
+        if (terrain[root] != FIELDS) {
+            openEdges[root] -= 2; // the connecting edge is no longer open
+        }
+        record(child, root);
+    }
+
+    private void connectCastleAndRoad(int index, int neighbor, GridDirection direction) {
+        int segment = segmentAt[offsetOf(index) + direction.ordinal()];
+        int otherSegment = segmentAt[offsetOf(neighbor) + direction.opposite().ordinal()];
+        if (segment != NO_SEGMENT && otherSegment != NO_SEGMENT && terrain[segment] != FIELDS && terrain[segment] == terrain[otherSegment]) {
+            connect(segment, otherSegment);
+        }
+    }
+
+    private void connectFields(int index, int neighbor, GridDirection direction, Tile tile) {
+        for (GridDirection position : DIRECTIONS) {
+            if ((getFieldConnections(position, tile) & 1 << direction.ordinal()) != 0) {
+                int segment = segmentAt[offsetOf(index) + position.ordinal()];
+                int otherSegment = segmentAt[offsetOf(neighbor) + getFieldOpposite(position, direction).ordinal()];
+                if (otherSegment != NO_SEGMENT && terrain[otherSegment] == FIELDS) {
+                    connect(segment, otherSegment);
+                }
+            }
+        }
+    }
+
+    private void createSegments(int index, Tile tile) {
+        for (GridDirection position : DIRECTIONS) {
+            TerrainType positionTerrain = tile.getTerrain(position);
+            boolean isPattern = positionTerrain == CASTLE || positionTerrain == ROAD || positionTerrain == FIELDS;
+            if (isPattern && segmentAt[offsetOf(index) + position.ordinal()] == NO_SEGMENT) {
+                int segment = createSegment(index, positionTerrain, positionTerrain == CASTLE && tile.hasEmblem());
+                for (GridDirection other : DIRECTIONS) {
+                    if (tile.hasConnection(position, other)) {
+                        segmentAt[offsetOf(index) + other.ordinal()] = segment;
+                        positions[segment] |= 1 << other.ordinal();
+                        if (positionTerrain != FIELDS && GridDirection.directNeighbors().contains(other)) {
+                            openEdges[segment]++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private int createSegment(int index, TerrainType segmentTerrain, boolean hasEmblem) {
+        if (segmentCount == parent.length) {
+            grow();
+        }
+        int segment = segmentCount++;
+        parent[segment] = segment;
+        setSize[segment] = 1;
+        next[segment] = segment;
+        spotIndex[segment] = index;
+        positions[segment] = 0;
+        terrain[segment] = segmentTerrain;
+        openEdges[segment] = 0;
+        tiles[segment] = 1;
+        emblems[segment] = hasEmblem ? 1 : 0;
+        Arrays.fill(meeples, segment * PLAYERS, (segment + 1) * PLAYERS, 0);
+        meepleTotal[segment] = 0;
+        return segment;
+    }
+
+    // returns the offset of the segments of an occupied spot in the segment array.
+    private int offsetOf(int index) {
+        return grid.slotOf(index) * POSITIONS;
+    }
+
+    private int find(int segment) {
+        int root = segment;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        return root;
+    }
+
+    private void grow() {
+        int capacity = parent.length * 2;
+        parent = Arrays.copyOf(parent, capacity);
+        setSize = Arrays.copyOf(setSize, capacity);
+        next = Arrays.copyOf(next, capacity);
+        spotIndex = Arrays.copyOf(spotIndex, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        terrain = Arrays.copyOf(terrain, capacity);
+        openEdges = Arrays.copyOf(openEdges, capacity);
+        tiles = Arrays.copyOf(tiles, capacity);
+        emblems = Arrays.copyOf(emblems, capacity);
+        meeples = Arrays.copyOf(meeples, capacity * PLAYERS);
+        meepleTotal = Arrays.copyOf(meepleTotal, capacity);
+    }
+
+    // adds (or subtracts) the counters of a child set to its root and splices their segment lists.
+    private void merge(int root, int child, int sign) {
+        setSize[root] += sign * setSize[child];
+        openEdges[root] += sign * openEdges[child];
+        tiles[root] += sign * tiles[child];
+        emblems[root] += sign * emblems[child];
+        meepleTotal[root] += sign * meepleTotal[child];
+        for (int player = 0; player < PLAYERS; player++) {
+            meeples[root * PLAYERS + player] += sign * meeples[child * PLAYERS + player];
+        }
+        int temporary = next[root]; // swapping the successors splices or splits the circular lists
+        next[root] = next[child];
+        next[child] = temporary;
+    }
+
+    private void rebuildWithout(int index) {
+        int[] order = Arrays.copyOf(placedSpots, placementCount);
+        Arrays.fill(segmentAt, NO_SEGMENT);
+        meepleSegments.clear();
+        segmentCount = 0;
+        placementCount = 0;
+        journalSize = 0;
+        for (int spot : order) {
+            if (spot != index) {
+                addTile(spot, grid.getTile(spot));
+            }
+        }
+        for (int spot : order) {
+            Meeple meeple = spot == index ? null : grid.getTile(spot).getMeeple();
+            if (meeple != null) {
+                addMeeple(spot, meeple.getPosition(), meeple.getOwner().getNumber());
+            }
+        }
+    }
+
+    private void record(int child, int root) {
+        if (journalSize + 2 > journal.length) {
+            journal = Arrays.copyOf(journal, journal.length * 2);
+        }
+        journal[journalSize++] = child;
+        journal[journalSize++] = root;
+    }
+
+    private void undoMerges(int journalMark) {
+        while (journalSize > journalMark) {
+            int root = journal[--journalSize];
+            int child = journal[--journalSize];
+            if (terrain[root] != FIELDS) {
+                openEdges[root] += 2;
+            }
+            if (child != NO_SEGMENT) {
+                merge(root, child, -1);
+                parent[child] = child;
+            }
+        }
+    }
+
+    // updates the meeple counters of a segment and of all its ancestors, which keeps undoing merges correct.
+    private void updateMeeples(int segment, int player, int delta) {
+        int current = segment;
+        while (true) {
+            meeples[current * PLAYERS + player] += delta;
+            meepleTotal[current] += delta;
+            if (parent[current] == current) {
+                return;
+            }
+            current = parent[current];
+        }
+    }
+
+    /**
+     * Returns every adjacent position on a tile for a specific initial position.
+     * @param position is the initial position.
+     * @return the bitmask of the adjacent positions, indexed by grid direction ordinal.
+     */
+    public static int getAdjacentPositions(GridDirection position) {
+        int neighbors = 0;
+        if (position.isSmallerOrEquals(WEST)) {
+            neighbors |= 1 << CENTER.ordinal(); // the classic direction are adjacent to the middle
+        }
+        if (position.isSmallerOrEquals(NORTH_WEST)) { // everything except the middle has these two neighbors:
+            neighbors |= 1 << position.nextDirectionTo(LEFT).ordinal(); // counterclockwise adjacent position
+            neighbors |= 1 << position.nextDirectionTo(RIGHT).ordinal(); // clockwise adjacent position
+        } else {
+            for (GridDirection direction : GridDirection.directNeighbors()) {
+                neighbors |= 1 << direction.ordinal(); // the middle has the classic directions as neighbors
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * Gives for a specific tile and a specific position on that tile the directions in which the field connects to. If the
+     * tile has not the terrain field on this position the result is empty.
+     * @param position is the position on the tile.
+     * @param tile is the tile.
+     * @return the bitmask of the directions, indexed by grid direction ordinal.
+     */
+    public static int getFieldConnections(GridDirection position, Tile tile) {
+        int results = 0;
+        if (tile.getTerrain(position) == FIELDS) {
+            if (position.isSmallerOrEquals(WEST)) {
+                results |= 1 << position.ordinal(); // for simple directions just return themselves.
+            } else if (position.isSmallerOrEquals(NORTH_WEST)) {
+                GridDirection left = position.nextDirectionTo(LEFT);
+                GridDirection right = position.nextDirectionTo(RIGHT);
+                if (tile.getTerrain(left) != CASTLE) { // for edges it depends whether the neighboring
+                    results |= 1 << left.ordinal(); // directions have castle terrain or not
+                }
+                if (tile.getTerrain(right) != CASTLE) {
+                    results |= 1 << right.ordinal();
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the position on the grid of a neighboring tile on a direction which is directly in contact with a specific
+     * position of the first tile.
+     * @param position is the position on the first tile.
+     * @param neighborDirection is the direction of the neighboring tile.
+     * @return the position on the neighboring tile.
+     */
+    public static GridDirection getFieldOpposite(GridDirection position, GridDirection neighborDirection) {
+        if (position.isSmallerOrEquals(WEST)) {
+            return position.opposite(); // top, right, bottom, left are simply inverted
+        }
+        if (position.isSmallerOrEquals(NORTH_WEST)) {
+            if (neighborDirection.isLeftOf(position)) { // neighbor to the left of the corner
+                return position.opposite().nextDirectionTo(LEFT).nextDirectionTo(LEFT); // return opposite and two to the right
+            }
+            return position.opposite().nextDirectionTo(RIGHT).nextDirectionTo(RIGHT); // return opposite and two to the left
+        }
+        return position; // middle stays middle
+    }
+}
@@ -0,0 +1,60 @@
+package carcassonne.model.grid;
+
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+
+/**
+ * Utility class for the keys of the Zobrist hash of a grid. The hash of a grid is the exclusive or of the keys of all
+ * placed tiles and meeples, which means it can be updated incrementally by toggling single keys. As the grid can be
+ * large, the keys are not stored in tables but derived from their components with a mixing function.
+ * @author Timur Saglam
+ */
+public final class ZobristKeys {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long TILE_SEED = 0x5851F42D4C957F2DL;
+    private static final long MEEPLE_SEED = 0x14057B7EF767814FL;
+    private static final long TILE_TYPE_SEED = 0x2545F4914F6CDD1DL;
+
+    private ZobristKeys() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Returns the key of a tile that is placed on a spot.
+     * @param index is the spot index.
+     * @param type is the type of the tile.
+     * @param rotation is the rotation of the tile.
+     * @return the key.
+     */
+    public static long tileKey(int index, TileType type, TileRotation rotation) {
+        return mix(TILE_SEED ^ (long) index << 16 ^ type.ordinal() << 8 ^ rotation.ordinal());
+    }
+
+    /**
+     * Returns the key of a meeple that is placed on the tile of a spot.
+     * @param index is the spot index.
+     * @param owner is the number of the player that owns the meeple.
+     * @param position is the position of the meeple on the tile.
+     * @return the key.
+     */
+    public static long meepleKey(int index, int owner, GridDirection position) {
+        return mix(MEEPLE_SEED ^ (long) index << 16 ^ owner << 8 ^ position.ordinal());
+    }
+
+    /**
+     * Returns the key of a tile type, which allows to combine multiple tiles into a signature, independent of their order.
+     * @param type is the tile type.
+     * @return the key.
+     */
+    public static long tileTypeKey(TileType type) {
+        return mix(TILE_TYPE_SEED ^ type.ordinal());
+    }
+
+    // finalizer of the SplitMix64 generator, every input bit affects every output bit.
+    private static long mix(long value) {
+        long mixed = value + GOLDEN_GAMMA;
+        mixed = (mixed ^ mixed >>> 30) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ mixed >>> 27) * 0x94D049BB133111EBL;
+        return mixed ^ mixed >>> 31;
+    }
+}
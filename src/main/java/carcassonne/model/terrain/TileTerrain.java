@@ -12,57 +12,124 @@ import static carcassonne.model.grid.GridDirection.WEST;
 
 import java.awt.Point;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import carcassonne.model.grid.GridDirection;
+import carcassonne.model.tile.TileRotation;
 import carcassonne.model.tile.TileType;
 
 /**
  * Represents the terrain information of a single tile. It consists out of nine different terrain types, one for each
  * grid direction. Every other property, such as the meeple spots and connections between positions, is computed from
- * that information.
+ * that information. Instances are immutable and precomputed once for every tile type and rotation, which means rotating
+ * a tile just swaps the terrain instance.
  * @author Timur Saglam
  */
-public class TileTerrain {
-    private Set<GridDirection> meepleSpots;
-    private final Map<GridDirection, TerrainType> terrain;
+public final class TileTerrain {
+    private static final int EDGE_BITS = 4; // bits per side in the edge signature
+    private static final TileTerrain[][] TERRAIN_TABLE = createTable(); // indexed by tile type and rotation ordinal
+    private final TerrainType[] terrain; // indexed by grid direction ordinal
+    private final int[] connections; // connectivity bitset, one row of grid direction bits per grid direction ordinal
+    private final int meepleSpots; // bitmask of grid direction ordinals
+    private final Set<GridDirection> meepleSpotSet;
+    private final int edgeSignature;
+    private TileTerrain rotatedLeft;
+    private TileTerrain rotatedRight;
 
     /**
-     * Creates a terrain instance with nine terrain types.
-     * @param type is the tile type of the terrain.
+     * Creates a terrain instance with nine terrain types and precomputes all derived information.
+     * @param terrain are the terrain types, indexed by grid direction ordinal.
      */
-    public TileTerrain(TileType type) {
-        terrain = new HashMap<>();
-        for (int i = 0; i < GridDirection.values().length; i++) {
-            terrain.put(GridDirection.values()[i], type.getTerrain()[i]);
+    private TileTerrain(TerrainType[] terrain) {
+        this.terrain = terrain;
+        connections = new int[terrain.length];
+        for (GridDirection from : GridDirection.values()) {
+            for (GridDirection towards : GridDirection.values()) {
+                if (computeConnection(from, towards)) {
+                    connections[from.ordinal()] |= 1 << towards.ordinal();
+                }
+            }
+        }
+        Set<GridDirection> spots = createMeepleSpots();
+        meepleSpotSet = Collections.unmodifiableSet(spots);
+        meepleSpots = spots.stream().mapToInt(it -> 1 << it.ordinal()).sum();
+        int signature = 0;
+        for (GridDirection side : GridDirection.directNeighbors()) {
+            signature |= edgeBitsFor(side, at(side));
         }
-        createMeepleSpots();
+        edgeSignature = signature;
+    }
+
+    /**
+     * Returns the precomputed terrain of a tile type in a specific rotation.
+     * @param type is the tile type of the terrain.
+     * @param rotation is the rotation of the tile.
+     * @return the terrain instance.
+     */
+    public static TileTerrain of(TileType type, TileRotation rotation) {
+        return TERRAIN_TABLE[type.ordinal()][rotation.ordinal()];
+    }
+
+    /**
+     * Returns the edge signature bits of a specific terrain on a specific side, as used by {@link #getEdgeSignature()}.
+     * @param side is the side, one of the {@link GridDirection#directNeighbors()}.
+     * @param terrain is the terrain on that side.
+     * @return the edge signature bits.
+     */
+    public static int edgeBitsFor(GridDirection side, TerrainType terrain) {
+        return (terrain.ordinal() + 1) << (side.ordinal() * EDGE_BITS);
+    }
+
+    /**
+     * Returns the mask that selects one side in an edge signature.
+     * @param side is the side, one of the {@link GridDirection#directNeighbors()}.
+     * @return the edge signature mask.
+     */
+    public static int edgeBitsFor(GridDirection side) {
+        return ((1 << EDGE_BITS) - 1) << (side.ordinal() * EDGE_BITS);
     }
 
     /**
      * return the terrain type on the tile in the specific direction.
      * @param direction is the specific direction.
-     * @return the terrain type, or null if the direction is not mapped.
+     * @return the terrain type.
      */
     public TerrainType at(GridDirection direction) {
-        if (terrain.containsKey(direction)) {
-            return terrain.get(direction);
+        if (direction == null) {
+            throw new IllegalArgumentException("TileTerrain not defined at " + direction);
         }
-        throw new IllegalArgumentException("TileTerrain not defined at " + direction);
+        return terrain[direction.ordinal()];
+    }
+
+    /**
+     * Returns the edge signature of the terrain. The signature packs the terrain of the four sides into one integer, using
+     * four bits per side. Each side stores the terrain ordinal plus one, which means zero denotes an unconstrained side.
+     * @return the edge signature.
+     */
+    public int getEdgeSignature() {
+        return edgeSignature;
     }
 
     /**
      * Returns a set of grid directions, where meeples can be placed on this terrain.
-     * @return the list of meeple spots.
+     * @return the unmodifiable set of meeple spots.
      */
     public Set<GridDirection> getMeepleSpots() {
-        return meepleSpots;
+        return meepleSpotSet;
+    }
+
+    /**
+     * Checks whether a meeple can be placed on a specific position of this terrain.
+     * @param position is the position.
+     * @return true if it is a meeple spot.
+     */
+    public boolean isMeepleSpot(GridDirection position) {
+        return (meepleSpots & 1 << position.ordinal()) != 0;
     }
 
     /**
@@ -71,51 +138,94 @@ public class TileTerrain {
      * @param towards is the terrain to check to.
      * @return true if connected, false if not.
      */
-    public final boolean isConnected(GridDirection from, GridDirection towards) {
-        if (isDirectConnected(from, towards) || (from != CENTER && towards != CENTER && isIndirectConnected(from, towards))) {
-            return true; // is not from or to middle but indirectly connected (counter)clockwise
-        }
-        if (terrain.get(from) == TerrainType.FIELDS && terrain.get(towards) == TerrainType.FIELDS) {
-            return isImplicitlyConnected(from, towards); // is connected through implicit terrain information
+    public boolean isConnected(GridDirection from, GridDirection towards) {
+        return (connections[from.ordinal()] & 1 << towards.ordinal()) != 0;
+    }
+
+    /**
+     * Returns the terrain turned 90 degree to the left.
+     * @return the rotated terrain.
+     */
+    public TileTerrain rotateLeft() {
+        return rotatedLeft;
+    }
+
+    /**
+     * Returns the terrain turned 90 degree to the right.
+     * @return the rotated terrain.
+     */
+    public TileTerrain rotateRight() {
+        return rotatedRight;
+    }
+
+    /**
+     * Creates the terrain instances for all tile types and rotations and links the rotations.
+     */
+    private static TileTerrain[][] createTable() {
+        TileRotation[] rotations = TileRotation.values();
+        TileTerrain[][] table = new TileTerrain[TileType.values().length][rotations.length];
+        for (TileType type : TileType.values()) {
+            TerrainType[] terrain = type.getTerrain().clone();
+            for (TileRotation rotation : rotations) {
+                table[type.ordinal()][rotation.ordinal()] = new TileTerrain(terrain);
+                terrain = rotateRight(terrain);
+            }
+            for (TileRotation rotation : rotations) {
+                TileTerrain instance = table[type.ordinal()][rotation.ordinal()];
+                instance.rotatedLeft = table[type.ordinal()][rotation.rotate(RotationDirection.LEFT).ordinal()];
+                instance.rotatedRight = table[type.ordinal()][rotation.rotate(RotationDirection.RIGHT).ordinal()];
+            }
         }
-        return false;
+        return table;
     }
 
     /**
-     * Turns a tile 90 degree to the left.
+     * Returns a copy of terrain types turned 90 degree to the right.
      */
-    public void rotateLeft() {
-        rotate(List.of(NORTH, WEST, SOUTH, EAST));
-        rotate(List.of(NORTH_EAST, NORTH_WEST, SOUTH_WEST, SOUTH_EAST));
+    private static TerrainType[] rotateRight(TerrainType[] terrain) {
+        TerrainType[] rotated = terrain.clone();
+        for (List<GridDirection> directions : List.of(GridDirection.directNeighbors(), GridDirection.indirectNeighbors())) {
+            for (int i = 0; i < directions.size(); i++) { // every direction takes the terrain of its predecessor:
+                GridDirection predecessor = directions.get(Math.floorMod(i - 1, directions.size()));
+                rotated[directions.get(i).ordinal()] = terrain[predecessor.ordinal()];
+            }
+        }
+        return rotated;
     }
 
     /**
-     * Turns a tile 90 degree to the right.
+     * Computes whether two parts of a tile are connected through same terrain.
      */
-    public void rotateRight() {
-        rotate(GridDirection.directNeighbors());
-        rotate(GridDirection.indirectNeighbors());
+    private boolean computeConnection(GridDirection from, GridDirection towards) {
+        if (isDirectConnected(from, towards) || (from != CENTER && towards != CENTER && isIndirectConnected(from, towards))) {
+            return true; // is not from or to middle but indirectly connected (counter)clockwise
+        }
+        if (at(from) == TerrainType.FIELDS && at(towards) == TerrainType.FIELDS) {
+            return isImplicitlyConnected(from, towards); // is connected through implicit terrain information
+        }
+        return false;
     }
 
     /**
-     * Creates the list of positions on the tile where a meeple can be placed.
+     * Creates the set of positions on the tile where a meeple can be placed.
      */
-    private void createMeepleSpots() {
-        meepleSpots = new HashSet<>();
+    private Set<GridDirection> createMeepleSpots() {
+        Set<GridDirection> spots = EnumSet.noneOf(GridDirection.class);
         for (GridDirection position : GridDirection.values()) { // for every spot
-            if (terrain.get(position) != TerrainType.OTHER) { // if not checked
-                createMeepleSpot(position);
+            if (at(position) != TerrainType.OTHER) { // if not checked
+                createMeepleSpot(position, spots);
             }
         }
-        removeRedundantSpots(GridDirection.directNeighbors(), false); // merge to top, right, bottom, and left
-        removeRedundantSpots(GridDirection.indirectNeighbors(), true); // merge to the corners and add already removed anchors
-        removeRedundantSpots(GridDirection.directNeighbors(), true); // merge one more time
+        removeRedundantSpots(GridDirection.directNeighbors(), false, spots); // merge to top, right, bottom, and left
+        removeRedundantSpots(GridDirection.indirectNeighbors(), true, spots); // merge to the corners and add already removed anchors
+        removeRedundantSpots(GridDirection.directNeighbors(), true, spots); // merge one more time
+        return spots;
     }
 
     /**
      * Creates a single meeple spot.
      */
-    private void createMeepleSpot(GridDirection position) {
+    private void createMeepleSpot(GridDirection position, Set<GridDirection> spots) {
         List<GridDirection> connectedPositions = Stream.of(GridDirection.values()).filter(it -> isConnected(position, it)).toList();
         Point sum = new Point();
         for (GridDirection connectedPosition : connectedPositions) {
@@ -124,9 +234,9 @@ public class TileTerrain {
         }
         GridDirection center = GridDirection.values2D()[(int) Math.round(sum.x / 3.0) + 1][(int) Math.round(sum.y / 3.0) + 1];
         if (isConnected(center, position)) {
-            meepleSpots.add(center); // add the geometrical pattern center
+            spots.add(center); // add the geometrical pattern center
         } else {
-            meepleSpots.add(position); // just add the original position
+            spots.add(position); // just add the original position
         }
     }
 
@@ -134,8 +244,8 @@ public class TileTerrain {
      * Checks if the directions are directly connected through the middle
      */
     private boolean isDirectConnected(GridDirection from, GridDirection towards) {
-        TerrainType middle = terrain.get(CENTER);
-        return terrain.get(from) == middle && terrain.get(towards) == middle;
+        TerrainType middle = at(CENTER);
+        return at(from) == middle && at(towards) == middle;
     }
 
     /**
@@ -157,7 +267,7 @@ public class TileTerrain {
         GridDirection next;
         while (current != towards) { // while not at destination:
             next = current.nextDirectionTo(side); // get the next direction
-            if (terrain.get(current) != terrain.get(next)) {
+            if (at(current) != at(next)) {
                 return false; // check if still connected
             }
             current = next; // set new current
@@ -202,21 +312,20 @@ public class TileTerrain {
     /**
      * removes redundant meeple spots and optionally adds anchor spots.
      */
-    private void removeRedundantSpots(List<GridDirection> anchorDirections, boolean addAnchor) {
+    private void removeRedundantSpots(List<GridDirection> anchorDirections, boolean addAnchor, Set<GridDirection> spots) {
         List<GridDirection> removalList = new LinkedList<>();
         for (GridDirection anchor : anchorDirections) {
             GridDirection left = anchor.nextDirectionTo(RotationDirection.LEFT);
             GridDirection right = anchor.nextDirectionTo(RotationDirection.RIGHT);
-            if (terrain.get(anchor) == terrain.get(left) && terrain.get(anchor) == terrain.get(right) && meepleSpots.contains(left)
-                    && meepleSpots.contains(right)) {
+            if (at(anchor) == at(left) && at(anchor) == at(right) && spots.contains(left) && spots.contains(right)) {
                 removalList.add(left);
                 removalList.add(right);
                 if (addAnchor && !isConnected(anchor, CENTER)) {
-                    meepleSpots.add(anchor);
+                    spots.add(anchor);
                 }
             }
         }
-        meepleSpots.removeAll(removalList);
+        spots.removeAll(removalList);
     }
 
     /**
@@ -224,7 +333,7 @@ public class TileTerrain {
      * terrain street and is connected to at least two other sides.
      */
     private boolean hasPassingStreet() {
-        return terrain.get(CENTER) == TerrainType.ROAD
+        return at(CENTER) == TerrainType.ROAD
                 && GridDirection.tilePositions().stream().filter(it -> isDirectConnected(CENTER, it)).count() > 2;
     }
 
@@ -233,18 +342,6 @@ public class TileTerrain {
      * towards it.
      */
     private boolean hasNoCastleEntry(GridDirection castlePosition) {
-        return terrain.get(castlePosition) == TerrainType.CASTLE && (terrain.get(CENTER) == TerrainType.OTHER || hasPassingStreet());
-    }
-
-    /**
-     * Rotates the terrain at the specified directions clockwise.
-     * @param directions are the specified directions.
-     */
-    private void rotate(List<GridDirection> directions) {
-        TerrainType temporary = terrain.get(directions.get(directions.size() - 1)); // get last one
-        for (GridDirection direction : directions) { // rotate terrain through temporary:
-            temporary = terrain.put(direction, temporary);
-        }
-        createMeepleSpots();
+        return at(castlePosition) == TerrainType.CASTLE && (at(CENTER) == TerrainType.OTHER || hasPassingStreet());
     }
 }
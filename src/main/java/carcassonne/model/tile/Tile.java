@@ -26,7 +26,7 @@ public class Tile {
     private static final int CASTLE_THRESHOLD = 6; // size required for a castle to have an emblem
     protected GridSpot gridSpot;
     protected Meeple meeple;
-    private final TileTerrain terrain;
+    private TileTerrain terrain;
     private final TileType type;
     private TileRotation rotation;
     private final int rotationLimit;
@@ -41,8 +41,8 @@ public class Tile {
             throw new IllegalArgumentException("Tile type cannot be null");
         }
         this.type = type;
-        terrain = new TileTerrain(type);
         rotation = TileRotation.UP;
+        terrain = TileTerrain.of(type, rotation);
         meeple = null;
         rotationLimit = TileUtil.rotationLimitFor(type);
     }
@@ -66,6 +66,14 @@ public class Tile {
         return gridSpot;
     }
 
+    /**
+     * Returns the edge signature of the tile in its current rotation, see {@link TileTerrain#getEdgeSignature()}.
+     * @return the edge signature.
+     */
+    public int getEdgeSignature() {
+        return terrain.getEdgeSignature();
+    }
+
     /**
      * Getter for the tile image. The image depends on the orientation of the tile.
      * @return the image depicting the tile.
@@ -163,7 +171,7 @@ public class Tile {
      * @return if it can be potentially placed. Does not check whether enemy players sit on the pattern.
      */
     public boolean hasMeepleSpot(GridDirection direction) {
-        return terrain.getMeepleSpots().contains(direction);
+        return terrain.isMeepleSpot(direction);
     }
 
     /**
@@ -219,7 +227,6 @@ public class Tile {
                 if (pattern.isNotOccupied() || (pattern.isOccupiedBy(player)) && settings.isAllowingFortifying()) {
                     placeable = true; // can place meeple
                 }
-                pattern.removeTileTags();
             }
         }
         return placeable;
@@ -241,6 +248,7 @@ public class Tile {
         this.meeple = meeple;
         meeple.setLocation(gridSpot);
         meeple.setPosition(position);
+        gridSpot.updateMeeple();
     }
 
     /**
@@ -252,13 +260,31 @@ public class Tile {
         }
         meeple.removePlacement();
         meeple = null;
+        if (gridSpot != null) {
+            gridSpot.updateMeeple();
+        }
+    }
+
+    /**
+     * Puts a removed meeple back on the tile without checking the placement rules, which undoes {@link #removeMeeple()}.
+     * @param removedMeeple is the meeple that was removed from the tile.
+     */
+    public void restoreMeeple(Meeple removedMeeple) {
+        if (meeple != null) {
+            throw new IllegalStateException("Tile has already a meeple placed on it: " + toString());
+        }
+        meeple = removedMeeple;
+        removedMeeple.restorePlacement(gridSpot);
+        if (gridSpot != null) {
+            gridSpot.updateMeeple();
+        }
     }
 
     /**
      * Turns a tile 90 degree to the left.
      */
     public void rotateLeft() {
-        terrain.rotateLeft();
+        terrain = terrain.rotateLeft();
         rotation = rotation.rotate(RotationDirection.LEFT);
     }
 
@@ -266,7 +292,7 @@ public class Tile {
      * Turns a tile 90 degree to the right.
      */
     public void rotateRight() {
-        terrain.rotateRight(); // TODO (MEDIUM) [PERFORMANCE] can get fairly expensive when executed often.
+        terrain = terrain.rotateRight();
         rotation = rotation.rotate(RotationDirection.RIGHT);
     }
 
@@ -274,9 +300,8 @@ public class Tile {
      * Turns a tile 90 degree to the right.
      */
     public void rotateTo(TileRotation targetRotation) {
-        while (rotation != targetRotation) {
-            rotateRight();
-        }
+        rotation = targetRotation;
+        terrain = TileTerrain.of(type, targetRotation);
     }
 
     /**
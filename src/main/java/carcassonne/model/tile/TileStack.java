@@ -1,12 +1,15 @@
 package carcassonne.model.tile;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The stack of tiles for a game.
@@ -16,6 +19,7 @@ public class TileStack {
     private final Stack<Tile> tiles;
     private final Queue<Tile> returnedTiles;
     private final Set<Tile> returnHistory;
+    private final int[] remainingCounts; // number of remaining tiles per type ordinal
     private final int multiplier;
     private final int initialSize;
 
@@ -39,6 +43,7 @@ public class TileStack {
         tiles = new Stack<>();
         returnedTiles = new LinkedList<>();
         returnHistory = new HashSet<>();
+        remainingCounts = new int[TileType.values().length];
         fillStack(distribution);
         initialSize = getSize();
         rotateRandomly();
@@ -57,10 +62,9 @@ public class TileStack {
         if (tiles.isEmpty() && returnedTiles.isEmpty()) {
             return null; // no tile to draw!
         }
-        if (tiles.isEmpty()) {
-            return returnedTiles.poll();
-        }
-        return tiles.pop();
+        Tile tile = tiles.isEmpty() ? returnedTiles.poll() : tiles.pop();
+        remainingCounts[tile.getType().ordinal()]--;
+        return tile;
     }
 
     /**
@@ -79,6 +83,30 @@ public class TileStack {
         return tiles.size() + returnedTiles.size();
     }
 
+    /**
+     * Returns the number of remaining tiles of a tile type, including the tiles that were put back.
+     * @param type is the tile type.
+     * @return the number of tiles of that type that can still be drawn.
+     */
+    public int getRemainingCount(TileType type) {
+        return remainingCounts[type.ordinal()];
+    }
+
+    /**
+     * Returns the types of the remaining tiles, which is the known composition of the stack. The types are sorted, which
+     * means they do not reveal the order in which the tiles are drawn.
+     * @return the list of tile types.
+     */
+    public List<TileType> getRemainingTypes() {
+        List<TileType> types = new ArrayList<>(getSize());
+        for (TileType type : TileType.values()) {
+            for (int i = 0; i < remainingCounts[type.ordinal()]; i++) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
     /**
      * Checks whether the tile stack is empty.
      * @return true if empty.
@@ -97,6 +125,7 @@ public class TileStack {
         }
         if (returnHistory.add(tile)) { // tiles can only be returned once!
             returnedTiles.add(tile);
+            remainingCounts[tile.getType().ordinal()]++;
         }
     }
 
@@ -106,12 +135,13 @@ public class TileStack {
             for (int i = 0; i < amount; i++) {
                 tiles.add(new Tile(tileType));
             }
+            remainingCounts[tileType.ordinal()] += amount;
         }
     }
 
     private void rotateRandomly() {
         for (Tile tile : tiles) {
-            for (int i = 0; i < Math.round(Math.random() * 4 - 0.5); i++) {
+            for (int i = 0; i < Math.round(ThreadLocalRandom.current().nextDouble() * 4 - 0.5); i++) {
                 tile.rotateRight(); // Random orientation with equal chance for each orientation.
             }
         }
@@ -1,8 +1,7 @@
 package carcassonne.model.tile;
 
-import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import carcassonne.settings.GameSettings;
 
@@ -11,7 +10,7 @@ import carcassonne.settings.GameSettings;
  * @author Timur Saglam
  */
 public final class TileUtil {
-    private final static Map<TileType, Integer> rotations = new HashMap<>();
+    private final static Map<TileType, Integer> rotations = new ConcurrentHashMap<>(); // tiles are also created by move generation workers
 
     private TileUtil() {
         throw new IllegalStateException(); // private constructor for non-instantiability
@@ -33,8 +32,7 @@ public final class TileUtil {
         int rotations = 0;
         for (int rotation = 0; rotation < TileRotation.values().length; rotation++) {
             String path = GameSettings.TILE_FOLDER_PATH + type.name() + rotation + GameSettings.TILE_FILE_TYPE;
-            InputStream file = TileUtil.class.getClassLoader().getResourceAsStream(path);
-            if (file != null) {
+            if (TileUtil.class.getClassLoader().getResource(path) != null) { // only looked up, the image is not opened
                 rotations++;
             }
         }
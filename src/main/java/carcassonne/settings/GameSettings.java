@@ -9,7 +9,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
-import carcassonne.control.telemetry.TelemetryManager;
 import carcassonne.model.Player;
 import carcassonne.model.terrain.TerrainType;
 import carcassonne.model.tile.TileDistribution;
@@ -63,6 +62,10 @@ public class GameSettings {
     private final Map<TerrainType, Boolean> meepleRules;
     private boolean splitPatternScore;
 
+    // AI:
+    private int moveGenerationParallelism;
+    private boolean deterministicMoveGeneration;
+
     // OTHER/INTERNAL
     private boolean gridSizeChanged;
     private final List<NotifiableView> changeListeners;
@@ -87,8 +90,9 @@ public class GameSettings {
         stackSizeMultiplier = 1;
         gridWidth = 29;
         gridHeight = 19;
-        advancedTileHighlight = TelemetryManager.getInstance().getAdvancedHighlightEnabledDefault();
         allowEnclaves = true;
+        moveGenerationParallelism = 1; // sequential, as the user interface does not offer parallelism
+        deterministicMoveGeneration = true;
         changeListeners = new ArrayList<>();
     }
 
@@ -125,6 +129,14 @@ public class GameSettings {
         return meepleRules.getOrDefault(type, false);
     }
 
+    /**
+     * Returns how many threads are used by AI players to generate their possible moves.
+     * @return the parallelism level, where 1 means the moves are generated sequentially.
+     */
+    public int getMoveGenerationParallelism() {
+        return moveGenerationParallelism;
+    }
+
     /**
      * Returns how many player are playing in the next round.
      * @return the amount of players.
@@ -199,6 +211,14 @@ public class GameSettings {
         return allowFortifying;
     }
 
+    /**
+     * Checks whether the parallel move generation of AI players orders the moves exactly like the sequential one.
+     * @return true if the move generation is deterministic.
+     */
+    public boolean isDeterministicMoveGeneration() {
+        return deterministicMoveGeneration;
+    }
+
     /**
      * Gives information whether the user or the game changed the grid size settings.
      * @return the true if the size was changed.
@@ -248,6 +268,15 @@ public class GameSettings {
         this.distanceMeasure = distanceMeasure;
     }
 
+    /**
+     * Determines whether the parallel move generation of AI players orders the moves exactly like the sequential one. If
+     * not, equally valued moves are in the order in which they were generated.
+     * @param deterministicMoveGeneration set to true if the move order should be deterministic.
+     */
+    public void setDeterministicMoveGeneration(boolean deterministicMoveGeneration) {
+        this.deterministicMoveGeneration = deterministicMoveGeneration;
+    }
+
     /**
      * Setter for the height of grid.
      * @param gridHeight the grid height in tiles.
@@ -274,6 +303,17 @@ public class GameSettings {
         gridSizeChanged = true;
     }
 
+    /**
+     * Specifies how many threads are used by AI players to generate their possible moves.
+     * @param moveGenerationParallelism is the parallelism level, 1 means the moves are generated sequentially.
+     */
+    public void setMoveGenerationParallelism(int moveGenerationParallelism) {
+        if (moveGenerationParallelism < 1) {
+            throw new IllegalArgumentException("Parallelism level must be positive: " + moveGenerationParallelism);
+        }
+        this.moveGenerationParallelism = moveGenerationParallelism;
+    }
+
     /**
      * Specifies how many player are playing in the next round.
      * @param numberOfPlayers is the amount of players.
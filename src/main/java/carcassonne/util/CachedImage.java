@@ -9,18 +9,22 @@ import java.awt.Image;
 public class CachedImage {
     private final Image image;
     private final boolean preview;
+    private final long estimatedBytes;
+    private volatile long lastAccess;
 
     /**
      * Creates
      * @param image the image to cache, cannot be null.
      * @param preview whether this image was scaled as a preview image or not.
+     * @param estimatedBytes is the estimated memory size of the image.
      */
-    public CachedImage(Image image, boolean preview) {
+    public CachedImage(Image image, boolean preview, long estimatedBytes) {
         if (image == null) {
             throw new IllegalArgumentException("Cached image cannot be null!");
         }
         this.image = image;
         this.preview = preview;
+        this.estimatedBytes = estimatedBytes;
     }
 
     public Image getImage() {
@@ -30,4 +34,24 @@ public class CachedImage {
     public boolean isPreview() {
         return preview;
     }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the logical time of the last access, which determines the eviction order.
+     * @return the time of the last access.
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Updates the logical time of the last access.
+     * @param lastAccess is the time of the access.
+     */
+    public void setLastAccess(long lastAccess) {
+        this.lastAccess = lastAccess;
+    }
 }
@@ -5,24 +5,32 @@ import static carcassonne.settings.GameSettings.TILE_RESOLUTION;
 import java.awt.Image;
 import java.awt.image.BaseMultiResolutionImage;
 import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 import carcassonne.model.tile.Tile;
 import carcassonne.settings.GameSettings;
 import carcassonne.view.PaintShop;
 
 /**
- * Tile scaling utility class that is optimized for concurrent use. It uses a sophisticated locking mechanism and
- * leverages the image caching capabilities of the {@link TileImageScalingCache} and the image scaling capabilities of
- * the {@link FastImageScaler}.
+ * Tile scaling utility class that is optimized for concurrent use. It leverages the image caching capabilities of the
+ * {@link TileImageScalingCache}, the pre-scaled images of the {@link TileImagePack}, and the image scaling capabilities
+ * of the {@link FastImageScaler}. Every image is only scaled once: concurrent requests for the same image share the
+ * future of the request that scales it. These futures are only registered while the image is scaled, finished work
+ * leaves no entries behind.
  * @author Timur Saglam
  */
 public final class ConcurrentTileImageScaler {
-    private static final ConcurrentMap<Integer, Semaphore> semaphores = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Integer, CompletableFuture<ScaledImage>> inFlight = new ConcurrentHashMap<>();
     private static final int SHIFT_VALUE = 1000;
-    private static final int SINGLE_PERMIT = 1;
+
+    /**
+     * Result of a scaling, which may be a preview render.
+     */
+    private record ScaledImage(Image image, boolean preview) {
+    }
 
     private ConcurrentTileImageScaler() {
         // private constructor ensures non-instantiability!
@@ -36,18 +44,19 @@ public final class ConcurrentTileImageScaler {
      * @return the scaled {@link Image}.
      */
     public static Image getScaledImage(Tile tile, int targetSize, boolean fastScaling) {
-        int lockKey = createKey(tile, targetSize);
-        semaphores.putIfAbsent(lockKey, new Semaphore(SINGLE_PERMIT));
-        Semaphore lock = semaphores.get(lockKey);
-        try {
-            lock.acquire();
-            return getScaledImageUnsafe(tile, targetSize, fastScaling);
-        } catch (InterruptedException exception) {
-            exception.printStackTrace();
-        } finally {
-            lock.release();
+        if (targetSize == TILE_RESOLUTION) {
+            return getOriginalImage(tile);
+        }
+        while (true) {
+            Image cachedImage = TileImageScalingCache.getScaledImage(tile, targetSize, fastScaling);
+            if (cachedImage != null) {
+                return cachedImage;
+            }
+            ScaledImage scaledImage = computeOnce(createKey(tile, targetSize), () -> scaleAndCache(tile, targetSize, fastScaling));
+            if (fastScaling || !scaledImage.preview()) {
+                return scaledImage.image();
+            } // else a shared preview render, which is not sufficient
         }
-        return null;
     }
 
     /**
@@ -66,70 +75,89 @@ public final class ConcurrentTileImageScaler {
     }
 
     /**
-     * Either scales the full resolution image to the required size or retrieves the cached scaled image. This method is not
-     * thread safe.
+     * Executes a computation unless the same computation is already executed by another thread, which means the result of
+     * that thread is shared. The future is removed as soon as the computation is done, as its result is cached.
      */
-    private static Image getScaledImageUnsafe(Tile tile, int targetSize, boolean fastScaling) {
-        if (TileImageScalingCache.containsScaledImage(tile, targetSize, fastScaling)) {
-            return TileImageScalingCache.getScaledImage(tile, targetSize);
+    private static ScaledImage computeOnce(int key, Supplier<ScaledImage> computation) {
+        CompletableFuture<ScaledImage> task = new CompletableFuture<>();
+        CompletableFuture<ScaledImage> sharedTask = inFlight.computeIfAbsent(key, it -> task);
+        if (sharedTask != task) {
+            return sharedTask.join();
+        }
+        ScaledImage result;
+        try {
+            result = computation.get();
+        } catch (RuntimeException exception) {
+            inFlight.remove(key, task);
+            task.completeExceptionally(exception);
+            throw exception;
         }
-        Image largerImage = getOriginalImage(tile, targetSize);
-        Image scaledImage = scaleImage(largerImage, targetSize, fastScaling);
+        inFlight.remove(key, task); // before completing, as waiting threads that retry must not find the finished task
+        task.complete(result);
+        return result;
+    }
+
+    /**
+     * Scales the smallest suitable image to the required size, unless it was cached since it was requested.
+     */
+    private static ScaledImage scaleAndCache(Tile tile, int targetSize, boolean fastScaling) {
+        Image cachedImage = TileImageScalingCache.getScaledImage(tile, targetSize, fastScaling);
+        if (cachedImage != null) {
+            return new ScaledImage(cachedImage, fastScaling); // might be a preview if a preview was requested
+        }
+        Image sourceImage = getSourceImage(tile, targetSize);
+        if (sourceImage.getWidth(null) == targetSize) {
+            TileImageScalingCache.putScaledImage(sourceImage, tile, targetSize, false); // a mipmap level, smoothly scaled
+            return new ScaledImage(sourceImage, false);
+        }
+        Image scaledImage = scaleImage(sourceImage, targetSize, fastScaling);
         TileImageScalingCache.putScaledImage(scaledImage, tile, targetSize, fastScaling);
-        return scaledImage;
+        return new ScaledImage(scaledImage, fastScaling);
     }
 
     /**
-     * Gets a full-size image for a specific tile. Uses caching to reuse image icons.
+     * Returns the smallest image of a tile that can be scaled to the required size: a packed mipmap level or the full
+     * resolution image. As emblems are painted on the full resolution image, the mipmap levels only apply without emblem.
      */
-    private static Image getOriginalImage(Tile tile, int targetSize) {
-        int lockKey = createKey(tile, TILE_RESOLUTION);
-        semaphores.putIfAbsent(lockKey, new Semaphore(SINGLE_PERMIT));
-        Semaphore lock = semaphores.get(lockKey);
-        try {
-            if (targetSize != TILE_RESOLUTION) {
-                lock.acquire();
-            }
-            return getOriginalImageUnsafe(tile);
-        } catch (InterruptedException exception) {
-            exception.printStackTrace();
-        } finally {
-            if (targetSize != TILE_RESOLUTION) {
-                lock.release();
+    private static Image getSourceImage(Tile tile, int targetSize) {
+        if (!tile.hasEmblem()) {
+            Image mipmap = TileImagePack.getMipmap(tile, targetSize);
+            if (mipmap != null) {
+                return mipmap;
             }
         }
-        return null;
+        return getOriginalImage(tile);
     }
 
     /**
-     * Loads an image for a specific tile. Uses caching to reuse image icons. This method is not thread safe.
+     * Gets a full-size image for a specific tile. Uses caching to reuse image icons.
      */
-    private static Image getOriginalImageUnsafe(Tile tile) {
-        String imagePath = GameSettings.TILE_FOLDER_PATH + tile.getType().name() + tile.getImageIndex() + GameSettings.TILE_FILE_TYPE;
-        if (TileImageScalingCache.containsScaledImage(tile, TILE_RESOLUTION, false)) {
-            return TileImageScalingCache.getScaledImage(tile, TILE_RESOLUTION);
-        }
-        if (tile.hasEmblem()) {
-            return loadImageAndPaintEmblem(tile, imagePath);
+    private static Image getOriginalImage(Tile tile) {
+        Image cachedImage = TileImageScalingCache.getScaledImage(tile, TILE_RESOLUTION, false);
+        if (cachedImage != null) {
+            return cachedImage;
         }
-        Image image = ImageLoadingUtil.createBufferedImage(imagePath);
-        TileImageScalingCache.putScaledImage(image, tile, TILE_RESOLUTION, false);
-        return image;
+        return computeOnce(createKey(tile, TILE_RESOLUTION), () -> new ScaledImage(loadOriginalImage(tile), false)).image();
     }
 
     /**
-     * Loads a tile image for a tile with a certain rotation index and paints its emblem.
+     * Loads an image for a specific tile from its image file, unless it was cached since it was requested. Paints the
+     * emblem if the tile has one.
      */
-    private static Image loadImageAndPaintEmblem(Tile tile, String imagePath) {
+    private static Image loadOriginalImage(Tile tile) {
+        Image cachedImage = TileImageScalingCache.getScaledImage(tile, TILE_RESOLUTION, false);
+        if (cachedImage != null) {
+            return cachedImage;
+        }
+        String imagePath = GameSettings.TILE_FOLDER_PATH + tile.getType().name() + tile.getImageIndex() + GameSettings.TILE_FILE_TYPE;
         BufferedImage image = ImageLoadingUtil.createBufferedImage(imagePath);
-        Image paintedImage = PaintShop.addEmblem(image);
-        TileImageScalingCache.putScaledImage(paintedImage, tile, TILE_RESOLUTION, false);
-        return paintedImage;
+        Image originalImage = tile.hasEmblem() ? PaintShop.addEmblem(image) : image;
+        TileImageScalingCache.putScaledImage(originalImage, tile, TILE_RESOLUTION, false);
+        return originalImage;
     }
 
     /**
-     * Scales the full resolution image to the required size with either the fast or the smooth scaling algorithm. This
-     * method is not thread safe.
+     * Scales an image to the required size with either the fast or the smooth scaling algorithm.
      */
     private static Image scaleImage(Image image, int size, boolean fastScaling) {
         if (fastScaling) {
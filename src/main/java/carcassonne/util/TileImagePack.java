@@ -0,0 +1,140 @@
+package carcassonne.util;
+
+import static carcassonne.util.TileImagePackWriter.BYTES_PER_PIXEL;
+import static carcassonne.util.TileImagePackWriter.MAGIC_NUMBER;
+import static carcassonne.util.TileImagePackWriter.VERSION;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import carcassonne.model.tile.Tile;
+
+/**
+ * Provides the mipmap levels of the tile images from the pack that is written by the {@link TileImagePackWriter} during
+ * the build, which avoids scaling the full resolution images down at runtime. The pack is memory-mapped, the pixels of a
+ * level are copied directly from the mapping into the raster of a buffered image. If there is no pack, for example
+ * because the game was not built with Maven, no levels are provided and the full resolution images have to be scaled
+ * instead. The pack is searched next to the JAR file, or in the build folder next to the class folder.
+ * @author Timur Saglam
+ */
+public final class TileImagePack {
+    private static final String FILE_NAME = "tiles.pack";
+    private static final String BUILD_FOLDER = "build";
+    private static final Map<String, PackedImage> images = new HashMap<>();
+    private static final ByteBuffer pixels = mapPack();
+
+    /**
+     * Image of the pack with the edge lengths and offsets of its mipmap levels, from the largest to the smallest level.
+     */
+    private record PackedImage(boolean opaque, int[] sizes, int[] offsets) {
+    }
+
+    private TileImagePack() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Returns the smallest mipmap level of the image of a tile, without emblem, that has at least a specific edge length.
+     * The level can be scaled to the required size much faster than the full resolution image.
+     * @param tile is the tile whose image is requested.
+     * @param minimalSize is the minimal edge length of the level.
+     * @return the image of the level or null if there is no such level.
+     */
+    public static BufferedImage getMipmap(Tile tile, int minimalSize) {
+        PackedImage image = images.get(createName(tile));
+        if (image != null) {
+            for (int level = image.sizes().length - 1; level >= 0; level--) {
+                if (image.sizes()[level] >= minimalSize) {
+                    return createImage(image, level);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static BufferedImage createImage(PackedImage image, int level) {
+        int size = image.sizes()[level];
+        int[] data = new int[size * size];
+        IntBuffer levelPixels = pixels.slice(image.offsets()[level], data.length * BYTES_PER_PIXEL).asIntBuffer(); // slices are thread-safe
+        levelPixels.get(data);
+        BufferedImage bufferedImage = new BufferedImage(size, size, image.opaque() ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        bufferedImage.getRaster().setDataElements(0, 0, size, size, data); // copied, as exposed data arrays prevent hardware acceleration
+        return bufferedImage;
+    }
+
+    private static String createName(Tile tile) {
+        return tile.getType().name() + tile.getImageIndex();
+    }
+
+    /**
+     * Maps the pack into memory and reads its header, returns null if there is no valid pack.
+     */
+    private static ByteBuffer mapPack() {
+        Path packFile = findPack();
+        if (packFile == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(packFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // stays valid when closed
+            readHeader(buffer);
+            return buffer;
+        } catch (IOException | RuntimeException exception) {
+            exception.printStackTrace();
+            images.clear();
+            return null;
+        }
+    }
+
+    private static void readHeader(ByteBuffer buffer) throws IOException {
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != MAGIC_NUMBER || header.getInt() != VERSION) {
+            throw new IOException("Invalid or outdated tile image pack, rebuild it with Maven.");
+        }
+        int imageCount = header.getInt();
+        for (int index = 0; index < imageCount; index++) {
+            byte[] name = new byte[Short.toUnsignedInt(header.getShort())];
+            header.get(name);
+            boolean opaque = header.get() != 0;
+            int levels = header.getInt();
+            int[] sizes = new int[levels];
+            int[] offsets = new int[levels];
+            for (int level = 0; level < levels; level++) {
+                sizes[level] = header.getInt();
+                offsets[level] = header.getInt();
+                if ((long) offsets[level] + (long) sizes[level] * sizes[level] * BYTES_PER_PIXEL > buffer.capacity()) {
+                    throw new IOException("Truncated tile image pack, rebuild it with Maven.");
+                }
+            }
+            images.put(new String(name, StandardCharsets.UTF_8), new PackedImage(opaque, sizes, offsets));
+        }
+    }
+
+    /**
+     * Searches the pack next to the JAR file or the class folder, returns null if there is none.
+     */
+    private static Path findPack() {
+        try {
+            Path location = Path.of(TileImagePack.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            Path folder = Files.isDirectory(location) ? location : location.getParent();
+            for (Path candidate : List.of(folder.resolve(FILE_NAME), folder.resolveSibling(BUILD_FOLDER).resolve(FILE_NAME))) {
+                if (Files.isRegularFile(candidate)) {
+                    return candidate;
+                }
+            }
+        } catch (URISyntaxException | RuntimeException exception) {
+            // no accessible code source, the image files are used instead
+        }
+        return null;
+    }
+}
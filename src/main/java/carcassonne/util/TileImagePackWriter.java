@@ -0,0 +1,191 @@
+package carcassonne.util;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Build step that pre-decodes the tile images into a pack of raw pixels, which is read by the {@link TileImagePack}. For
+ * every tile image, the pack contains a few mipmap levels, the first one halving the edge length of the full resolution
+ * and every further one halving the edge length of the previous level. The full resolution images are not packed, as
+ * they are shipped as image files anyway. The pixels are premultiplied ARGB integers in big-endian byte order. The pack
+ * starts with a header:
+ * <ul>
+ * <li>the magic number, the format version, and the number of images as integers.</li>
+ * <li>for every image its name as modified UTF-8, whether it is opaque as a byte, and the number of levels as integer,
+ * followed by the edge length and the offset of every level as integers.</li>
+ * </ul>
+ * The pixel data follows the header, aligned to eight bytes.
+ * @author Timur Saglam
+ */
+public final class TileImagePackWriter {
+    static final int MAGIC_NUMBER = 0x54494C45; // "TILE"
+    static final int VERSION = 2;
+    static final int BYTES_PER_PIXEL = 4;
+    private static final int MINIMAL_MIPMAP_SIZE = 50;
+    private static final int ALIGNMENT = 8;
+    private static final String FILE_TYPE = ".png";
+
+    /**
+     * Image of the pack with its mipmap levels, from the largest to the smallest level.
+     */
+    private record PackedImage(String name, boolean opaque, List<int[]> levels, List<Integer> sizes) {
+    }
+
+    private TileImagePackWriter() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Writes the pack of the tile images, unless it is newer than all tile images and has the current format version.
+     * @param args are the folder of the tile images and the pack file.
+     * @throws IOException if an image cannot be read or the pack cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: TileImagePackWriter <tile folder> <pack file>");
+        }
+        File[] imageFiles = new File(args[0]).listFiles((directory, name) -> name.endsWith(FILE_TYPE));
+        if (imageFiles == null || imageFiles.length == 0) {
+            throw new IllegalArgumentException("No tile images found in " + args[0]);
+        }
+        Arrays.sort(imageFiles, Comparator.comparing(File::getName));
+        File packFile = new File(args[1]);
+        long lastModified = Arrays.stream(imageFiles).mapToLong(File::lastModified).max().getAsLong();
+        if (packFile.isFile() && packFile.lastModified() >= lastModified && hasCurrentVersion(packFile)) {
+            System.out.println("Tile image pack is up to date: " + packFile);
+            return;
+        }
+        List<PackedImage> images = new ArrayList<>();
+        for (File imageFile : imageFiles) {
+            images.add(pack(imageFile));
+        }
+        packFile.getAbsoluteFile().getParentFile().mkdirs();
+        write(images, packFile);
+        System.out.println("Packed " + images.size() + " tile images into " + packFile + " (" + packFile.length() / 1024 + " KiB)");
+    }
+
+    /**
+     * Decodes a tile image and computes its mipmap levels.
+     */
+    private static PackedImage pack(File imageFile) throws IOException {
+        BufferedImage image = ImageIO.read(imageFile);
+        if (image == null || image.getWidth() != image.getHeight()) {
+            throw new IOException("Tile image is not a quadratic image: " + imageFile);
+        }
+        String name = imageFile.getName().substring(0, imageFile.getName().length() - FILE_TYPE.length());
+        boolean opaque = image.getTransparency() == Transparency.OPAQUE;
+        List<int[]> levels = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        int[] pixels = toPremultipliedPixels(image);
+        int size = image.getWidth();
+        for (int levelSize = size / 2; levelSize >= MINIMAL_MIPMAP_SIZE; levelSize /= 2) {
+            levels.add(scaleDown(pixels, size, levelSize)); // from the full resolution, as errors would add up otherwise
+            sizes.add(levelSize);
+        }
+        return new PackedImage(name, opaque, levels, sizes);
+    }
+
+    // checks whether an existing pack was written in the current format, which the images do not reveal.
+    private static boolean hasCurrentVersion(File packFile) {
+        try (DataInputStream input = new DataInputStream(new FileInputStream(packFile))) {
+            return input.readInt() == MAGIC_NUMBER && input.readInt() == VERSION;
+        } catch (IOException exception) {
+            return false; // unreadable, is rewritten
+        }
+    }
+
+    private static int[] toPremultipliedPixels(BufferedImage image) {
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D graphics = converted.createGraphics();
+        graphics.setComposite(AlphaComposite.Src);
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return ((DataBufferInt) converted.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Scales premultiplied pixels down by averaging the area that every target pixel covers.
+     */
+    private static int[] scaleDown(int[] pixels, int size, int targetSize) {
+        double scale = size / (double) targetSize;
+        int[] scaled = new int[targetSize * targetSize];
+        for (int targetY = 0; targetY < targetSize; targetY++) {
+            for (int targetX = 0; targetX < targetSize; targetX++) {
+                double[] channels = new double[BYTES_PER_PIXEL];
+                double startY = targetY * scale;
+                double startX = targetX * scale;
+                for (int y = (int) startY; y < Math.min(size, Math.ceil(startY + scale)); y++) {
+                    double weightY = coverage(y, startY, scale);
+                    for (int x = (int) startX; x < Math.min(size, Math.ceil(startX + scale)); x++) {
+                        double weight = weightY * coverage(x, startX, scale);
+                        int pixel = pixels[y * size + x];
+                        for (int channel = 0; channel < BYTES_PER_PIXEL; channel++) {
+                            channels[channel] += weight * (pixel >>> channel * Byte.SIZE & 0xFF);
+                        }
+                    }
+                }
+                int pixel = 0;
+                for (int channel = 0; channel < BYTES_PER_PIXEL; channel++) {
+                    pixel |= Math.min(0xFF, (int) Math.round(channels[channel] / (scale * scale))) << channel * Byte.SIZE;
+                }
+                scaled[targetY * targetSize + targetX] = pixel;
+            }
+        }
+        return scaled;
+    }
+
+    /**
+     * Returns how much of a source pixel is covered by the span of a target pixel.
+     */
+    private static double coverage(int pixel, double start, double length) {
+        return Math.min(pixel + 1, start + length) - Math.max(pixel, start);
+    }
+
+    private static void write(List<PackedImage> images, File packFile) throws IOException {
+        int headerSize = 3 * Integer.BYTES;
+        for (PackedImage image : images) {
+            headerSize += Short.BYTES + image.name().length() + Byte.BYTES + Integer.BYTES + image.levels().size() * 2 * Integer.BYTES;
+        }
+        int dataStart = (headerSize + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(packFile)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(VERSION);
+            output.writeInt(images.size());
+            long offset = dataStart;
+            for (PackedImage image : images) {
+                output.writeUTF(image.name());
+                output.writeBoolean(image.opaque());
+                output.writeInt(image.levels().size());
+                for (int level = 0; level < image.levels().size(); level++) {
+                    output.writeInt(image.sizes().get(level));
+                    output.writeInt(Math.toIntExact(offset));
+                    offset += (long) image.levels().get(level).length * BYTES_PER_PIXEL;
+                }
+            }
+            output.write(new byte[dataStart - output.size()]);
+            for (PackedImage image : images) {
+                for (int[] level : image.levels()) {
+                    for (int pixel : level) {
+                        output.writeInt(pixel);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,65 +1,92 @@
 package carcassonne.util;
 
 import java.awt.Image;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import carcassonne.model.tile.Tile;
 
 /**
  * Caches scaled images of tiles to improve the performance. When zooming in or out all static images are only rendered
- * ones per zoom level.
+ * ones per zoom level. The cache is thread-safe and reads do not block. Its size is limited by a memory budget for the
+ * estimated pixel data of the images: when the budget is exceeded, the least recently used images are evicted.
  * @author Timur Saglam
  */
 public final class TileImageScalingCache {
     private static final int SHIFT_VALUE = 1000;
-    private static final HashMap<Integer, CachedImage> cachedImages = new LRUHashMap<>();
-
-    private TileImageScalingCache() {
-        // private constructor ensures non-instantiability!
-    }
+    private static final int BYTES_PER_PIXEL = 4; // estimated for images with alpha channel
+    private static final long MAXIMAL_DEFAULT_BUDGET = 256L * 1024 * 1024;
+    private static final double EVICTION_TARGET = 0.9; // share of the budget used after an eviction, evicts in batches
+    private static final ConcurrentMap<Integer, CachedImage> cachedImages = new ConcurrentHashMap<>();
+    private static final AtomicLong cachedBytes = new AtomicLong();
+    private static final AtomicLong accessClock = new AtomicLong(); // orders the accesses for the eviction
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+    private static final Object evictionLock = new Object();
+    private static volatile long memoryBudget = Math.min(MAXIMAL_DEFAULT_BUDGET, Runtime.getRuntime().maxMemory() / 4);
 
     /**
-     * Checks if there is an existing scaled tile image in this cache.
-     * @param tile is the tile whose scaled image is requested.
-     * @param size is the edge with of the (quadratic) image.
-     * @param previewAllowed determines if the cached image may be a preview render or should be a final render.
-     * @return true if there is an existing image cached with the specified size.
+     * Image that is considered for eviction, with its access time at the start of the eviction.
      */
-    public static boolean containsScaledImage(Tile tile, int size, boolean previewAllowed) {
-        int key = createKey(tile, size);
-        if (previewAllowed) {
-            return cachedImages.containsKey(key);
-        }
-        return cachedImages.containsKey(key) && !cachedImages.get(key).isPreview();
+    private record EvictionCandidate(Integer key, CachedImage image, long lastAccess) {
+    }
+
+    private TileImageScalingCache() {
+        // private constructor ensures non-instantiability!
     }
 
     /**
      * Retrieves an existing scaled image in this cache.
      * @param tile is the tile whose scaled image is requested.
      * @param size is the edge with of the (quadratic) image.
+     * @param previewAllowed determines if the cached image may be a preview render or should be a final render.
      * @return the scaled image or null if there is none.
      */
-    public static Image getScaledImage(Tile tile, int size) {
-        return cachedImages.get(createKey(tile, size)).getImage();
+    public static Image getScaledImage(Tile tile, int size, boolean previewAllowed) {
+        CachedImage cachedImage = cachedImages.get(createKey(tile, size));
+        if (cachedImage == null || cachedImage.isPreview() && !previewAllowed) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        cachedImage.setLastAccess(accessClock.incrementAndGet());
+        return cachedImage.getImage();
     }
 
     /**
-     * Places an scaled image in this cache to enable its reuse.
+     * Places an scaled image in this cache to enable its reuse. Evicts the least recently used images if the memory budget
+     * is exceeded.
      * @param image is the scaled image.
      * @param tile is the tile whose scaled image is requested.
      * @param size is the edge with of the scaled image.
      * @param preview determines if the image is a preview render or final render.
      */
     public static void putScaledImage(Image image, Tile tile, int size, boolean preview) {
-        cachedImages.put(createKey(tile, size), new CachedImage(image, preview));
+        CachedImage cachedImage = new CachedImage(image, preview, (long) size * size * BYTES_PER_PIXEL);
+        cachedImage.setLastAccess(accessClock.incrementAndGet());
+        CachedImage replacedImage = cachedImages.put(createKey(tile, size), cachedImage);
+        long replacedBytes = replacedImage == null ? 0 : replacedImage.getEstimatedBytes();
+        if (cachedBytes.addAndGet(cachedImage.getEstimatedBytes() - replacedBytes) > memoryBudget) {
+            evictLeastRecentlyUsed();
+        }
     }
 
     /**
-     * Clears the cache, removing all stored tile images. This call might be unsafe with concurrent calls, as there are no
-     * guarantees for clearing while putting.
+     * Clears the cache, removing all stored tile images.
      */
     public static void clear() {
-        cachedImages.clear();
+        for (Integer key : cachedImages.keySet()) {
+            CachedImage removedImage = cachedImages.remove(key);
+            if (removedImage != null) {
+                cachedBytes.addAndGet(-removedImage.getEstimatedBytes());
+            }
+        }
     }
 
     /**
@@ -70,6 +97,86 @@ public final class TileImageScalingCache {
         return cachedImages.size();
     }
 
+    /**
+     * Returns the estimated memory size of the cached images, which is based on their pixels.
+     * @return the estimated size in bytes.
+     */
+    public static long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    /**
+     * Returns the memory budget of this cache.
+     * @return the budget in bytes.
+     */
+    public static long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets the memory budget of this cache, which evicts the least recently used images if the cached images exceed it.
+     * @param bytes is the new budget in bytes.
+     */
+    public static void setMemoryBudget(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + bytes);
+        }
+        memoryBudget = bytes;
+        if (cachedBytes.get() > bytes) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    /**
+     * Returns the number of requests that were answered with a cached image.
+     * @return the number of hits.
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of requests that were not answered with a cached image.
+     * @return the number of misses.
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of images that were evicted to stay within the memory budget.
+     * @return the number of evictions.
+     */
+    public static long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Evicts the least recently used images until the cached images are below the eviction target of the budget. Only one
+     * thread evicts at a time, the other threads continue reading and writing.
+     */
+    private static void evictLeastRecentlyUsed() {
+        synchronized (evictionLock) {
+            long budget = memoryBudget;
+            if (cachedBytes.get() <= budget) {
+                return; // evicted by another thread
+            }
+            List<EvictionCandidate> candidates = new ArrayList<>(cachedImages.size());
+            cachedImages.forEach((key, image) -> candidates.add(new EvictionCandidate(key, image, image.getLastAccess())));
+            candidates.sort(Comparator.comparingLong(EvictionCandidate::lastAccess)); // access times are captured, as they change
+            long target = (long) (budget * EVICTION_TARGET);
+            for (EvictionCandidate candidate : candidates) {
+                if (cachedBytes.get() <= target) {
+                    return;
+                }
+                if (cachedImages.remove(candidate.key(), candidate.image())) { // not if it was replaced in the meantime
+                    cachedBytes.addAndGet(-candidate.image().getEstimatedBytes());
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
     /**
      * Creates a primitive composite key for a tileType type, a size, and a orientation.
      */
@@ -5,16 +5,18 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BaseMultiResolutionImage;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
-import java.awt.image.WritableRaster;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import javax.swing.ImageIcon;
 
 import carcassonne.model.Player;
 import carcassonne.model.terrain.TerrainType;
 import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileType;
 import carcassonne.settings.GameSettings;
 import carcassonne.util.ConcurrentTileImageScaler;
 import carcassonne.util.FastImageScaler;
@@ -22,7 +24,8 @@ import carcassonne.util.ImageLoadingUtil;
 
 /**
  * This is the Carcassonne paint shop! It paints meeple images and tile highlights! It is implemented as a utility class
- * with static methods to increase performance through avoiding loading images more often that needed.
+ * with static methods to increase performance through avoiding loading images more often that needed. The images are
+ * painted on their pixel arrays, the rows of an image are painted in parallel.
  * @author Timur Saglam
  */
 public final class PaintShop {
@@ -33,8 +36,28 @@ public final class PaintShop {
     private static final Map<String, ImageIcon> chachedMeepleImages = new HashMap<>();
     private static final Map<TerrainType, BufferedImage> templateMap = buildImageMap(true);
     private static final Map<TerrainType, BufferedImage> imageMap = buildImageMap(false);
+    private static final Map<Integer, BufferedImage> coloredHighlights = Collections.synchronizedMap(new HashMap<>());
+    private static final Map<ColoredTileKey, BufferedImage> coloredTiles = createCache(8); // full resolution, rescaled on zoom
+    private static final Map<ColoredIconKey, ImageIcon> coloredTileIcons = createCache(16);
     private static final String KEY_SEPARATOR = "|";
     private static final int MAXIMAL_ALPHA = 255;
+    private static final int ALPHA_SHIFT = 24;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int CHANNEL_MASK = 0xFF;
+    private static final int COLOR_MASK = 0xFFFFFF;
+
+    /**
+     * Identifies a full resolution tile image colored for a player. Rotations that share an image share the key.
+     */
+    private record ColoredTileKey(TileType type, int imageIndex, boolean emblem, int color) {
+    }
+
+    /**
+     * Identifies a scaled icon of a colored tile image.
+     */
+    private record ColoredIconKey(ColoredTileKey tile, int size, boolean fastScaling) {
+    }
 
     private PaintShop() {
         // private constructor ensures non-instantiability!
@@ -46,16 +69,16 @@ public final class PaintShop {
      * @return a copy of the image with an emblem.
      */
     public static Image addEmblem(BufferedImage originalTile) {
-        BufferedImage copy = deepCopy(originalTile);
-        for (int x = 0; x < emblemImage.getWidth(); x++) {
-            for (int y = 0; y < emblemImage.getHeight(); y++) {
-                Color emblemPixel = new Color(emblemImage.getRGB(x, y), true);
-                Color imagePixel = new Color(copy.getRGB(x, y), true);
-                Color blendedColor = blend(imagePixel, emblemPixel, false);
-                copy.setRGB(x, y, blendedColor.getRGB());
+        int[] pixels = pixelsOf(originalTile);
+        int[] emblem = pixelsOf(emblemImage);
+        int width = originalTile.getWidth();
+        int emblemWidth = emblemImage.getWidth();
+        IntStream.range(0, emblemImage.getHeight()).parallel().forEach(y -> {
+            for (int x = 0; x < emblemWidth; x++) {
+                pixels[y * width + x] = blend(pixels[y * width + x], emblem[y * emblemWidth + x], false);
             }
-        }
-        return copy;
+        });
+        return imageOf(pixels, width, originalTile.getHeight());
     }
 
     /**
@@ -63,6 +86,9 @@ public final class PaintShop {
      */
     public static void clearCachedImages() {
         chachedMeepleImages.clear();
+        coloredHighlights.clear();
+        coloredTiles.clear();
+        coloredTileIcons.clear();
     }
 
     /**
@@ -72,7 +98,8 @@ public final class PaintShop {
      * @return the highlighted tile.
      */
     public static ImageIcon getColoredHighlight(Player player, int size, boolean fastScaling) {
-        BufferedImage coloredImage = colorMaskBased(highlightBaseImage, highlightImage, player.getColor());
+        BufferedImage coloredImage = coloredHighlights.computeIfAbsent(player.getColor().getRGB(),
+                it -> colorMaskBased(highlightBaseImage, highlightImage, player.getColor()));
         Image smallImage = scaleDown(coloredImage, size, fastScaling, coloredImage.getTransparency());
         int largeSize = Math.min(size * HIGH_DPI_FACTOR, GameSettings.TILE_RESOLUTION);
         Image largeImage = scaleDown(coloredImage, largeSize, fastScaling, coloredImage.getTransparency());
@@ -80,7 +107,7 @@ public final class PaintShop {
     }
 
     /**
-     * Returns a colored tile image icon.
+     * Returns a colored tile image icon. The colored images are cached, which means a zoom change only scales them.
      * @param tile is the tile to be colored.
      * @param player is the player whose color is used.
      * @param size is the desired tile size.
@@ -88,13 +115,24 @@ public final class PaintShop {
      * @return the colored tile image wrapped in a image icon.
      */
     public static ImageIcon getColoredTile(Tile tile, Player player, int size, boolean fastScaling) {
-        Image baseImage = ConcurrentTileImageScaler.getScaledImage(tile, GameSettings.TILE_RESOLUTION, fastScaling);
-        BufferedImage bufferedBaseImage = bufferedImageOf(baseImage);
-        BufferedImage coloredImage = colorMaskBased(bufferedBaseImage, highlightImage, player.getColor());
+        ColoredTileKey tileKey = new ColoredTileKey(tile.getType(), tile.getImageIndex(), tile.hasEmblem(), player.getColor().getRGB());
+        ColoredIconKey iconKey = new ColoredIconKey(tileKey, size, fastScaling);
+        ImageIcon cachedIcon = coloredTileIcons.get(iconKey);
+        if (cachedIcon != null) {
+            return cachedIcon;
+        }
+        BufferedImage coloredImage = coloredTiles.get(tileKey);
+        if (coloredImage == null) {
+            Image baseImage = ConcurrentTileImageScaler.getScaledImage(tile, GameSettings.TILE_RESOLUTION, fastScaling);
+            coloredImage = colorMaskBased(bufferedImageOf(baseImage), highlightImage, player.getColor());
+            coloredTiles.put(tileKey, coloredImage);
+        }
         Image small = scaleDown(coloredImage, size, fastScaling, coloredImage.getTransparency());
         int largeSize = Math.min(size * HIGH_DPI_FACTOR, GameSettings.TILE_RESOLUTION);
         Image large = scaleDown(coloredImage, largeSize, fastScaling, coloredImage.getTransparency());
-        return new ImageIcon(new BaseMultiResolutionImage(small, large));
+        ImageIcon icon = new ImageIcon(new BaseMultiResolutionImage(small, large));
+        coloredTileIcons.put(iconKey, icon);
+        return icon;
     }
 
     /**
@@ -144,23 +182,29 @@ public final class PaintShop {
     }
 
     /**
-     * Blends to colors correctly based on alpha composition. Either blends both colors or applies the second on the first
-     * one.
+     * Blends to ARGB colors correctly based on alpha composition. Either blends both colors or applies the second on the
+     * first one.
      * @param first is the first color to be applied.
      * @param second is the second color to be applied.
      * @param blendEqually applies the second on the first one of true, blends on alpha values if false.
      * @return the blended color.
      */
-    private static Color blend(Color first, Color second, boolean blendEqually) {
-        double totalAlpha = blendEqually ? first.getAlpha() + second.getAlpha() : MAXIMAL_ALPHA;
-        double firstWeight = blendEqually ? first.getAlpha() : MAXIMAL_ALPHA - second.getAlpha();
-        firstWeight /= totalAlpha;
-        double secondWeight = second.getAlpha() / totalAlpha;
-        double red = firstWeight * first.getRed() + secondWeight * second.getRed();
-        double green = firstWeight * first.getGreen() + secondWeight * second.getGreen();
-        double blue = firstWeight * first.getBlue() + secondWeight * second.getBlue();
-        int alpha = Math.max(first.getAlpha(), second.getAlpha());
-        return new Color((int) red, (int) green, (int) blue, alpha);
+    private static int blend(int first, int second, boolean blendEqually) {
+        int firstAlpha = first >>> ALPHA_SHIFT;
+        int secondAlpha = second >>> ALPHA_SHIFT;
+        int totalAlpha = blendEqually ? firstAlpha + secondAlpha : MAXIMAL_ALPHA;
+        if (totalAlpha == 0) {
+            return 0; // both colors are fully transparent
+        }
+        int firstWeight = blendEqually ? firstAlpha : MAXIMAL_ALPHA - secondAlpha;
+        int red = blendChannel(first, second, RED_SHIFT, firstWeight, secondAlpha, totalAlpha);
+        int green = blendChannel(first, second, GREEN_SHIFT, firstWeight, secondAlpha, totalAlpha);
+        int blue = blendChannel(first, second, 0, firstWeight, secondAlpha, totalAlpha);
+        return Math.max(firstAlpha, secondAlpha) << ALPHA_SHIFT | red << RED_SHIFT | green << GREEN_SHIFT | blue;
+    }
+
+    private static int blendChannel(int first, int second, int shift, int firstWeight, int secondWeight, int totalWeight) {
+        return ((first >>> shift & CHANNEL_MASK) * firstWeight + (second >>> shift & CHANNEL_MASK) * secondWeight) / totalWeight;
     }
 
     /**
@@ -191,17 +235,18 @@ public final class PaintShop {
     }
 
     private static BufferedImage colorMaskBased(BufferedImage imageToColor, BufferedImage maskImage, Color targetColor) {
-        BufferedImage image = deepCopy(imageToColor);
-        for (int x = 0; x < maskImage.getWidth(); x++) {
-            for (int y = 0; y < maskImage.getHeight(); y++) {
-                Color maskPixel = new Color(maskImage.getRGB(x, y), true);
-                Color targetPixel = new Color(targetColor.getRed(), targetColor.getGreen(), targetColor.getBlue(), maskPixel.getAlpha());
-                Color imagePixel = new Color(image.getRGB(x, y), true);
-                Color blendedColor = blend(imagePixel, targetPixel, true);
-                image.setRGB(x, y, blendedColor.getRGB());
+        int[] pixels = pixelsOf(imageToColor);
+        int[] mask = pixelsOf(maskImage);
+        int width = imageToColor.getWidth();
+        int maskWidth = maskImage.getWidth();
+        int color = targetColor.getRGB() & COLOR_MASK;
+        IntStream.range(0, maskImage.getHeight()).parallel().forEach(y -> {
+            for (int x = 0; x < maskWidth; x++) {
+                int targetPixel = mask[y * maskWidth + x] & ~COLOR_MASK | color; // alpha of the mask
+                pixels[y * width + x] = blend(pixels[y * width + x], targetPixel, true);
             }
-        }
-        return image;
+        });
+        return imageOf(pixels, width, imageToColor.getHeight());
     }
 
     private static String createKey(Color color, TerrainType meepleType, int size) {
@@ -212,26 +257,45 @@ public final class PaintShop {
         return meepleType + KEY_SEPARATOR + size + KEY_SEPARATOR;
     }
 
-    // copies a image to avoid side effects.
-    private static BufferedImage deepCopy(BufferedImage image) {
-        ColorModel model = image.getColorModel();
-        boolean isAlphaPremultiplied = model.isAlphaPremultiplied();
-        WritableRaster raster = image.copyData(image.getRaster().createCompatibleWritableRaster());
-        return ImageLoadingUtil.makeCompatible(new BufferedImage(model, raster, isAlphaPremultiplied, null));
+    // creates a bounded cache that evicts the least recently used entry.
+    private static <K, V> Map<K, V> createCache(int capacity) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    // copies the ARGB pixels of an image to avoid side effects.
+    private static int[] pixelsOf(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    // creates an image from ARGB pixels, the pixels are copied as exposed data arrays prevent hardware acceleration.
+    private static BufferedImage imageOf(int[] pixels, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.getRaster().setDataElements(0, 0, width, height, pixels);
+        return image;
     }
 
     // Colors a meeple with RGB color.
     private static Image paintMeeple(TerrainType meepleType, int color, int size) {
-        BufferedImage image = deepCopy(imageMap.get(meepleType));
+        BufferedImage meeple = imageMap.get(meepleType);
         BufferedImage template = templateMap.get(meepleType);
-        for (int x = 0; x < template.getWidth(); x++) {
-            for (int y = 0; y < template.getHeight(); y++) {
-                if (template.getRGB(x, y) == Color.BLACK.getRGB()) {
-                    image.setRGB(x, y, color);
+        int[] pixels = pixelsOf(meeple);
+        int[] templatePixels = pixelsOf(template);
+        int width = meeple.getWidth();
+        int templateWidth = template.getWidth();
+        int black = Color.BLACK.getRGB();
+        IntStream.range(0, template.getHeight()).parallel().forEach(y -> {
+            for (int x = 0; x < templateWidth; x++) {
+                if (templatePixels[y * templateWidth + x] == black) {
+                    pixels[y * width + x] = color;
                 }
             }
-        }
-        return image.getScaledInstance(size, size, Image.SCALE_SMOOTH);
+        });
+        return imageOf(pixels, width, meeple.getHeight()).getScaledInstance(size, size, Image.SCALE_SMOOTH);
     }
 
     private static Image scaleDown(Image image, int size, boolean fastScaling, int transparency) {
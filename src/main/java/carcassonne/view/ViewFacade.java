@@ -2,8 +2,15 @@ package carcassonne.view;
 
 import java.awt.EventQueue;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
+import javax.swing.Timer;
+
 import carcassonne.model.Round;
 import carcassonne.model.tile.Tile;
 import carcassonne.view.main.MainView;
@@ -15,10 +22,14 @@ import carcassonne.view.util.GameMessage;
 
 /**
  * Facade class for the different views that manages proper swing threading for the UI access. This is not a traditional
- * facade per se, as it technically grant access to its managed objects.
+ * facade per se, as it technically grant access to its managed objects. The jobs on the views are collected in a batch,
+ * which is executed on the {@link EventQueue} once per display frame or as soon as the game waits for the views. A job
+ * with a key replaces the unexecuted job with the same key on the same view, which means repeated updates of the same
+ * view element are only executed once.
  * @author Timur Saglam
  */
 public class ViewFacade {
+    private static final int FRAME_DURATION = 16; // milliseconds between two executions of the batch
     private final MainView mainView;
     private final MeepleView meepleView;
     private final Scoreboard scoreboard;
@@ -26,6 +37,15 @@ public class ViewFacade {
     private GameStatisticsView gameStatistics;
     private Tile selectedTile;
     private int jobCounter;
+    private CompletableFuture<Void> idle; // completes when the scheduled jobs are done
+    private final Map<Object, Runnable> batch; // unexecuted jobs in the order of their scheduling
+    private final Timer frameTimer;
+
+    /**
+     * Identifies a job that replaces the unexecuted job with the same key on the same view.
+     */
+    private record JobKey(Object view, Object key) {
+    }
 
     /**
      * Creates a view container that encapsulates the access to the three main user interfaces. Can be seen as view facade.
@@ -41,6 +61,10 @@ public class ViewFacade {
         this.tileView = tileView;
         this.meepleView = placmementView;
         this.scoreboard = mainView.getScoreboard();
+        idle = CompletableFuture.completedFuture(null);
+        batch = new LinkedHashMap<>();
+        frameTimer = new Timer(FRAME_DURATION, event -> executeBatch());
+        frameTimer.setRepeats(false);
     }
 
     /**
@@ -48,7 +72,17 @@ public class ViewFacade {
      * @param job is the job of form of a {@link Consumer}.
      */
     public void onMainView(Consumer<MainView> job) {
-        schedule(() -> job.accept(mainView));
+        schedule(new Object(), () -> job.accept(mainView));
+    }
+
+    /**
+     * Executes a job on the main view, which replaces the unexecuted job with the same key. The job is scheduled with the
+     * {@link EventQueue}.
+     * @param key identifies the job, for example the element of the view that the job updates.
+     * @param job is the job of form of a {@link Consumer}.
+     */
+    public void onMainView(Object key, Consumer<MainView> job) {
+        schedule(new JobKey(mainView, key), () -> job.accept(mainView));
     }
 
     /**
@@ -56,7 +90,17 @@ public class ViewFacade {
      * @param job is the job of form of a {@link Consumer}.
      */
     public void onMeepleView(Consumer<MeepleView> job) {
-        schedule(() -> job.accept(meepleView));
+        schedule(new Object(), () -> job.accept(meepleView));
+    }
+
+    /**
+     * Executes a job on the placement view, which replaces the unexecuted job with the same key. The job is scheduled with the
+     * {@link EventQueue}.
+     * @param key identifies the job, for example the element of the view that the job updates.
+     * @param job is the job of form of a {@link Consumer}.
+     */
+    public void onMeepleView(Object key, Consumer<MeepleView> job) {
+        schedule(new JobKey(meepleView, key), () -> job.accept(meepleView));
     }
 
     /**
@@ -64,7 +108,17 @@ public class ViewFacade {
      * @param job is the job of form of a {@link Consumer}.
      */
     public void onScoreboard(Consumer<Scoreboard> job) {
-        schedule(() -> job.accept(scoreboard));
+        schedule(new Object(), () -> job.accept(scoreboard));
+    }
+
+    /**
+     * Executes a job on the scoreboard, which replaces the unexecuted job with the same key. The job is scheduled with the
+     * {@link EventQueue}.
+     * @param key identifies the job, for example the element of the view that the job updates.
+     * @param job is the job of form of a {@link Consumer}.
+     */
+    public void onScoreboard(Object key, Consumer<Scoreboard> job) {
+        schedule(new JobKey(scoreboard, key), () -> job.accept(scoreboard));
     }
 
     /**
@@ -72,7 +126,17 @@ public class ViewFacade {
      * @param job is the job of form of a {@link Consumer}.
      */
     public void onTileView(Consumer<TileView> job) {
-        schedule(() -> job.accept(tileView));
+        schedule(new Object(), () -> job.accept(tileView));
+    }
+
+    /**
+     * Executes a job on the tile view, which replaces the unexecuted job with the same key. The job is scheduled with the
+     * {@link EventQueue}.
+     * @param key identifies the job, for example the element of the view that the job updates.
+     * @param job is the job of form of a {@link Consumer}.
+     */
+    public void onTileView(Object key, Consumer<TileView> job) {
+        schedule(new JobKey(tileView, key), () -> job.accept(tileView));
     }
 
     /**
@@ -80,14 +144,14 @@ public class ViewFacade {
      * @param round is the current round.
      */
     public void showGameStatistics(Round round) {
-        schedule(() -> gameStatistics = new GameStatisticsView(mainView, round));
+        schedule(new Object(), () -> gameStatistics = new GameStatisticsView(mainView, round));
     }
 
     /**
      * Closes the statistics view.
      */
     public void closeGameStatistics() {
-        schedule(() -> {
+        schedule(new Object(), () -> {
             if (gameStatistics != null) {
                 gameStatistics.closeView();
             }
@@ -100,7 +164,10 @@ public class ViewFacade {
      */
     public Tile getSelectedTile() {
         try {
-            EventQueue.invokeAndWait(() -> selectedTile = tileView.getSelectedTile());
+            EventQueue.invokeAndWait(() -> {
+                executeBatch(); // the scheduled jobs might change the selected tile
+                selectedTile = tileView.getSelectedTile();
+            });
         } catch (InvocationTargetException | InterruptedException exception) {
             exception.printStackTrace();
             GameMessage.showError("Cannot retrieve selected tile:\n" + exception);
@@ -109,25 +176,64 @@ public class ViewFacade {
     }
 
     /**
-     * Indicates whether there are jobs that are queued but are not completed yet.
-     * @return true if there is at least one unfinished job.
+     * Returns a future that completes as soon as all jobs that are queued are completed, which allows to wait for the user
+     * interface without polling it. The future is already completed if there are no unfinished jobs. As the caller waits
+     * for the views, for example at the end of a turn, the unexecuted jobs are executed without waiting for the next frame.
+     * @return the future.
      */
-    public boolean isBusy() {
-        return jobCounter > 0;
+    public synchronized CompletableFuture<Void> whenIdle() {
+        if (!batch.isEmpty()) {
+            EventQueue.invokeLater(this::executeBatch);
+        }
+        return idle;
     }
 
     /**
-     * Schedules and tracks a job.
+     * Schedules and tracks a job, which replaces the unexecuted job with the same key.
      */
-    private void schedule(Runnable job) {
+    private void schedule(Object key, Runnable job) {
+        synchronized (this) {
+            if (jobCounter == 0) {
+                idle = new CompletableFuture<>();
+            }
+            if (batch.remove(key) == null) { // a replaced job is still tracked, as its replacement takes its place
+                jobCounter++;
+            }
+            batch.put(key, job); // at the end, as it might depend on the jobs scheduled before it
+            if (!frameTimer.isRunning()) {
+                frameTimer.start();
+            }
+        }
+    }
+
+    // executes the unexecuted jobs, must be called on the event dispatch thread.
+    private void executeBatch() {
+        List<Runnable> jobs;
         synchronized (this) {
-            jobCounter++;
+            jobs = new ArrayList<>(batch.values());
+            batch.clear();
         }
-        EventQueue.invokeLater(() -> {
-            job.run();
-            synchronized (this) {
-                jobCounter--;
+        for (Runnable job : jobs) {
+            try {
+                job.run();
+            } catch (RuntimeException exception) { // a failed job must not prevent the other jobs of the batch
+                exception.printStackTrace();
+            } finally {
+                finishJob();
             }
-        });
+        }
+    }
+
+    // completes the idle future after the last unfinished job, a failed job must not block waiting threads.
+    private void finishJob() {
+        CompletableFuture<Void> drained = null;
+        synchronized (this) {
+            if (--jobCounter == 0) {
+                drained = idle;
+            }
+        }
+        if (drained != null) {
+            drained.complete(null); // outside of the lock, as it runs dependent actions
+        }
     }
 }
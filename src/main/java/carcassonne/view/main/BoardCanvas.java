@@ -0,0 +1,414 @@
+package carcassonne.view.main;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import carcassonne.control.ControllerFacade;
+import carcassonne.model.Player;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+import carcassonne.view.PaintShop;
+
+/**
+ * A single UI component that depicts the tiles, the highlights, and the meeples of the grid. It only paints the cells of
+ * the grid that intersect the area to repaint, which is limited to the visible part of the scroll pane. Mouse events are
+ * mapped to the cells of the grid and the meeple positions on the tiles by their coordinates.
+ * @author Timur Saglam
+ */
+public class BoardCanvas extends JComponent {
+    private static final long serialVersionUID = -2186315733092937310L;
+    private static final int MEEPLE_SCALING_THRESHOLD = 100;
+    private static final int INITIAL_MEEPLE_SIZE = 25;
+    private static final int MEEPLE_GRID_SIZE = 3; // meeple positions per row and column of a tile
+    private final int gridWidth;
+    private final int gridHeight;
+    private final transient ControllerFacade controller;
+    private final transient Tile defaultTile;
+    private final transient Tile highlightTile;
+    private final transient Tile[] tiles; // placed tiles by cell index, null if the cell is empty
+    private final ImageIcon[] tileIcons; // scaled images of the placed tiles, created lazily
+    private final BitSet highlights;
+    private final transient Map<Integer, Player> placementHighlights;
+    private final transient Map<Integer, Meeple[]> meeples; // by cell index, then by grid direction
+    private ImageIcon defaultIcon;
+    private ImageIcon highlightIcon;
+    private ImageIcon coloredHighlight;
+    private int tileSize;
+    private int meepleSize;
+    private boolean preview;
+    private int hoveredCell;
+    private GridDirection hoveredPosition;
+
+    /**
+     * Meeple or meeple preview on a position of a tile.
+     */
+    private record Meeple(TerrainType terrain, Player player, boolean preview) {
+    }
+
+    /**
+     * Creates the board canvas.
+     * @param controller is the main controller.
+     * @param gridWidth is the width of the grid in tiles.
+     * @param gridHeight is the height of the grid in tiles.
+     * @param zoomLevel is the zoom level, and therefore the tile size.
+     */
+    public BoardCanvas(ControllerFacade controller, int gridWidth, int gridHeight, int zoomLevel) {
+        this.controller = controller;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        defaultTile = new Tile(TileType.Null);
+        highlightTile = new Tile(TileType.Null);
+        defaultTile.rotateRight();
+        tiles = new Tile[gridWidth * gridHeight];
+        tileIcons = new ImageIcon[tiles.length];
+        highlights = new BitSet(tiles.length);
+        placementHighlights = new HashMap<>();
+        meeples = new HashMap<>();
+        hoveredCell = -1;
+        setBackground(GameSettings.UI_COLOR);
+        setOpaque(true);
+        changeZoomLevel(zoomLevel, false);
+        MouseAdapter mouseAdapter = new BoardMouseAdapter();
+        addMouseListener(mouseAdapter);
+        addMouseMotionListener(mouseAdapter);
+    }
+
+    /**
+     * Adapts the canvas to a new zoom level.
+     * @param zoomLevel is the zoom level, and therefore also the tile size.
+     * @param preview determines if the tiles are rendered in preview mode (fast but ugly).
+     */
+    public void changeZoomLevel(int zoomLevel, boolean preview) {
+        tileSize = zoomLevel;
+        this.preview = preview;
+        meepleSize = INITIAL_MEEPLE_SIZE * Math.min(zoomLevel, MEEPLE_SCALING_THRESHOLD) / 100;
+        defaultIcon = null;
+        highlightIcon = null;
+        Arrays.fill(tileIcons, null); // scaled again when they are visible
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Highlights a specific cell to indicate that it is a possible placement spot.
+     * @param x is the x-coordinate of that cell.
+     * @param y is the y-coordinate of that cell.
+     */
+    public void highlightTile(int x, int y) {
+        highlights.set(indexOf(x, y));
+        repaintCell(indexOf(x, y));
+    }
+
+    /**
+     * Highlights a specific tile to indicate that a player recently placed it.
+     * @param x is the x-coordinate of that tile.
+     * @param y is the y-coordinate of that tile.
+     * @param player is the player that placed the tile.
+     */
+    public void highlightPlacement(int x, int y, Player player) {
+        placementHighlights.put(indexOf(x, y), player);
+        invalidateCell(indexOf(x, y));
+    }
+
+    /**
+     * Places a tile on a specific cell.
+     * @param tile is the tile to place.
+     * @param x is the x-coordinate of that cell.
+     * @param y is the y-coordinate of that cell.
+     */
+    public void placeTile(Tile tile, int x, int y) {
+        tiles[indexOf(x, y)] = tile;
+        invalidateCell(indexOf(x, y));
+    }
+
+    /**
+     * Sets the colored highlight that is shown when the mouse hovers over a highlighted cell.
+     * @param coloredHighlight is the {@link ImageIcon} depicting the highlight.
+     */
+    public void setColoredHighlight(ImageIcon coloredHighlight) {
+        this.coloredHighlight = coloredHighlight;
+        if (hoveredCell >= 0) {
+            repaintCell(hoveredCell);
+        }
+    }
+
+    /**
+     * Refreshes the placement highlights, for example after the player colors changed.
+     */
+    public void refreshPlacementHighlights() {
+        placementHighlights.keySet().forEach(this::invalidateCell);
+    }
+
+    /**
+     * Resets the highlights that indicate possible placement spots.
+     */
+    public void resetHighlights() {
+        highlights.stream().forEach(this::repaintCell);
+        highlights.clear();
+    }
+
+    /**
+     * Resets the highlights that indicate recent placements.
+     */
+    public void resetPlacementHighlights() {
+        placementHighlights.keySet().forEach(this::invalidateCell);
+        placementHighlights.clear();
+    }
+
+    /**
+     * Enables the meeple preview on a specific tile, which shows the positions where the current player can place a
+     * meeple.
+     * @param x is the x-coordinate of the tile.
+     * @param y is the y-coordinate of the tile.
+     * @param tile is the tile.
+     * @param currentPlayer is the player who is currently active.
+     */
+    public void enableMeeplePreview(int x, int y, Tile tile, Player currentPlayer) {
+        Meeple[] tileMeeples = meeplesOf(indexOf(x, y));
+        GameSettings settings = controller.getSettings();
+        for (GridDirection direction : GridDirection.values()) {
+            TerrainType terrain = tile.getTerrain(direction);
+            if (tile.hasMeepleSpot(direction) && tile.allowsPlacingMeeple(direction, currentPlayer, settings) && settings.getMeepleRule(terrain)) {
+                tileMeeples[direction.ordinal()] = new Meeple(terrain, currentPlayer, true);
+            }
+        }
+        repaintCell(indexOf(x, y));
+    }
+
+    /**
+     * Places a meeple on a specific position of a tile.
+     * @param x is the x-coordinate of the tile.
+     * @param y is the y-coordinate of the tile.
+     * @param terrain determines the meeple type.
+     * @param position is the position where the meeple is placed on the tile.
+     * @param owner is the player who owns the meeple.
+     */
+    public void placeMeeple(int x, int y, TerrainType terrain, GridDirection position, Player owner) {
+        meeplesOf(indexOf(x, y))[position.ordinal()] = new Meeple(terrain, owner, false);
+        repaintCell(indexOf(x, y));
+    }
+
+    /**
+     * Removes the meeples and the meeple preview of a specific tile.
+     * @param x is the x-coordinate of the tile.
+     * @param y is the y-coordinate of the tile.
+     */
+    public void resetMeeples(int x, int y) {
+        if (meeples.remove(indexOf(x, y)) != null) {
+            repaintCell(indexOf(x, y));
+        }
+    }
+
+    /**
+     * Resets the canvas to the empty grid.
+     */
+    public void reset() {
+        Arrays.fill(tiles, null);
+        Arrays.fill(tileIcons, null);
+        highlights.clear();
+        placementHighlights.clear();
+        meeples.clear();
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(gridWidth * tileSize, gridHeight * tileSize);
+    }
+
+    @Override
+    public Dimension getMinimumSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Rectangle area = graphics.getClipBounds();
+        if (area == null) {
+            area = getVisibleRect();
+        }
+        graphics.setColor(getBackground());
+        graphics.fillRect(area.x, area.y, area.width, area.height);
+        int firstX = Math.max(0, area.x / tileSize);
+        int firstY = Math.max(0, area.y / tileSize);
+        int lastX = Math.min(gridWidth - 1, (area.x + area.width - 1) / tileSize);
+        int lastY = Math.min(gridHeight - 1, (area.y + area.height - 1) / tileSize);
+        for (int y = firstY; y <= lastY; y++) {
+            for (int x = firstX; x <= lastX; x++) {
+                int index = indexOf(x, y);
+                iconOf(index).paintIcon(this, graphics, x * tileSize, y * tileSize);
+                Meeple[] tileMeeples = meeples.get(index);
+                if (tileMeeples != null) {
+                    paintMeeples(graphics, index, tileMeeples);
+                }
+            }
+        }
+    }
+
+    // returns the image of a cell, the images of placed tiles are scaled when they are first painted.
+    private ImageIcon iconOf(int index) {
+        Player placingPlayer = placementHighlights.get(index);
+        if (tiles[index] == null && placingPlayer == null) {
+            if (!highlights.get(index)) {
+                if (defaultIcon == null) {
+                    defaultIcon = defaultTile.getScaledIcon(tileSize, preview);
+                }
+                return defaultIcon;
+            }
+            if (index == hoveredCell && coloredHighlight != null) {
+                return coloredHighlight;
+            }
+            if (highlightIcon == null) {
+                highlightIcon = highlightTile.getScaledIcon(tileSize, preview);
+            }
+            return highlightIcon;
+        }
+        if (tileIcons[index] == null) {
+            Tile tile = tiles[index] == null ? defaultTile : tiles[index];
+            if (placingPlayer == null) {
+                tileIcons[index] = tile.getScaledIcon(tileSize, preview);
+            } else {
+                tileIcons[index] = PaintShop.getColoredTile(tile, placingPlayer, tileSize, preview);
+            }
+        }
+        return tileIcons[index];
+    }
+
+    // paints the meeples of a tile centered on their positions, a hovered meeple preview is painted in color.
+    private void paintMeeples(Graphics graphics, int index, Meeple[] tileMeeples) {
+        for (GridDirection direction : GridDirection.values()) {
+            Meeple meeple = tileMeeples[direction.ordinal()];
+            if (meeple != null) {
+                ImageIcon icon;
+                if (!meeple.preview() || index == hoveredCell && direction == hoveredPosition) {
+                    icon = PaintShop.getColoredMeeple(meeple.terrain(), meeple.player(), meepleSize);
+                } else {
+                    icon = PaintShop.getPreviewMeeple(meeple.terrain(), meepleSize);
+                }
+                Rectangle bounds = positionBounds(index, direction);
+                icon.paintIcon(this, graphics, bounds.x + (bounds.width - icon.getIconWidth()) / 2,
+                        bounds.y + (bounds.height - icon.getIconHeight()) / 2);
+            }
+        }
+    }
+
+    // returns the area of a meeple position on a tile, the tile is divided into three rows and three columns.
+    private Rectangle positionBounds(int index, GridDirection direction) {
+        int column = direction.getX() + 1;
+        int row = direction.getY() + 1;
+        int left = index % gridWidth * tileSize + column * tileSize / MEEPLE_GRID_SIZE;
+        int top = index / gridWidth * tileSize + row * tileSize / MEEPLE_GRID_SIZE;
+        int right = index % gridWidth * tileSize + (column + 1) * tileSize / MEEPLE_GRID_SIZE;
+        int bottom = index / gridWidth * tileSize + (row + 1) * tileSize / MEEPLE_GRID_SIZE;
+        return new Rectangle(left, top, right - left, bottom - top);
+    }
+
+    private Meeple[] meeplesOf(int index) {
+        return meeples.computeIfAbsent(index, it -> new Meeple[GridDirection.values().length]);
+    }
+
+    // discards the scaled image of a cell and repaints it.
+    private void invalidateCell(int index) {
+        tileIcons[index] = null;
+        repaintCell(index);
+    }
+
+    private void repaintCell(int index) {
+        repaint(index % gridWidth * tileSize, index / gridWidth * tileSize, tileSize, tileSize);
+    }
+
+    private int indexOf(int x, int y) {
+        return y * gridWidth + x;
+    }
+
+    /**
+     * Maps the mouse events to the cells of the grid and the meeple positions on the tiles.
+     */
+    private class BoardMouseAdapter extends MouseAdapter {
+
+        @Override
+        public void mousePressed(MouseEvent event) {
+            int index = cellAt(event);
+            if (index >= 0) {
+                GridDirection position = previewPositionAt(event, index);
+                if (position == null) {
+                    controller.requestTilePlacement(index % gridWidth, index / gridWidth);
+                } else if (SwingUtilities.isLeftMouseButton(event)) {
+                    controller.requestMeeplePlacement(position);
+                }
+            }
+        }
+
+        @Override
+        public void mouseMoved(MouseEvent event) {
+            int index = cellAt(event);
+            hover(index, index >= 0 ? previewPositionAt(event, index) : null);
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent event) {
+            mouseMoved(event);
+        }
+
+        @Override
+        public void mouseExited(MouseEvent event) {
+            hover(-1, null);
+        }
+
+        // updates the hovered cell and meeple position, only the affected cells are repainted.
+        private void hover(int index, GridDirection position) {
+            if (index != hoveredCell || position != hoveredPosition) {
+                int previousCell = hoveredCell;
+                hoveredCell = index;
+                hoveredPosition = position;
+                if (previousCell >= 0) {
+                    repaintCell(previousCell);
+                }
+                if (index >= 0 && index != previousCell) {
+                    repaintCell(index);
+                }
+            }
+        }
+
+        private int cellAt(MouseEvent event) {
+            int x = event.getX() / tileSize;
+            int y = event.getY() / tileSize;
+            if (event.getX() < 0 || event.getY() < 0 || x >= gridWidth || y >= gridHeight) {
+                return -1;
+            }
+            return indexOf(x, y);
+        }
+
+        // returns the meeple position under the mouse if it shows a meeple preview, or null if it does not.
+        private GridDirection previewPositionAt(MouseEvent event, int index) {
+            Meeple[] tileMeeples = meeples.get(index);
+            if (tileMeeples == null) {
+                return null;
+            }
+            int column = (event.getX() - index % gridWidth * tileSize) * MEEPLE_GRID_SIZE / tileSize;
+            int row = (event.getY() - index / gridWidth * tileSize) * MEEPLE_GRID_SIZE / tileSize;
+            GridDirection position = GridDirection.values2D()[column][row];
+            Meeple meeple = tileMeeples[position.ordinal()];
+            return meeple != null && meeple.preview() ? position : null;
+        }
+    }
+}
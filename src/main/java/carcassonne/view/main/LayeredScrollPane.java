@@ -56,13 +56,6 @@ public class LayeredScrollPane extends JScrollPane {
         Stream.of(components).forEach(layeredPane::remove);
     }
 
-    /**
-     * Repaint the layered pane and its layers.
-     */
-    public void repaintLayers() {
-        layeredPane.repaint();
-    }
-
     /**
      * Centers the scroll pane view to show the center of the grid. Since this method revalidates the viewport it can be
      * expensive if the scroll pane contains complex content (e.g. a very large grid).
@@ -43,8 +43,7 @@ public class MainView extends JFrame implements NotifiableView {
     private Player currentPlayer;
     private int gridHeight;
     private int gridWidth;
-    private MeepleLayer meepleLayer;
-    private TileLayer tileLayer;
+    private BoardCanvas board;
     private MainMenuBar menuBar;
     private LayeredScrollPane scrollPane;
     private int zoomLevel;
@@ -75,9 +74,7 @@ public class MainView extends JFrame implements NotifiableView {
      * Resets the tile grid and the meeple grid to return to the initial state.
      */
     public void resetGrid() {
-        meepleLayer.resetLayer();
-        tileLayer.resetLayer();
-        validate(); // might not be required all the time but is fast so it does not matter
+        board.reset();
     }
 
     /**
@@ -86,10 +83,9 @@ public class MainView extends JFrame implements NotifiableView {
     public void rebuildGrid() {
         gridWidth = controller.getSettings().getGridWidth();
         gridHeight = controller.getSettings().getGridHeight();
-        scrollPane.removeLayers(meepleLayer, tileLayer);
-        tileLayer = new TileLayer(controller, gridHeight, gridWidth, zoomLevel);
-        meepleLayer = new MeepleLayer(controller, gridWidth, gridHeight, zoomLevel);
-        scrollPane.addLayers(meepleLayer, tileLayer);
+        scrollPane.removeLayers(board);
+        board = new BoardCanvas(controller, gridWidth, gridHeight, zoomLevel);
+        scrollPane.addLayers(board);
         scrollPane.validateAndCenter();
     }
 
@@ -98,7 +94,7 @@ public class MainView extends JFrame implements NotifiableView {
      */
     public void removeMeeple(int x, int y) {
         checkCoordinates(x, y);
-        meepleLayer.resetPanel(x, y);
+        board.resetMeeples(x, y);
     }
 
     /**
@@ -110,7 +106,7 @@ public class MainView extends JFrame implements NotifiableView {
         int x = tile.getGridSpot().getX();
         int y = tile.getGridSpot().getY();
         checkCoordinates(x, y);
-        meepleLayer.resetPanel(x, y);
+        board.resetMeeples(x, y);
     }
 
     /**
@@ -195,15 +191,12 @@ public class MainView extends JFrame implements NotifiableView {
      */
     public void updateToChangedZoomLevel(ZoomMode mode) {
         if (currentPlayer != null && mode == SMOOTH) { // only update highlights when there is an active round
-            tileLayer.refreshHighlight(PaintShop.getColoredHighlight(currentPlayer, zoomLevel, mode == FAST));
+            board.setColoredHighlight(PaintShop.getColoredHighlight(currentPlayer, zoomLevel, mode == FAST));
         } else {
-            tileLayer.resetPlacementHighlights();
+            board.resetPlacementHighlights();
         }
-        tileLayer.changeZoomLevel(zoomLevel, mode == FAST); // Executed in parallel for improved performance
-        meepleLayer.synchronizeLayerSizes(gridWidth, gridHeight, zoomLevel); // IMPORTANT: Ensures that the meeples are on the tiles.
-        meepleLayer.changeZoomLevel(zoomLevel);
+        board.changeZoomLevel(zoomLevel, mode == FAST); // only the visible tiles are scaled when they are painted
         scrollPane.validateAndCenter();
-        scrollPane.repaintLayers(); // IMPORTANT: Prevents meeples from disappearing.
     }
 
     /**
@@ -216,7 +209,7 @@ public class MainView extends JFrame implements NotifiableView {
         }
         this.currentPlayer = currentPlayer;
         ImageIcon newHighlight = PaintShop.getColoredHighlight(currentPlayer, zoomLevel, false);
-        tileLayer.refreshHighlight(newHighlight);
+        board.setColoredHighlight(newHighlight);
     }
 
     /**
@@ -226,7 +219,7 @@ public class MainView extends JFrame implements NotifiableView {
      */
     public void setSelectionHighlight(int x, int y) {
         checkCoordinates(x, y);
-        tileLayer.highlightTile(x, y);
+        board.highlightTile(x, y);
     }
 
     /**
@@ -236,8 +229,7 @@ public class MainView extends JFrame implements NotifiableView {
      */
     public void setPlacementHighlight(int x, int y) {
         checkCoordinates(x, y);
-        tileLayer.highlightTile(x, y, currentPlayer);
-        scrollPane.repaintLayers();
+        board.highlightPlacement(x, y, currentPlayer);
     }
 
     /**
@@ -246,16 +238,14 @@ public class MainView extends JFrame implements NotifiableView {
      * @param y is the y coordinate.
      */
     public void resetPlacementHighlights() {
-        tileLayer.resetPlacementHighlights();
-        scrollPane.repaintLayers();
+        board.resetPlacementHighlights();
     }
 
     /**
      * Reset Highlights of positions on the grid to indicate that the tile is a possible placement spot.
      */
     public void resetHighlights() {
-        tileLayer.resetHighlights();
-        scrollPane.repaintLayers();
+        board.resetHighlights();
     }
 
     /**
@@ -269,8 +259,7 @@ public class MainView extends JFrame implements NotifiableView {
         int x = tile.getGridSpot().getX();
         int y = tile.getGridSpot().getY();
         checkCoordinates(x, y);
-        meepleLayer.placeMeeple(x, y, tile.getTerrain(position), position, owner);
-        scrollPane.repaintLayers(); // This is required!
+        board.placeMeeple(x, y, tile.getTerrain(position), position, owner);
     }
 
     /**
@@ -283,8 +272,7 @@ public class MainView extends JFrame implements NotifiableView {
         int x = tile.getGridSpot().getX();
         int y = tile.getGridSpot().getY();
         checkCoordinates(x, y);
-        meepleLayer.enableMeeplePreview(x, y, tile, currentPlayer);
-        scrollPane.repaintLayers(); // This is required! Removing this will paint black background.
+        board.enableMeeplePreview(x, y, tile, currentPlayer);
     }
 
     /**
@@ -296,7 +284,7 @@ public class MainView extends JFrame implements NotifiableView {
     public void setTile(Tile tile, int x, int y) {
         checkParameters(tile);
         checkCoordinates(x, y);
-        tileLayer.placeTile(tile, x, y);
+        board.placeTile(tile, x, y);
     }
 
     /**
@@ -306,14 +294,13 @@ public class MainView extends JFrame implements NotifiableView {
     public void notifyChange() {
         if (currentPlayer != null) {
             setCurrentPlayer(currentPlayer);
-            tileLayer.refreshPlacementHighlights();
+            board.refreshPlacementHighlights();
         }
-        meepleLayer.refreshLayer();
+        board.repaint(); // meeple colors might have changed
     }
 
     private void buildFrame() {
-        tileLayer = new TileLayer(controller, gridHeight, gridWidth, zoomLevel);
-        meepleLayer = new MeepleLayer(controller, gridWidth, gridHeight, zoomLevel);
+        board = new BoardCanvas(controller, gridWidth, gridHeight, zoomLevel);
         menuBar = new MainMenuBar(controller, this);
         setJMenuBar(menuBar);
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
@@ -321,7 +308,7 @@ public class MainView extends JFrame implements NotifiableView {
         Image icon = ImageLoadingUtil.MAIN.createHighDpiImage();
         setIconImage(icon);
         scrollPane = LookAndFeelUtil.createModifiedScrollpane();
-        scrollPane.addLayers(meepleLayer, tileLayer);
+        scrollPane.addLayers(board);
         scrollPane.addZoomListener(() -> zoomIn(FAST), () -> zoomOut(FAST));
         add(scrollPane, BorderLayout.CENTER);
         setMinimumSize(MINIMAL_WINDOW_SIZE);
@@ -0,0 +1,172 @@
+package carcassonne.model.grid;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import carcassonne.model.Player;
+import carcassonne.model.ai.ZeroSumMove;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileStack;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Tests the {@link EnclaveIndex} against a flood fill from the grid border on seeded random boards, both directly and
+ * through the grid, whose placements are rolled back.
+ * @author Timur Saglam
+ */
+public class EnclaveIndexTest {
+    private static final int BOARDS = 30;
+    private static final int GAMES = 6;
+    private static final int[] NEIGHBOR_X = {0, 1, 0, -1};
+    private static final int[] NEIGHBOR_Y = {-1, 0, 1, 0};
+
+    @Test
+    public void indexMatchesFloodFill() {
+        for (long seed = 1; seed <= BOARDS; seed++) {
+            Random random = new Random(seed);
+            int width = 5 + random.nextInt(8);
+            int height = 5 + random.nextInt(6);
+            ChunkDirectory chunks = new ChunkDirectory(width);
+            EnclaveIndex index = new EnclaveIndex(width, height, chunks);
+            boolean[] occupied = new boolean[width * height];
+            List<Integer> placedSpots = new ArrayList<>();
+            for (int step = 0; step < width * height; step++) {
+                int operation = random.nextInt(8);
+                if (operation == 0 && !placedSpots.isEmpty()) { // the most recent spot, like a rollback
+                    int spot = placedSpots.remove(placedSpots.size() - 1);
+                    occupied[spot] = false;
+                    index.removeSpot(spot);
+                } else if (operation == 1 && !placedSpots.isEmpty()) { // any spot
+                    int spot = placedSpots.remove(random.nextInt(placedSpots.size()));
+                    occupied[spot] = false;
+                    index.removeSpot(spot);
+                } else {
+                    int spot = random.nextInt(width * height);
+                    if (!occupied[spot]) {
+                        occupied[spot] = true;
+                        placedSpots.add(spot);
+                        chunks.allocateSlot(spot % width, spot / width); // the storage is allocated by the grid
+                        index.ensureCapacity(chunks.getCapacity());
+                        index.addSpot(spot);
+                    }
+                }
+                compare(index, occupied, width, height, "Seed " + seed + ", step " + step);
+            }
+        }
+    }
+
+    @Test
+    public void rollbackRestoresEnclaves() {
+        for (long seed = 1; seed <= GAMES; seed++) {
+            Random random = new Random(seed);
+            GameSettings settings = new GameSettings();
+            Grid grid = new Grid(7 + (int) (seed % 4), 6 + (int) (seed % 3), true);
+            TileStack stack = new TileStack(settings.getTileDistribution(), 1, seed);
+            Player player = new Player(0, settings);
+            while (!stack.isEmpty() && !grid.isFull()) {
+                if (random.nextInt(3) == 0) {
+                    int mark = grid.mark();
+                    TileStack speculativeStack = new TileStack(settings.getTileDistribution(), 1, seed * 31 + stack.getSize());
+                    for (int turn = random.nextInt(5); turn >= 0; turn--) {
+                        placeRandomTile(grid, speculativeStack, player, settings, random);
+                        compare(grid, "Seed " + seed + ", speculative turn");
+                    }
+                    grid.rollback(mark);
+                    compare(grid, "Seed " + seed + ", rollback");
+                }
+                placeRandomTile(grid, stack, player, settings, random);
+                compare(grid, "Seed " + seed + ", turn");
+            }
+        }
+    }
+
+    private static void placeRandomTile(Grid grid, TileStack stack, Player player, GameSettings settings, Random random) {
+        Tile tile = stack.drawTile();
+        if (tile != null) {
+            List<ZeroSumMove> moves = grid.getPossibleMoves(tile, player, settings);
+            if (!moves.isEmpty()) {
+                ZeroSumMove move = moves.get(random.nextInt(moves.size()));
+                tile.rotateTo(move.getRequiredTileRotation());
+                grid.place(move.getX(), move.getY(), tile);
+            }
+        }
+    }
+
+    private static void compare(EnclaveIndex index, boolean[] occupied, int width, int height, String context) {
+        boolean[] connected = floodFill(occupied, width, height, -1);
+        for (int spot = 0; spot < occupied.length; spot++) {
+            if (!occupied[spot]) {
+                assertEquals(context + ": enclosed " + spot, !connected[spot], index.isEnclosed(spot));
+                boolean[] connectedWithout = floodFill(occupied, width, height, spot);
+                boolean enclosing = false;
+                for (int other = 0; other < occupied.length; other++) {
+                    enclosing |= other != spot && connected[other] && !connectedWithout[other];
+                }
+                assertEquals(context + ": enclosing " + spot, enclosing, index.isEnclosing(spot));
+                for (int direction = 0; direction < NEIGHBOR_X.length; direction++) {
+                    int x = spot % width + NEIGHBOR_X[direction];
+                    int y = spot / width + NEIGHBOR_Y[direction];
+                    if (x >= 0 && y >= 0 && x < width && y < height) {
+                        int neighbor = y * width + x;
+                        assertEquals(context + ": path from " + neighbor + " without " + spot, connectedWithout[neighbor],
+                                index.isConnectedToBorder(neighbor, spot));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void compare(Grid grid, String context) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        boolean[] occupied = new boolean[width * height];
+        for (int spot = 0; spot < occupied.length; spot++) {
+            occupied[spot] = grid.getTileType(spot % width, spot / width) != null;
+        }
+        for (int spot = 0; spot < occupied.length; spot++) {
+            boolean[] connectedWithout = floodFill(occupied, width, height, spot);
+            for (GridDirection direction : GridDirection.values()) {
+                int x = spot % width + direction.getX();
+                int y = spot / width + direction.getY();
+                boolean closing = x >= 0 && y >= 0 && x < width && y < height && !connectedWithout[y * width + x];
+                GridSpot gridSpot = grid.getSpot(spot % width, spot / width);
+                assertEquals(context + ": " + spot + " " + direction, closing, grid.isClosingFreeSpotsOff(gridSpot, direction));
+            }
+        }
+    }
+
+    /**
+     * Marks the free spots that are connected to the grid border, while a specific spot is treated as occupied.
+     */
+    private static boolean[] floodFill(boolean[] occupied, int width, int height, int blocked) {
+        boolean[] connected = new boolean[occupied.length];
+        int[] stack = new int[occupied.length];
+        int stackSize = 0;
+        for (int spot = 0; spot < occupied.length; spot++) {
+            int x = spot % width;
+            int y = spot / width;
+            if ((x == 0 || y == 0 || x == width - 1 || y == height - 1) && !occupied[spot] && spot != blocked) {
+                connected[spot] = true;
+                stack[stackSize++] = spot;
+            }
+        }
+        while (stackSize > 0) {
+            int spot = stack[--stackSize];
+            for (int direction = 0; direction < NEIGHBOR_X.length; direction++) {
+                int x = spot % width + NEIGHBOR_X[direction];
+                int y = spot / width + NEIGHBOR_Y[direction];
+                int neighbor = y * width + x;
+                if (x >= 0 && y >= 0 && x < width && y < height && !occupied[neighbor] && neighbor != blocked && !connected[neighbor]) {
+                    connected[neighbor] = true;
+                    stack[stackSize++] = neighbor;
+                }
+            }
+        }
+        return connected;
+    }
+}
@@ -0,0 +1,195 @@
+package carcassonne.model.grid;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.Player;
+import carcassonne.model.ai.ZeroSumMove;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileStack;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Tests the rollback of the grid journal by playing seeded games with speculative turns that are rolled back, and
+ * comparing them with replays of the same games without speculative turns.
+ * @author Timur Saglam
+ */
+public class GridJournalTest {
+    private static final int GAMES = 6;
+    private static final int PLAYERS = 3;
+    private static final int MAXIMAL_SPECULATIVE_TURNS = 6;
+
+    @Test
+    public void rollbackRestoresState() {
+        for (long seed = 1; seed <= GAMES; seed++) {
+            for (boolean allowEnclaves : List.of(false, true)) {
+                Game replay = new Game(seed, allowEnclaves);
+                Game game = new Game(seed, allowEnclaves);
+                Random speculation = new Random(seed * 31);
+                while (replay.playTurn()) {
+                    if (speculation.nextInt(3) == 0) {
+                        game.speculate(speculation);
+                    }
+                    game.playTurn();
+                    assertEquals("Seed " + seed, replay.describe(), game.describe());
+                }
+                assertEquals(replay.describe(), game.describe());
+            }
+        }
+    }
+
+    @Test
+    public void rollbackToCurrentMarkKeepsState() {
+        Game game = new Game(1, true);
+        game.playTurn();
+        String before = game.describe();
+        game.grid.rollback(game.grid.mark());
+        assertEquals(before, game.describe());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rollbackRejectsInvalidMark() {
+        Game game = new Game(1, true);
+        game.grid.rollback(game.grid.mark() + 1);
+    }
+
+    /**
+     * Seeded game whose turns only depend on its own tile stack and random generator.
+     */
+    private static class Game {
+        private final GameSettings settings;
+        private final Grid grid;
+        private final TileStack stack;
+        private final List<Player> players;
+        private final Random random;
+        private final long seed;
+        private int turn;
+
+        Game(long seed, boolean allowEnclaves) {
+            this.seed = seed;
+            settings = new GameSettings();
+            settings.setNumberOfPlayers(PLAYERS);
+            settings.setAllowEnclaves(allowEnclaves);
+            settings.setSplitPatternScore(seed % 2 == 0);
+            grid = new Grid(15 + (int) (seed % 9), 12 + (int) (seed % 7), allowEnclaves);
+            stack = new TileStack(settings.getTileDistribution(), 1, seed);
+            players = new ArrayList<>();
+            for (int number = 0; number < PLAYERS; number++) {
+                players.add(new Player(number, settings));
+            }
+            random = new Random(seed);
+        }
+
+        boolean playTurn() {
+            boolean played = playTurn(stack, random);
+            turn++;
+            return played;
+        }
+
+        /**
+         * Plays speculative turns with other tiles, sometimes removes a placed tile, and rolls everything back.
+         */
+        void speculate(Random speculation) {
+            String before = describe();
+            int mark = grid.mark();
+            TileStack speculativeStack = new TileStack(settings.getTileDistribution(), 1, seed * 31 + turn);
+            Random speculativeRandom = new Random(speculation.nextLong());
+            int turns = 1 + speculation.nextInt(MAXIMAL_SPECULATIVE_TURNS);
+            for (int speculativeTurn = 0; speculativeTurn < turns; speculativeTurn++) {
+                playTurn(speculativeStack, speculativeRandom);
+                if (speculation.nextInt(4) == 0) {
+                    removeRandomTile(speculation);
+                }
+            }
+            grid.rollback(mark);
+            assertEquals(before, describe());
+        }
+
+        private boolean playTurn(TileStack tiles, Random choices) {
+            Tile tile = tiles.drawTile();
+            if (tile == null) {
+                return false;
+            }
+            Player player = players.get(turn % PLAYERS);
+            List<ZeroSumMove> moves = grid.getPossibleMoves(tile, player, settings);
+            if (!moves.isEmpty()) {
+                ZeroSumMove move = moves.get(choices.nextInt(Math.min(3, moves.size())));
+                tile.rotateTo(move.getRequiredTileRotation());
+                grid.place(move.getX(), move.getY(), tile);
+                if (move.involvesMeeplePlacement() && player.hasFreeMeeples()) {
+                    tile.placeMeeple(player, move.getMeeplePosition(), settings);
+                }
+                for (GridPattern pattern : grid.getModifiedPatterns(tile.getGridSpot())) {
+                    if (pattern.isComplete()) {
+                        pattern.disburse(settings.getSplitPatternScore());
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void removeRandomTile(Random speculation) {
+            List<GridSpot> occupiedSpots = new ArrayList<>();
+            for (int x = 0; x < grid.getWidth(); x++) {
+                for (int y = 0; y < grid.getHeight(); y++) {
+                    if (grid.getTileType(x, y) != null && grid.getSpot(x, y) != grid.getFoundation()) {
+                        occupiedSpots.add(grid.getSpot(x, y));
+                    }
+                }
+            }
+            if (!occupiedSpots.isEmpty()) {
+                occupiedSpots.get(speculation.nextInt(occupiedSpots.size())).removeTile();
+            }
+        }
+
+        /**
+         * Describes the tiles, meeples, scores and patterns of the game, and checks the hash against the tiles and meeples.
+         */
+        String describe() {
+            StringBuilder builder = new StringBuilder();
+            long expectedHash = 0;
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    if (grid.getTileType(x, y) != null) {
+                        int index = y * grid.getWidth() + x;
+                        Tile tile = grid.getSpot(x, y).getTile();
+                        expectedHash ^= ZobristKeys.tileKey(index, tile.getType(), tile.getRotation());
+                        builder.append(x).append(',').append(y).append(tile.getType()).append(tile.getRotation());
+                        builder.append(tile.getGridSpot() == grid.getSpot(x, y));
+                        Meeple meeple = tile.getMeeple();
+                        if (meeple != null) {
+                            expectedHash ^= ZobristKeys.meepleKey(index, meeple.getOwner().getNumber(), meeple.getPosition());
+                            builder.append(" meeple ").append(meeple.getOwner().getNumber()).append(meeple.getPosition());
+                            builder.append(meeple.getLocation() == tile.getGridSpot());
+                        }
+                        builder.append(';');
+                    }
+                }
+            }
+            assertEquals("Hash does not match the tiles and meeples", expectedHash, grid.getHash());
+            builder.append("\nhash ").append(grid.getHash());
+            for (Player player : players) {
+                builder.append("\nplayer ").append(player.getScore()).append('/').append(player.getFreeMeeples());
+                for (TerrainType terrain : TerrainType.basicTerrain()) {
+                    builder.append(',').append(player.getTerrainScore(terrain));
+                }
+            }
+            List<String> patterns = new ArrayList<>();
+            for (GridPattern pattern : grid.getAllPatterns()) {
+                patterns.add(pattern.getType() + " " + pattern.getSize() + " " + pattern.isComplete() + " " + pattern.getPatternScore() + " "
+                        + pattern.getMeepleList().size());
+            }
+            Collections.sort(patterns);
+            builder.append('\n').append(patterns);
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package carcassonne.model.grid;
+
+import static carcassonne.model.grid.GridDirection.NORTH_WEST;
+import static carcassonne.model.grid.GridDirection.WEST;
+import static carcassonne.model.terrain.RotationDirection.LEFT;
+import static carcassonne.model.terrain.RotationDirection.RIGHT;
+import static carcassonne.model.terrain.TerrainType.CASTLE;
+import static carcassonne.model.terrain.TerrainType.FIELDS;
+import static carcassonne.model.terrain.TerrainType.ROAD;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.Player;
+import carcassonne.model.ai.ZeroSumMove;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileStack;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Tests the {@link PatternIndex} against a reference that builds every pattern from scratch with the recursive
+ * traversal of the original grid patterns. Seeded games place tiles and meeples, disburse complete patterns, and remove
+ * both the most recently placed tile and older tiles.
+ * @author Timur Saglam
+ */
+public class PatternIndexTest {
+    private static final int GAMES = 8;
+    private static final int POSITIONS = GridDirection.values().length;
+    private static final GridDirection[] DIRECTIONS = GridDirection.values();
+
+    @Test
+    public void indexMatchesReference() {
+        for (long seed = 1; seed <= GAMES; seed++) {
+            playAndCompare(seed);
+        }
+    }
+
+    @Test
+    public void emptyGridHasFoundationPatterns() {
+        Grid grid = new Grid(5, 5, true);
+        new ReferencePatterns(grid).compareWith(grid.getPatternIndex(), "foundation");
+    }
+
+    private void playAndCompare(long seed) {
+        Random random = new Random(seed);
+        int playerCount = 2 + (int) (seed % 4);
+        GameSettings settings = new GameSettings();
+        settings.setNumberOfPlayers(playerCount);
+        settings.setAllowFortifying(seed % 3 == 0);
+        Grid grid = new Grid(13, 11, true);
+        TileStack stack = new TileStack(settings.getTileDistribution(), 1, seed);
+        List<Player> players = new ArrayList<>();
+        for (int number = 0; number < playerCount; number++) {
+            players.add(new Player(number, settings));
+        }
+        List<Tile> placedTiles = new ArrayList<>();
+        int turn = 0;
+        while (!stack.isEmpty() && !grid.isFull()) {
+            Player player = players.get(turn++ % playerCount);
+            Tile tile = stack.drawTile();
+            List<ZeroSumMove> moves = grid.getPossibleMoves(tile, player, settings);
+            if (moves.isEmpty()) {
+                continue;
+            }
+            ZeroSumMove move = moves.get(random.nextInt(moves.size()));
+            tile.rotateTo(move.getRequiredTileRotation());
+            grid.place(move.getX(), move.getY(), tile);
+            placedTiles.add(tile);
+            if (move.involvesMeeplePlacement() && player.hasFreeMeeples()) {
+                tile.placeMeeple(player, move.getMeeplePosition(), settings);
+            }
+            compare(grid, seed, turn, "placement");
+            int operation = random.nextInt(8);
+            if (operation == 0) { // the most recently placed tile
+                tile.getGridSpot().removeTile();
+                placedTiles.remove(tile);
+                compare(grid, seed, turn, "removal of the last tile");
+            } else if (operation == 1 && placedTiles.size() > 2) { // any other tile
+                Tile oldTile = placedTiles.remove(random.nextInt(placedTiles.size() - 1));
+                oldTile.getGridSpot().removeTile();
+                compare(grid, seed, turn, "removal of an older tile");
+            } else {
+                for (GridPattern pattern : grid.getModifiedPatterns(tile.getGridSpot())) {
+                    if (pattern.isComplete()) {
+                        pattern.disburse(false);
+                    }
+                }
+                compare(grid, seed, turn, "disbursement");
+            }
+        }
+    }
+
+    private void compare(Grid grid, long seed, int turn, String step) {
+        new ReferencePatterns(grid).compareWith(grid.getPatternIndex(), "Seed " + seed + ", turn " + turn + ", " + step);
+    }
+
+    /**
+     * Castle, road and field patterns of a grid, built from scratch by the traversal of the original grid patterns. Every
+     * node of a pattern is a position on a placed tile.
+     */
+    private static class ReferencePatterns {
+        private final Grid grid;
+        private final int[] patternOf; // per node
+        private final List<TerrainType> terrains = new ArrayList<>();
+        private final List<List<Integer>> nodes = new ArrayList<>();
+        private final List<Integer> openEdges = new ArrayList<>();
+
+        ReferencePatterns(Grid grid) {
+            this.grid = grid;
+            patternOf = new int[grid.getWidth() * grid.getHeight() * POSITIONS];
+            Arrays.fill(patternOf, -1);
+            for (int index = 0; index < grid.getWidth() * grid.getHeight(); index++) {
+                Tile tile = tileAt(index);
+                for (GridDirection position : DIRECTIONS) {
+                    TerrainType terrain = tile == null ? null : tile.getTerrain(position);
+                    if ((terrain == CASTLE || terrain == ROAD || terrain == FIELDS) && patternOf[index * POSITIONS + position.ordinal()] < 0) {
+                        build(index, position, terrain);
+                    }
+                }
+            }
+        }
+
+        void compareWith(PatternIndex index, String context) {
+            Map<Integer, Integer> patternByRoot = new HashMap<>();
+            for (int pattern = 0; pattern < nodes.size(); pattern++) {
+                int root = -1;
+                for (int node : nodes.get(pattern)) {
+                    int nodeRoot = index.findPattern(node / POSITIONS, DIRECTIONS[node % POSITIONS]);
+                    assertNotEquals(context + ": node without pattern", PatternIndex.NO_SEGMENT, nodeRoot);
+                    if (root < 0) {
+                        root = nodeRoot;
+                    }
+                    assertEquals(context + ": pattern is split", root, nodeRoot);
+                }
+                Integer previous = patternByRoot.put(root, pattern);
+                assertTrue(context + ": patterns are merged", previous == null);
+                comparePattern(index, root, pattern, context + ", " + terrains.get(pattern) + " pattern at " + nodes.get(pattern).get(0));
+            }
+        }
+
+        private void comparePattern(PatternIndex index, int root, int pattern, String context) {
+            TerrainType terrain = terrains.get(pattern);
+            assertEquals(context, terrain, index.getTerrain(root));
+            assertEquals(context + ": tile segments", countSegments(pattern), index.getTileCount(root));
+            int[] meeples = countMeeples(pattern);
+            int meepleTotal = 0;
+            for (int player = 0; player < GameSettings.MAXIMAL_PLAYERS; player++) {
+                assertEquals(context + ": meeples of player " + player, meeples[player], index.getMeepleCount(root, player));
+                meepleTotal += meeples[player];
+            }
+            assertEquals(context + ": meeples", meepleTotal, index.getMeepleCount(root));
+            if (terrain == FIELDS) {
+                assertEquals(context + ": adjacent closed castles", countAdjacentClosedCastles(pattern), index.countAdjacentClosedCastles(root));
+            } else {
+                assertEquals(context + ": open edges", (int) openEdges.get(pattern), index.getOpenEdges(root));
+                assertEquals(context + ": closed", openEdges.get(pattern) == 0, index.isClosed(root));
+                if (terrain == CASTLE) {
+                    assertEquals(context + ": emblems", countEmblems(pattern), index.getEmblemCount(root));
+                }
+            }
+        }
+
+        private void build(int startIndex, GridDirection startPosition, TerrainType terrain) {
+            int pattern = terrains.size();
+            List<Integer> patternNodes = new ArrayList<>();
+            int open = 0;
+            Deque<Integer> stack = new ArrayDeque<>();
+            visit(startIndex * POSITIONS + startPosition.ordinal(), pattern, stack);
+            while (!stack.isEmpty()) {
+                int node = stack.pop();
+                patternNodes.add(node);
+                int index = node / POSITIONS;
+                GridDirection position = DIRECTIONS[node % POSITIONS];
+                Tile tile = tileAt(index);
+                for (GridDirection other : DIRECTIONS) {
+                    if (tile.hasConnection(position, other)) {
+                        visit(index * POSITIONS + other.ordinal(), pattern, stack);
+                    }
+                }
+                if (terrain == FIELDS) {
+                    for (GridDirection direction : getFieldConnections(position, tile)) {
+                        int neighbor = neighborOf(index, direction);
+                        GridDirection opposite = getFieldOpposite(position, direction);
+                        if (neighbor >= 0 && tileAt(neighbor) != null && tileAt(neighbor).getTerrain(opposite) == FIELDS) { // no other terrain
+                            visit(neighbor * POSITIONS + opposite.ordinal(), pattern, stack);
+                        }
+                    }
+                } else if (position.isSmallerOrEquals(WEST)) {
+                    int neighbor = neighborOf(index, position);
+                    if (neighbor >= 0 && tileAt(neighbor) != null) {
+                        visit(neighbor * POSITIONS + position.opposite().ordinal(), pattern, stack);
+                    } else {
+                        open++;
+                    }
+                }
+            }
+            terrains.add(terrain);
+            nodes.add(patternNodes);
+            openEdges.add(open);
+        }
+
+        private void visit(int node, int pattern, Deque<Integer> stack) {
+            if (patternOf[node] < 0) {
+                patternOf[node] = pattern;
+                stack.push(node);
+            }
+        }
+
+        // a segment is identified by the smallest position on its tile that is connected to a node.
+        private int countSegments(int pattern) {
+            Set<Integer> segments = new HashSet<>();
+            for (int node : nodes.get(pattern)) {
+                Tile tile = tileAt(node / POSITIONS);
+                for (GridDirection position : DIRECTIONS) {
+                    if (tile.hasConnection(DIRECTIONS[node % POSITIONS], position)) {
+                        segments.add(node / POSITIONS * POSITIONS + position.ordinal());
+                        break;
+                    }
+                }
+            }
+            return segments.size();
+        }
+
+        private int countEmblems(int pattern) {
+            Set<Integer> emblemTiles = new HashSet<>();
+            for (int node : nodes.get(pattern)) {
+                if (tileAt(node / POSITIONS).hasEmblem()) {
+                    emblemTiles.add(node / POSITIONS);
+                }
+            }
+            return emblemTiles.size();
+        }
+
+        private int[] countMeeples(int pattern) {
+            int[] meeples = new int[GameSettings.MAXIMAL_PLAYERS];
+            for (int node : nodes.get(pattern)) {
+                Meeple meeple = tileAt(node / POSITIONS).getMeeple();
+                if (meeple != null && meeple.getPosition().ordinal() == node % POSITIONS) {
+                    meeples[meeple.getOwner().getNumber()]++;
+                }
+            }
+            return meeples;
+        }
+
+        private int countAdjacentClosedCastles(int pattern) {
+            Set<Integer> castles = new HashSet<>();
+            for (int node : nodes.get(pattern)) {
+                int index = node / POSITIONS;
+                for (GridDirection adjacent : getAdjacentPositions(DIRECTIONS[node % POSITIONS])) {
+                    int castle = patternOf[index * POSITIONS + adjacent.ordinal()];
+                    if (tileAt(index).getTerrain(adjacent) == CASTLE && openEdges.get(castle) == 0) {
+                        castles.add(castle);
+                    }
+                }
+            }
+            return castles.size();
+        }
+
+        private Tile tileAt(int index) {
+            return grid.getSpot(index % grid.getWidth(), index / grid.getWidth()).getTile();
+        }
+
+        private int neighborOf(int index, GridDirection direction) {
+            int x = index % grid.getWidth() + direction.getX();
+            int y = index / grid.getWidth() + direction.getY();
+            if (x < 0 || y < 0 || x >= grid.getWidth() || y >= grid.getHeight()) {
+                return -1;
+            }
+            return y * grid.getWidth() + x;
+        }
+
+        // the following methods are the field traversal of the original fields pattern:
+
+        private static List<GridDirection> getAdjacentPositions(GridDirection position) {
+            List<GridDirection> neighbors = new ArrayList<>();
+            if (position.isSmallerOrEquals(WEST)) {
+                neighbors.add(GridDirection.CENTER);
+            }
+            if (position.isSmallerOrEquals(NORTH_WEST)) {
+                neighbors.add(position.nextDirectionTo(LEFT));
+                neighbors.add(position.nextDirectionTo(RIGHT));
+            } else {
+                neighbors.addAll(GridDirection.directNeighbors());
+            }
+            return neighbors;
+        }
+
+        private static List<GridDirection> getFieldConnections(GridDirection position, Tile tile) {
+            List<GridDirection> results = new ArrayList<>();
+            if (tile.getTerrain(position) == FIELDS) {
+                if (position.isSmallerOrEquals(WEST)) {
+                    results.add(position);
+                } else if (position.isSmallerOrEquals(NORTH_WEST)) {
+                    for (GridDirection next : List.of(position.nextDirectionTo(LEFT), position.nextDirectionTo(RIGHT))) {
+                        if (tile.getTerrain(next) != CASTLE) {
+                            results.add(next);
+                        }
+                    }
+                }
+            }
+            return results;
+        }
+
+        private static GridDirection getFieldOpposite(GridDirection position, GridDirection neighborDirection) {
+            if (position.isSmallerOrEquals(WEST)) {
+                return position.opposite();
+            }
+            if (position.isSmallerOrEquals(NORTH_WEST)) {
+                if (neighborDirection.isLeftOf(position)) {
+                    return position.opposite().nextDirectionTo(LEFT).nextDirectionTo(LEFT);
+                }
+                return position.opposite().nextDirectionTo(RIGHT).nextDirectionTo(RIGHT);
+            }
+            return position;
+        }
+    }
+}